@@ -0,0 +1,60 @@
+package bookstore.benchmarks;
+
+import bookstore.config.BookstoreApi;
+import bookstore.payload.PayloadTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the book payload in i_create_a_book_with_title_and_author and of
+ * serializing it to the bytes BookstoreApi hands to the transport, against patching a
+ * pre-built body of the same size in place as the payload sweep does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookBodyBenchmark {
+
+    private Map<String, Object> body;
+    private PayloadTemplate template;
+    private ByteBuffer templateBody;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        body = BookstoreApi.bookBody("The Sun Also Rises", "Ernest Hemingway");
+        template = new PayloadTemplate(BookstoreApi.toJson(body).length);
+        templateBody = ByteBuffer.allocate(template.getSize());
+        template.writeTo(templateBody);
+    }
+
+    @Benchmark
+    public Map<String, Object> buildBookBody() {
+        return BookstoreApi.bookBody("The Sun Also Rises", "Ernest Hemingway");
+    }
+
+    @Benchmark
+    public byte[] serializeBookBody() {
+        return BookstoreApi.toJson(body);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializeBookBody() {
+        return BookstoreApi.toJson(BookstoreApi.bookBody("The Sun Also Rises", "Ernest Hemingway"));
+    }
+
+    @Benchmark
+    public ByteBuffer patchPayloadTemplate() {
+        template.patch(templateBody, sequence++);
+        return templateBody;
+    }
+}
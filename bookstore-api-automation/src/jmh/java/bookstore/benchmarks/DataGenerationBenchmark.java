@@ -0,0 +1,56 @@
+package bookstore.benchmarks;
+
+import bookstore.utils.FakerDataUtils;
+import com.github.javafaker.Faker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FakerDataUtils (backed by the seeded corpus) against calling a shared Faker directly,
+ * with four threads to expose contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class DataGenerationBenchmark {
+
+    private final Faker faker = new Faker();
+
+    @Benchmark
+    public String corpusEmail() {
+        return FakerDataUtils.generateRandomEmail();
+    }
+
+    @Benchmark
+    public String corpusTitle() {
+        return FakerDataUtils.generateRandomBookTitle();
+    }
+
+    @Benchmark
+    public String corpusSentence() {
+        return FakerDataUtils.generateRandomSentence();
+    }
+
+    @Benchmark
+    public String fakerEmail() {
+        return faker.internet().emailAddress();
+    }
+
+    @Benchmark
+    public String fakerTitle() {
+        return faker.book().title();
+    }
+
+    @Benchmark
+    public String fakerSentence() {
+        return faker.lorem().sentence();
+    }
+}
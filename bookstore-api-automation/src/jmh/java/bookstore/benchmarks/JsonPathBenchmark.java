@@ -0,0 +1,66 @@
+package bookstore.benchmarks;
+
+import bookstore.config.ParsedResponse;
+import bookstore.transport.RestAssuredTransport;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the five response.jsonPath().getString(...) calls that follow a book creation
+ * in the "Complete Book Lifecycle Management" scenario, against parsing once with JsonPath
+ * and with the Jackson-backed ParsedResponse the step definitions use.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonPathBenchmark {
+
+    private static final String[] KEYS = {"id", "name", "author", "published_year", "book_summary"};
+    private static final String BOOK_JSON = "{\"id\":4711,\"name\":\"The Sun Also Rises\",\"author\":\"Ernest Hemingway\","
+            + "\"published_year\":1926,\"book_summary\":\"Expatriates travel from Paris to Pamplona.\"}";
+
+    private Response response;
+
+    @Setup
+    public void setUp() {
+        response = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(BOOK_JSON)
+                .build();
+    }
+
+    @Benchmark
+    public void jsonPathPerKey(Blackhole blackhole) {
+        for (String key : KEYS) {
+            blackhole.consume(response.jsonPath().getString(key));
+        }
+    }
+
+    @Benchmark
+    public void jsonPathOnce(Blackhole blackhole) {
+        JsonPath jsonPath = response.jsonPath();
+        for (String key : KEYS) {
+            blackhole.consume(jsonPath.getString(key));
+        }
+    }
+
+    @Benchmark
+    public void parsedResponse(Blackhole blackhole) {
+        ParsedResponse parsed = new ParsedResponse(RestAssuredTransport.wrap(response));
+        for (String key : KEYS) {
+            blackhole.consume(parsed.getString(key));
+        }
+    }
+}
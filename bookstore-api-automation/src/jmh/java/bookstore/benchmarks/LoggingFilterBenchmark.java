@@ -0,0 +1,108 @@
+package bookstore.benchmarks;
+
+import bookstore.capture.CaptureFilter;
+import bookstore.capture.CaptureWriter;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import bookstore.config.ApiClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of the request/response logging options, measured end to end
+ * through the pooled client against a local JDK HTTP server that returns a fixed book.
+ * Pretty-printing appends to a temporary file through a PrintStream, the way
+ * APIConfig.enableFileLogging does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggingFilterBenchmark {
+
+    private static final byte[] BOOK_JSON = ("{\"id\":4711,\"name\":\"The Sun Also Rises\",\"author\":\"Ernest Hemingway\","
+            + "\"published_year\":1926,\"book_summary\":\"Expatriates travel from Paris to Pamplona.\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"none", "pretty-print", "capture-all", "capture-sampled"})
+    public String logging;
+
+    private HttpServer server;
+    private CaptureWriter captureWriter;
+    private File logFile;
+    private PrintStream logStream;
+    private RequestSpecification spec;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/books/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BOOK_JSON.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BOOK_JSON);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri("http://localhost")
+                .setPort(server.getAddress().getPort())
+                .setConfig(ApiClient.config());
+        switch (logging) {
+            case "pretty-print":
+                logFile = File.createTempFile("jmh-logging", ".log");
+                logStream = new PrintStream(new FileOutputStream(logFile, true));
+                builder.addFilter(new RequestLoggingFilter(logStream)).addFilter(new ResponseLoggingFilter(logStream));
+                break;
+            case "capture-all":
+            case "capture-sampled":
+                captureWriter = new CaptureWriter(new File("target/jmh-capture.ndjson"), 65536, CaptureWriter.OverflowPolicy.DROP);
+                builder.addFilter(new CaptureFilter(captureWriter, "capture-all".equals(logging) ? 1.0 : 0.01, 1.0, true));
+                break;
+            default:
+                break;
+        }
+        spec = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (captureWriter != null) {
+            captureWriter.close();
+        }
+        if (logStream != null) {
+            logStream.close();
+            logFile.delete();
+        }
+        server.stop(0);
+    }
+
+    @Benchmark
+    public Response getBook() {
+        return RestAssured.given(spec).get("/books/4711");
+    }
+}
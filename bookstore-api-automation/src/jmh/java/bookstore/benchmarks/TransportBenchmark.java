@@ -0,0 +1,105 @@
+package bookstore.benchmarks;
+
+import bookstore.config.ApiClient;
+import bookstore.transport.ApiResponse;
+import bookstore.transport.HttpClientTransport;
+import bookstore.transport.RestAssuredTransport;
+import bookstore.transport.Transport;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.builder.RequestSpecBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of each transport, end to end against a local JDK HTTP server that
+ * returns a fixed book: a GET, a POST of a pre-serialized body, and a batch of async GETs
+ * in flight together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransportBenchmark {
+
+    private static final int ASYNC_BATCH = 16;
+    private static final String TOKEN = "benchmark-token";
+    private static final byte[] BOOK_JSON = ("{\"id\":4711,\"name\":\"The Sun Also Rises\",\"author\":\"Ernest Hemingway\","
+            + "\"published_year\":1926,\"book_summary\":\"Expatriates travel from Paris to Pamplona.\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"restassured", "http2"})
+    public String transport;
+
+    private HttpServer server;
+    private Transport engine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Headers and body leave in separate writes; without this, delayed ACKs add ~40 ms per call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/books/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BOOK_JSON.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BOOK_JSON);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+
+        int port = server.getAddress().getPort();
+        engine = "http2".equals(transport)
+                ? new HttpClientTransport("http://localhost:" + port)
+                : new RestAssuredTransport(new RequestSpecBuilder()
+                        .setBaseUri("http://localhost")
+                        .setPort(port)
+                        .setConfig(ApiClient.config())
+                        .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public int getBook() {
+        return engine.send("GET", "/books/4711", TOKEN, null).getStatusCode();
+    }
+
+    @Benchmark
+    public int createBook() {
+        return engine.send("POST", "/books/", TOKEN, BOOK_JSON).getStatusCode();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ASYNC_BATCH)
+    public void getBookAsync(Blackhole blackhole) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<ApiResponse>[] inFlight = new CompletableFuture[ASYNC_BATCH];
+        for (int i = 0; i < ASYNC_BATCH; i++) {
+            inFlight[i] = engine.sendAsync("GET", "/books/4711", TOKEN, null);
+        }
+        for (CompletableFuture<ApiResponse> response : inFlight) {
+            blackhole.consume(response.join().getStatusCode());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package bookstore.auth;
+
+/**
+ * A signed-up user held by the {@link TokenPool} together with its current access token.
+ * The token is replaced in place when the pool refreshes it.
+ */
+public class PooledUser {
+
+    private final String email;
+    private final String password;
+    private volatile String accessToken;
+    private volatile long expiresAtMillis;
+
+    PooledUser(String email, String password) {
+        this.email = email;
+        this.password = password;
+    }
+
+    void updateToken(String accessToken, long expiresAtMillis) {
+        this.accessToken = accessToken;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
@@ -0,0 +1,223 @@
+package bookstore.auth;
+
+import bookstore.cleanup.ResourceRegistry;
+import bookstore.config.BookstoreApi;
+import bookstore.config.ParsedResponse;
+import bookstore.metrics.ApiMetrics;
+import bookstore.metrics.TokenRefreshEvent;
+import bookstore.transport.ApiResponse;
+import bookstore.utils.FakerDataUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe pool of pre-registered users with live access tokens.
+ * <p>
+ * /signup and /login both run bcrypt on the server, so creating a user per scenario
+ * dominates run time. The pool signs up and logs in its users once, concurrently, and
+ * hands them out round-robin. A background task logs users in again before their token
+ * expires: the API issues tokens valid for 30 minutes (create_access_token in main.py).
+ */
+public class TokenPool {
+
+    public static final Duration TOKEN_LIFETIME = Duration.ofMinutes(30);
+    public static final Duration REFRESH_MARGIN = Duration.ofMinutes(5);
+    private static final Duration REFRESH_CHECK_INTERVAL = Duration.ofSeconds(30);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Not a monitor: creating the pool waits on virtual threads, and on JDK 21 a virtual thread
+    // blocked on a monitor pins its carrier, so virtual users queueing here could starve them
+    private static final ReentrantLock SHARED_LOCK = new ReentrantLock();
+    private static volatile TokenPool shared;
+
+    private final PooledUser[] users;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final ScheduledExecutorService refresher;
+
+    private TokenPool(PooledUser[] users) {
+        this.users = users;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-pool-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshExpiring, REFRESH_CHECK_INTERVAL.toMillis(),
+                REFRESH_CHECK_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The process-wide pool, created on first use with -Dtoken.pool.size users (default 8)
+     */
+    public static TokenPool shared() {
+        if (shared == null) {
+            SHARED_LOCK.lock();
+            try {
+                if (shared == null) {
+                    shared = create(Integer.parseInt(System.getProperty("token.pool.size", "8")));
+                }
+            } finally {
+                SHARED_LOCK.unlock();
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Sign up and log in size fresh users concurrently
+     */
+    public static TokenPool create(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Token pool size must be positive: " + size);
+        }
+        long start = System.nanoTime();
+        PooledUser[] users = new PooledUser[size];
+        for (int i = 0; i < size; i++) {
+            users[i] = new PooledUser(FakerDataUtils.generateRandomEmail(), FakerDataUtils.generateRandomPassword());
+        }
+        runConcurrently(users, true);
+        System.out.println("[AUTH] Token pool ready with " + size + " users in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return new TokenPool(users);
+    }
+
+    /**
+     * Next user round-robin; many callers may share the same user
+     */
+    public PooledUser acquire() {
+        return users[Math.floorMod(cursor.getAndIncrement(), users.length)];
+    }
+
+    /**
+     * Access token of the next user round-robin
+     */
+    public String nextToken() {
+        return acquire().getAccessToken();
+    }
+
+    public int size() {
+        return users.length;
+    }
+
+    /**
+     * Log in again every user whose token expires within the refresh margin
+     */
+    void refreshExpiring() {
+        long threshold = System.currentTimeMillis() + REFRESH_MARGIN.toMillis();
+        List<PooledUser> expiring = new ArrayList<>();
+        for (PooledUser user : users) {
+            if (user.getExpiresAtMillis() <= threshold) {
+                expiring.add(user);
+            }
+        }
+        if (expiring.isEmpty()) {
+            return;
+        }
+        try {
+            runConcurrently(expiring.toArray(new PooledUser[0]), false);
+            System.out.println("[AUTH] Refreshed " + expiring.size() + " pooled tokens");
+        } catch (RuntimeException e) {
+            // Keep the old tokens and retry on the next check
+            System.err.println("[AUTH] Token refresh failed: " + e.getMessage());
+        }
+    }
+
+    private static void runConcurrently(PooledUser[] users, boolean signup) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (PooledUser user : users) {
+                futures.add(executor.submit(() -> {
+                    if (signup) {
+                        signup(user);
+                        login(user);
+                    } else {
+                        refresh(user);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Token pool user setup failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while setting up token pool", e);
+        }
+    }
+
+    private static void signup(PooledUser user) {
+        ResourceRegistry.run().registerUser(user.getEmail());
+        ApiResponse response = BookstoreApi.shared().signup(user.getEmail(), user.getPassword());
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("Signup failed for " + user.getEmail() + ": "
+                    + response.getStatusCode() + " " + response.asString());
+        }
+    }
+
+    /**
+     * Log in again, recording the refresh in ApiMetrics and as a JFR event
+     */
+    private static void refresh(PooledUser user) {
+        TokenRefreshEvent event = new TokenRefreshEvent();
+        event.begin();
+        String failure = null;
+        try {
+            login(user);
+        } catch (RuntimeException e) {
+            failure = e.getMessage();
+            throw e;
+        } finally {
+            ApiMetrics.shared().recordTokenRefresh(failure == null);
+            event.end();
+            if (event.shouldCommit()) {
+                event.email = user.getEmail();
+                event.succeeded = failure == null;
+                event.failure = failure;
+                event.commit();
+            }
+        }
+    }
+
+    private static void login(PooledUser user) {
+        long loginTime = System.currentTimeMillis();
+        ApiResponse response = BookstoreApi.shared().login(user.getEmail(), user.getPassword());
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + user.getEmail() + ": "
+                    + response.getStatusCode() + " " + response.asString());
+        }
+        String accessToken = new ParsedResponse(response).getString("access_token");
+        user.updateToken(accessToken, expiresAtMillis(accessToken, loginTime));
+    }
+
+    /**
+     * Read the JWT "exp" claim; fall back to the API's 30-minute lifetime if the token is opaque
+     */
+    static long expiresAtMillis(String accessToken, long issuedAtMillis) {
+        String[] parts = accessToken.split("\\.");
+        if (parts.length == 3) {
+            try {
+                JsonNode claims = MAPPER.readTree(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+                if (claims.hasNonNull("exp")) {
+                    return TimeUnit.SECONDS.toMillis(claims.get("exp").asLong());
+                }
+            } catch (Exception e) {
+                // Not a readable JWT; use the default lifetime below
+            }
+        }
+        return issuedAtMillis + TOKEN_LIFETIME.toMillis();
+    }
+}
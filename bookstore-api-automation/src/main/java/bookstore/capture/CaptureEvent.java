@@ -0,0 +1,63 @@
+package bookstore.capture;
+
+/**
+ * One captured request/response exchange. Immutable once handed to the ring buffer.
+ */
+public class CaptureEvent {
+
+    private final long timestampMillis;
+    private final String method;
+    private final String path;
+    private final int status;
+    private final long latencyMicros;
+    private final String session;
+    private final String requestBody;
+    private final String responseBody;
+
+    public CaptureEvent(long timestampMillis, String method, String path, int status, long latencyMicros,
+                        String session, String requestBody, String responseBody) {
+        this.timestampMillis = timestampMillis;
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        this.latencyMicros = latencyMicros;
+        this.session = session;
+        this.requestBody = requestBody;
+        this.responseBody = responseBody;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getLatencyMicros() {
+        return latencyMicros;
+    }
+
+    /**
+     * {@link CaptureFilter#sessionKey} of the Authorization header, or null for unauthenticated requests
+     */
+    public String getSession() {
+        return session;
+    }
+
+    public String getRequestBody() {
+        return requestBody;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+}
@@ -0,0 +1,116 @@
+package bookstore.capture;
+
+import bookstore.config.APIConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RestAssured filter that samples request/response exchanges into a {@link CaptureWriter}.
+ * <p>
+ * Successes and failures (status 400 and above) have separate sample rates, e.g. 1% of
+ * successes and every failure. Unsampled requests cost one random draw; sampled ones
+ * build a small event and offer it to the writer's ring buffer without blocking.
+ * Response bodies without a Content-Length (chunked streams such as GET /books/) are not
+ * captured, since reading them here would buffer the whole stream before the caller sees it.
+ * <p>
+ * No credentials reach the queue. The Authorization header is recorded only as a
+ * {@link #sessionKey}, password fields are replaced by {@value #REDACTED}, and access
+ * tokens in response bodies are replaced by their session key, so a replay can still tell
+ * which requests a login authenticated.
+ */
+public class CaptureFilter implements Filter {
+
+    public static final String REDACTED = "[redacted]";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final CaptureWriter writer;
+    private final double successSampleRate;
+    private final double failureSampleRate;
+    private final boolean captureBodies;
+
+    public CaptureFilter(CaptureWriter writer, double successSampleRate, double failureSampleRate, boolean captureBodies) {
+        this.writer = writer;
+        this.successSampleRate = successSampleRate;
+        this.failureSampleRate = failureSampleRate;
+        this.captureBodies = captureBodies;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long timestampMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        int status = response.getStatusCode();
+        double sampleRate = status >= 400 ? failureSampleRate : successSampleRate;
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return response;
+        }
+
+        String authorization = requestSpec.getHeaders().getValue(APIConfig.AUTHORIZATION_HEADER);
+        Object requestBody = captureBodies ? requestSpec.getBody() : null;
+        writer.submit(new CaptureEvent(
+                timestampMillis,
+                requestSpec.getMethod(),
+                requestSpec.getDerivedPath(),
+                status,
+                latencyMicros,
+                authorization == null ? null : sessionKey(authorization),
+                requestBody == null ? null : redact(requestBody.toString()),
+                captureBodies && response.getHeader("Content-Length") != null ? redact(response.asString()) : null));
+        return response;
+    }
+
+    /**
+     * Session key recorded for an Authorization header value: the first 64 bits of its
+     * SHA-256, in hex
+     */
+    public static String sessionKey(String authorization) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(authorization.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every JVM provides SHA-256", e);
+        }
+    }
+
+    /**
+     * A JSON object body with its password and access_token fields redacted; any other body as it is
+     */
+    private static String redact(String body) {
+        if (!body.contains("\"password\"") && !body.contains("\"access_token\"")) {
+            return body;
+        }
+        try {
+            JsonNode json = MAPPER.readTree(body);
+            if (json instanceof ObjectNode object) {
+                if (object.has("password")) {
+                    object.put("password", REDACTED);
+                }
+                if (object.hasNonNull("access_token")) {
+                    object.put("access_token", sessionKey(APIConfig.getBearerToken(object.get("access_token").asText())));
+                }
+                return MAPPER.writeValueAsString(object);
+            }
+        } catch (Exception e) {
+            // Not JSON after all
+        }
+        return REDACTED;
+    }
+}
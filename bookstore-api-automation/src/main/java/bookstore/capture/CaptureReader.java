@@ -0,0 +1,163 @@
+package bookstore.capture;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a capture file written by {@link CaptureWriter} one exchange at a time.
+ * <p>
+ * The file is memory-mapped in windows of {@link #WINDOW_BYTES} rather than read through
+ * the heap, so a multi-gigabyte capture costs one window of address space plus one line
+ * buffer. Each line is copied into a reusable buffer and parsed with Jackson's streaming
+ * parser. Malformed lines, e.g. a torn last line after a crash, are skipped and counted.
+ * Not thread-safe.
+ */
+public class CaptureReader implements AutoCloseable {
+
+    public static final long WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private byte[] line = new byte[8 * 1024];
+    private long malformedLines;
+
+    public CaptureReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    /**
+     * The next exchange in file order, or null at the end of the file
+     */
+    public CaptureEvent next() throws IOException {
+        while (position < size) {
+            int length = readLine();
+            if (length == 0) {
+                continue;
+            }
+            CaptureEvent event = parse(length);
+            if (event != null) {
+                return event;
+            }
+            malformedLines++;
+        }
+        return null;
+    }
+
+    public long getMalformedLines() {
+        return malformedLines;
+    }
+
+    /**
+     * Bytes consumed so far, out of {@link #getSize()}
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Copy the line starting at position into the line buffer and move past its newline
+     */
+    private int readLine() throws IOException {
+        if (window == null || position < windowStart || position >= windowStart + window.limit()) {
+            map(position);
+        }
+        int start = (int) (position - windowStart);
+        int end = indexOfNewline(start);
+        if (end < 0 && windowStart + window.limit() < size) {
+            // The line runs past this window: map a new one starting at the line
+            map(position);
+            start = 0;
+            end = indexOfNewline(0);
+            if (end < 0 && window.limit() == WINDOW_BYTES) {
+                throw new IOException("Capture line at offset " + position + " is longer than " + WINDOW_BYTES + " bytes");
+            }
+        }
+        int length = (end < 0 ? window.limit() : end) - start;
+        if (length > line.length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        window.get(start, line, 0, length);
+        position += length + (end < 0 ? 0 : 1);
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return length;
+    }
+
+    private int indexOfNewline(int from) {
+        int limit = window.limit();
+        for (int i = from; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void map(long offset) throws IOException {
+        windowStart = offset;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_BYTES, size - offset));
+    }
+
+    private CaptureEvent parse(int length) {
+        long timestamp = -1;
+        String method = null;
+        String path = null;
+        int status = 0;
+        long latencyMicros = 0;
+        String session = null;
+        String request = null;
+        String response = null;
+        try (JsonParser parser = JSON.createParser(line, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (field) {
+                    case "ts" -> timestamp = parser.getLongValue();
+                    case "method" -> method = parser.getText();
+                    case "path" -> path = parser.getText();
+                    case "status" -> status = parser.getIntValue();
+                    case "latency_us" -> latencyMicros = parser.getLongValue();
+                    case "session" -> session = parser.getText();
+                    case "request" -> request = parser.getText();
+                    case "response" -> response = parser.getText();
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        if (timestamp < 0 || method == null || path == null) {
+            return null;
+        }
+        return new CaptureEvent(timestamp, method, path, status, latencyMicros, session, request, response);
+    }
+}
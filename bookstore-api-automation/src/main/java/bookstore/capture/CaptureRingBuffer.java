@@ -0,0 +1,71 @@
+package bookstore.capture;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer/single-consumer ring buffer.
+ * <p>
+ * Producers claim a sequence number with a CAS and publish into the slot; they never
+ * take a lock and never wait for the consumer. When the buffer is full {@link #offer}
+ * returns false immediately and the caller decides whether to drop or retry.
+ */
+public class CaptureRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private volatile long tail;
+
+    public CaptureRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + requestedCapacity);
+        }
+        this.capacity = requestedCapacity == 1 ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Publish an element; false when the buffer is full
+     */
+    public boolean offer(E element) {
+        while (true) {
+            long sequence = head.get();
+            if (sequence - tail >= capacity) {
+                return false;
+            }
+            if (head.compareAndSet(sequence, sequence + 1)) {
+                slots.lazySet((int) sequence & mask, element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Take the next element, or null if none has been published yet. Single consumer only.
+     */
+    public E poll() {
+        long sequence = tail;
+        int index = (int) sequence & mask;
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        tail = sequence + 1;
+        return element;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Approximate number of claimed but not yet consumed slots
+     */
+    public int size() {
+        return (int) Math.max(0, head.get() - tail);
+    }
+}
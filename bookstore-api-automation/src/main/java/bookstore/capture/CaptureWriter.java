@@ -0,0 +1,165 @@
+package bookstore.capture;
+
+import bookstore.metrics.CaptureDropEvent;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains captured exchanges from a {@link CaptureRingBuffer} on a background thread and
+ * appends them to a newline-delimited JSON file. The request path only ever offers to the
+ * ring buffer; all serialization and I/O happens on the writer thread.
+ */
+public class CaptureWriter implements AutoCloseable {
+
+    /**
+     * What the request path does when the ring buffer is full
+     */
+    public enum OverflowPolicy {
+        /** Drop the event and count it; the request path never waits */
+        DROP,
+        /** Spin until the writer frees a slot; nothing is lost but requests can stall */
+        BLOCK
+    }
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final CaptureRingBuffer<CaptureEvent> ring;
+    private final OverflowPolicy overflowPolicy;
+    private final File file;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public CaptureWriter(File file, int capacity, OverflowPolicy overflowPolicy) {
+        this.file = file;
+        this.ring = new CaptureRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.thread = new Thread(this::drain, "capture-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "capture-writer-shutdown"));
+    }
+
+    /**
+     * Hand an event to the writer without blocking (unless the policy is BLOCK)
+     */
+    public void submit(CaptureEvent event) {
+        if (ring.offer(event)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.DROP || !running) {
+            dropped.increment();
+            CaptureDropEvent drop = new CaptureDropEvent();
+            if (drop.shouldCommit()) {
+                drop.capacity = ring.capacity();
+                drop.droppedTotal = dropped.sum();
+                drop.commit();
+            }
+            return;
+        }
+        while (!ring.offer(event)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Stop accepting events, write out everything already buffered and close the file
+     */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.sum() > 0) {
+            System.out.println("[CAPTURE] Dropped " + dropped.sum() + " events because the capture buffer was full");
+        }
+    }
+
+    private void drain() {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            System.err.println("Could not create capture directory: " + parent);
+        }
+        JsonFactory factory = new JsonFactory();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024);
+             JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            // Flushing the generator only moves bytes into the buffered stream; the stream is flushed once a second
+            generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            generator.setRootValueSeparator(null);
+            long lastFlush = System.nanoTime();
+            while (true) {
+                CaptureEvent event = ring.poll();
+                if (event != null) {
+                    write(generator, event);
+                    written.increment();
+                    continue;
+                }
+                if (!running && ring.size() == 0) {
+                    break;
+                }
+                if (System.nanoTime() - lastFlush > FLUSH_INTERVAL_NANOS) {
+                    generator.flush();
+                    out.flush();
+                    lastFlush = System.nanoTime();
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            generator.flush();
+        } catch (IOException e) {
+            running = false;
+            System.err.println("Could not write capture file: " + file);
+            e.printStackTrace();
+        }
+    }
+
+    private static void write(JsonGenerator generator, CaptureEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("ts", event.getTimestampMillis());
+        generator.writeStringField("method", event.getMethod());
+        generator.writeStringField("path", event.getPath());
+        generator.writeNumberField("status", event.getStatus());
+        generator.writeNumberField("latency_us", event.getLatencyMicros());
+        if (event.getSession() != null) {
+            generator.writeStringField("session", event.getSession());
+        }
+        if (event.getRequestBody() != null) {
+            generator.writeStringField("request", event.getRequestBody());
+        }
+        if (event.getResponseBody() != null) {
+            generator.writeStringField("response", event.getResponseBody());
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,165 @@
+package bookstore.cleanup;
+
+import bookstore.auth.TokenPool;
+import bookstore.config.APIConfig;
+import bookstore.transport.RestAssuredTransport;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deletes the books a {@link ResourceRegistry} collected, off the caller's thread.
+ * <p>
+ * Reaps run one after another on a single background thread, so a scenario can hand its
+ * books over and move on. Each reap works through the books in batches; within a batch at
+ * most {@code concurrency} DELETE /books/{id} calls are in flight on virtual threads, and
+ * progress is printed after every batch. The API has no bulk delete, so a batch is a set
+ * of concurrent single deletes. A 404 counts as already gone rather than as a failure.
+ * <p>
+ * Deletes go through {@link RestAssuredTransport#unfiltered()} and so never show up in latency
+ * windows, metrics or captures of the scenarios running meanwhile.
+ */
+public class BookReaper {
+
+    /**
+     * -Dcleanup.enabled=false leaves every created book in place, e.g. to inspect them
+     */
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("cleanup.enabled", "true"));
+
+    private static volatile BookReaper shared;
+
+    private final int concurrency;
+    private final int batchSize;
+    private final Supplier<String> tokens;
+    private final ExecutorService worker;
+    private final CleanupResult totals = new CleanupResult();
+
+    public BookReaper(int concurrency, int batchSize, Supplier<String> tokens) {
+        if (concurrency <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Concurrency and batch size must be positive: " + concurrency + ", " + batchSize);
+        }
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.tokens = tokens;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The process-wide reaper, created on first use with -Dcleanup.concurrency deletes in
+     * flight (default 8) and -Dcleanup.batch books per batch (default 100), deleting with
+     * tokens from the shared {@link TokenPool}
+     */
+    public static BookReaper shared() {
+        if (shared == null) {
+            synchronized (BookReaper.class) {
+                if (shared == null) {
+                    shared = new BookReaper(Integer.parseInt(System.getProperty("cleanup.concurrency", "8")),
+                            Integer.parseInt(System.getProperty("cleanup.batch", "100")),
+                            () -> TokenPool.shared().nextToken());
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Drain the registry now and delete its books in the background
+     */
+    public CompletableFuture<CleanupResult> submit(ResourceRegistry registry) {
+        int[] bookIds = registry.drainBooks();
+        if (bookIds.length == 0 || !ENABLED) {
+            if (bookIds.length > 0) {
+                System.out.println("[CLEANUP] Disabled, leaving " + bookIds.length + " books in place");
+            }
+            return CompletableFuture.completedFuture(new CleanupResult());
+        }
+        return CompletableFuture.supplyAsync(() -> deleteAll(bookIds), worker);
+    }
+
+    /**
+     * Drain the registry and block until its books are deleted
+     */
+    public CleanupResult reap(ResourceRegistry registry) {
+        return submit(registry).join();
+    }
+
+    /**
+     * Block until every reap submitted so far has finished
+     */
+    public void awaitIdle() {
+        CompletableFuture.runAsync(() -> { }, worker).join();
+    }
+
+    /**
+     * End-of-run cleanup: reap the {@link ResourceRegistry#run() run registry}, wait for
+     * every scenario reap still in the background and print what was left behind
+     */
+    public CleanupResult reapRun() {
+        reap(ResourceRegistry.run());
+        awaitIdle();
+        if (totals.getRequested() > 0) {
+            totals.printSummary();
+        }
+        long users = ResourceRegistry.run().getUserCount();
+        if (users > 0) {
+            System.out.println("[CLEANUP] " + users + " users left behind: the API has no endpoint to delete users");
+        }
+        return totals;
+    }
+
+    /**
+     * Everything this reaper has done so far
+     */
+    public CleanupResult getTotals() {
+        return totals;
+    }
+
+    private CleanupResult deleteAll(int[] bookIds) {
+        CleanupResult result = new CleanupResult();
+        result.addRequested(bookIds.length);
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(concurrency);
+        for (int from = 0; from < bookIds.length; from += batchSize) {
+            int to = Math.min(from + batchSize, bookIds.length);
+            // Closing the executor waits for the whole batch
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = from; i < to; i++) {
+                    int bookId = bookIds[i];
+                    inFlight.acquireUninterruptibly();
+                    executor.execute(() -> {
+                        try {
+                            delete(bookId, result);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+            System.out.println("[CLEANUP] " + result.getCompleted() + "/" + bookIds.length + " books reaped ("
+                    + result.getFailed() + " failed) after " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        }
+        result.addElapsedNanos(System.nanoTime() - start);
+        totals.add(result);
+        return result;
+    }
+
+    private void delete(int bookId, CleanupResult result) {
+        try {
+            int status = RestAssuredTransport.unfiltered()
+                    .send("DELETE", APIConfig.BOOKS_ENDPOINT + bookId, tokens.get(), null)
+                    .getStatusCode();
+            result.recordStatus(bookId, status);
+        } catch (UncheckedIOException e) {
+            result.recordFailure(bookId, e.toString());
+        }
+    }
+}
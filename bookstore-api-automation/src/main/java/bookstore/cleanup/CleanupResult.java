@@ -0,0 +1,95 @@
+package bookstore.cleanup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of reaping books: how many were deleted, were already gone or could not be
+ * deleted. One result can also accumulate several reaps, as {@link BookReaper#getTotals()} does.
+ */
+public class CleanupResult {
+
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder alreadyGone = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong elapsedNanos = new AtomicLong();
+    private final AtomicReference<String> firstFailure = new AtomicReference<>();
+
+    void addRequested(int books) {
+        requested.add(books);
+    }
+
+    void recordStatus(int bookId, int status) {
+        if (status == 200) {
+            deleted.increment();
+        } else if (status == 404) {
+            // Deleted by the scenario itself or by an earlier reap
+            alreadyGone.increment();
+        } else {
+            recordFailure(bookId, "status " + status);
+        }
+    }
+
+    void recordFailure(int bookId, String reason) {
+        failed.increment();
+        firstFailure.compareAndSet(null, "book " + bookId + ": " + reason);
+    }
+
+    void addElapsedNanos(long nanos) {
+        elapsedNanos.addAndGet(nanos);
+    }
+
+    void add(CleanupResult other) {
+        requested.add(other.getRequested());
+        deleted.add(other.getDeleted());
+        alreadyGone.add(other.getAlreadyGone());
+        failed.add(other.getFailed());
+        elapsedNanos.addAndGet(other.getElapsedNanos());
+        if (other.getFirstFailure() != null) {
+            firstFailure.compareAndSet(null, other.getFirstFailure());
+        }
+    }
+
+    public long getRequested() {
+        return requested.sum();
+    }
+
+    public long getDeleted() {
+        return deleted.sum();
+    }
+
+    public long getAlreadyGone() {
+        return alreadyGone.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Books handled so far, whatever the outcome
+     */
+    public long getCompleted() {
+        return getDeleted() + getAlreadyGone() + getFailed();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos.get();
+    }
+
+    /**
+     * First book that could not be deleted and why, or null
+     */
+    public String getFirstFailure() {
+        return firstFailure.get();
+    }
+
+    public void printSummary() {
+        System.out.println("[CLEANUP] Reaped " + getRequested() + " books in " + TimeUnit.NANOSECONDS.toMillis(getElapsedNanos())
+                + " ms: " + getDeleted() + " deleted, " + getAlreadyGone() + " already gone, " + getFailed() + " failed"
+                + (getFirstFailure() == null ? "" : " (first: " + getFirstFailure() + ")"));
+    }
+}
@@ -0,0 +1,73 @@
+package bookstore.cleanup;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resources a scenario or run created and still owes the API. Any number of threads may
+ * register and unregister concurrently; {@link BookReaper} drains the books and deletes them.
+ * <p>
+ * The shared registry returned by {@link #run()} covers the whole JVM. A scenario that
+ * wants its books gone as soon as it ends keeps its own instance instead. Users are only
+ * counted: the API has no endpoint to delete them.
+ */
+public class ResourceRegistry {
+
+    private static final ResourceRegistry RUN = new ResourceRegistry();
+
+    private final Set<Integer> books = ConcurrentHashMap.newKeySet();
+    private final LongAdder users = new LongAdder();
+
+    /**
+     * The registry reaped when the run ends
+     */
+    public static ResourceRegistry run() {
+        return RUN;
+    }
+
+    public void registerBook(int bookId) {
+        books.add(bookId);
+    }
+
+    /**
+     * Forget a book the caller deleted itself
+     */
+    public void unregisterBook(int bookId) {
+        books.remove(bookId);
+    }
+
+    public void registerUser(String email) {
+        users.increment();
+    }
+
+    /**
+     * Remove and return every registered book; books registered meanwhile are either in
+     * the result or stay registered for the next drain
+     */
+    public int[] drainBooks() {
+        int[] drained = new int[books.size()];
+        int count = 0;
+        for (Integer bookId : books) {
+            if (books.remove(bookId)) {
+                if (count == drained.length) {
+                    drained = Arrays.copyOf(drained, count * 2 + 1);
+                }
+                drained[count++] = bookId;
+            }
+        }
+        return count == drained.length ? drained : Arrays.copyOf(drained, count);
+    }
+
+    public int getBookCount() {
+        return books.size();
+    }
+
+    /**
+     * Users created so far; none of them can be removed through the API
+     */
+    public long getUserCount() {
+        return users.sum();
+    }
+}
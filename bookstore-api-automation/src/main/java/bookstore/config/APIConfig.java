@@ -1,19 +1,20 @@
 package bookstore.config;
 
-import io.restassured.RestAssured;
-import io.restassured.config.RestAssuredConfig;
-import io.restassured.config.HttpClientConfig;
-import io.restassured.config.LogConfig;
-import io.restassured.config.ObjectMapperConfig;
-import io.restassured.config.ConnectionConfig;
+import bookstore.capture.CaptureFilter;
+import bookstore.capture.CaptureWriter;
+import bookstore.metrics.ApiMetrics;
+import bookstore.metrics.LatencyFilter;
+import bookstore.metrics.LatencyRegistry;
+import bookstore.metrics.MetricsFilter;
+import bookstore.metrics.PrometheusExporter;
+import bookstore.transport.HttpClientTransport;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
-import io.restassured.mapper.ObjectMapperType;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.PrintStream;
-import java.util.concurrent.TimeUnit;
 
 public class APIConfig {
 
@@ -24,6 +25,36 @@ public class APIConfig {
     public static final int CONNECTION_TIMEOUT = 30000; // 30 seconds
     public static final int SOCKET_TIMEOUT = 60000; // 60 seconds
 
+    // Transport: restassured (default) or http2, see bookstore.transport
+    public static final String TRANSPORT = System.getProperty("api.transport", "restassured");
+
+    // Connection Pool
+    public static final int MAX_CONNECTIONS_TOTAL = Integer.parseInt(System.getProperty("http.pool.max.total", "500"));
+    public static final int MAX_CONNECTIONS_PER_ROUTE = Integer.parseInt(System.getProperty("http.pool.max.per.route", "200"));
+    public static final long IDLE_CONNECTION_EVICTION_SECONDS = Long.parseLong(System.getProperty("http.pool.idle.seconds", "30"));
+
+    // Logging and Capture
+    public static final boolean CONSOLE_LOGGING = Boolean.parseBoolean(System.getProperty("api.console.logging", "true"));
+    public static final String CAPTURE_FILE = System.getProperty("capture.file", "target/bookstore_api_capture.ndjson");
+    public static final double CAPTURE_SUCCESS_SAMPLE_RATE = Double.parseDouble(System.getProperty("capture.sample.success", "0.01"));
+    public static final double CAPTURE_FAILURE_SAMPLE_RATE = Double.parseDouble(System.getProperty("capture.sample.failure", "1.0"));
+    public static final int CAPTURE_BUFFER_SIZE = Integer.parseInt(System.getProperty("capture.buffer.size", "65536"));
+    public static final boolean CAPTURE_BODIES = Boolean.parseBoolean(System.getProperty("capture.bodies", "false"));
+    public static final CaptureWriter.OverflowPolicy CAPTURE_OVERFLOW =
+            CaptureWriter.OverflowPolicy.valueOf(System.getProperty("capture.overflow", "drop").toUpperCase());
+
+    // Latency Recording
+    public static final String LATENCY_REPORT_DIRECTORY = System.getProperty("latency.report.dir", "target/latency-reports");
+
+    // Run History (kept outside target/ so it survives mvn clean)
+    public static final boolean HISTORY_ENABLED = Boolean.parseBoolean(System.getProperty("history.enabled", "true"));
+    public static final String HISTORY_FILE = System.getProperty("history.file", "history/runs.hist");
+
+    // Metrics Export (off unless a port or file is given)
+    public static final int METRICS_PORT = Integer.parseInt(System.getProperty("metrics.port", "-1"));
+    public static final String METRICS_FILE = System.getProperty("metrics.file");
+    public static final long METRICS_DUMP_SECONDS = Long.parseLong(System.getProperty("metrics.dump.seconds", "15"));
+
     // Endpoints
     public static final String HEALTH_ENDPOINT = "/health";
     public static final String SIGNUP_ENDPOINT = "/signup";
@@ -35,36 +66,15 @@ public class APIConfig {
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String BEARER_TOKEN_PREFIX = "Bearer ";
 
-    static {
-        setupRestAssured();
-    }
-
-    /**
-     * Configure RestAssured with default settings
-     */
-    public static void setupRestAssured() {
-        RestAssured.baseURI = BASE_URI;
-        RestAssured.basePath = BASE_PATH;
-        RestAssured.port = DEFAULT_PORT;
-
-        RestAssured.config = RestAssuredConfig.config()
-                .httpClient(HttpClientConfig.httpClientConfig()
-                        .setParam("http.connection.timeout", CONNECTION_TIMEOUT)
-                        .setParam("http.socket.timeout", SOCKET_TIMEOUT))
-                .connectionConfig(ConnectionConfig.connectionConfig()
-                        .closeIdleConnectionsAfterEachResponseAfter(30, TimeUnit.SECONDS))
-                .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
-                        .defaultObjectMapperType(ObjectMapperType.JACKSON_2))
-                .logConfig(LogConfig.logConfig()
-                        .enableLoggingOfRequestAndResponseIfValidationFails()
-                        .enablePrettyPrinting(true));
-    }
+    private static CaptureWriter captureWriter;
+    private static boolean latencyRecording;
+    private static boolean metricsRecording;
 
     /**
      * Enable request and response logging to console
      */
     public static void enableConsoleLogging() {
-        RestAssured.filters(new RequestLoggingFilter(), new ResponseLoggingFilter());
+        ApiClient.addFilters(new RequestLoggingFilter(), new ResponseLoggingFilter());
     }
 
     /**
@@ -73,7 +83,7 @@ public class APIConfig {
     public static void enableFileLogging(String fileName) {
         try {
             PrintStream fileOutPutStream = new PrintStream(new FileOutputStream(fileName, true));
-            RestAssured.filters(
+            ApiClient.addFilters(
                     new RequestLoggingFilter(fileOutPutStream),
                     new ResponseLoggingFilter(fileOutPutStream)
             );
@@ -84,18 +94,77 @@ public class APIConfig {
     }
 
     /**
-     * Get authorization header value
+     * Capture sampled requests and responses to an NDJSON file on a background thread.
+     * Only the first call installs the filter; later calls return the same writer.
      */
-    public static String getBearerToken(String accessToken) {
-        return BEARER_TOKEN_PREFIX + accessToken;
+    public static synchronized CaptureWriter enableCapture(String fileName) {
+        if (captureWriter == null) {
+            captureWriter = new CaptureWriter(new File(fileName), CAPTURE_BUFFER_SIZE, CAPTURE_OVERFLOW);
+            ApiClient.addFilters(new CaptureFilter(captureWriter, CAPTURE_SUCCESS_SAMPLE_RATE,
+                    CAPTURE_FAILURE_SAMPLE_RATE, CAPTURE_BODIES));
+        }
+        return captureWriter;
+    }
+
+    /**
+     * The active capture writer, or null if capture has not been enabled
+     */
+    public static synchronized CaptureWriter getCaptureWriter() {
+        return captureWriter;
     }
 
     /**
-     * Reset RestAssured configuration to defaults
+     * Record the latency of every request into the shared LatencyRegistry, on either transport.
+     * Only the first call installs the filter.
      */
-    public static void resetRestAssured() {
-        RestAssured.reset();
-        setupRestAssured();
+    public static synchronized LatencyRegistry enableLatencyRecording() {
+        if (!latencyRecording) {
+            ApiClient.addFilters(new LatencyFilter(LatencyRegistry.shared()));
+            HttpClientTransport.recordLatency(LatencyRegistry.shared());
+            latencyRecording = true;
+        }
+        return LatencyRegistry.shared();
+    }
+
+    /**
+     * Count every request in the shared ApiMetrics and emit JFR events for them, on either
+     * transport, and publish the metrics on metrics.port and/or to metrics.file if set. Only
+     * the first call installs the filter and exporters.
+     */
+    public static synchronized ApiMetrics enableMetrics() {
+        ApiMetrics metrics = ApiMetrics.shared();
+        if (metricsRecording) {
+            return metrics;
+        }
+        metrics.registerCounter("bookstore_http_connections_opened_total", "Sockets opened by the shared connection pool",
+                ApiClient::getOpenedConnections);
+        metrics.registerGauge("bookstore_http_pool_leased", "Pooled connections in use",
+                () -> ApiClient.getPoolStats().getLeased());
+        metrics.registerGauge("bookstore_http_pool_available", "Idle pooled connections",
+                () -> ApiClient.getPoolStats().getAvailable());
+        metrics.registerGauge("bookstore_http_pool_pending", "Requests waiting for a pooled connection",
+                () -> ApiClient.getPoolStats().getPending());
+        metrics.registerCounter("bookstore_capture_written_total", "Captured exchanges written to the capture file",
+                () -> getCaptureWriter() == null ? 0 : getCaptureWriter().getWrittenCount());
+        metrics.registerCounter("bookstore_capture_dropped_total", "Captured exchanges dropped because the buffer was full",
+                () -> getCaptureWriter() == null ? 0 : getCaptureWriter().getDroppedCount());
+        ApiClient.addFilters(new MetricsFilter(metrics));
+        HttpClientTransport.recordMetrics(metrics);
+        if (METRICS_PORT >= 0) {
+            PrometheusExporter.serve(metrics, METRICS_PORT);
+        }
+        if (METRICS_FILE != null && !METRICS_FILE.isBlank()) {
+            PrometheusExporter.dumpTo(metrics, new File(METRICS_FILE), METRICS_DUMP_SECONDS);
+        }
+        metricsRecording = true;
+        return metrics;
+    }
+
+    /**
+     * Get authorization header value
+     */
+    public static String getBearerToken(String accessToken) {
+        return BEARER_TOKEN_PREFIX + accessToken;
     }
 
     /**
@@ -106,8 +175,13 @@ public class APIConfig {
         System.out.println("Base URI: " + BASE_URI);
         System.out.println("Base Path: " + BASE_PATH);
         System.out.println("Port: " + DEFAULT_PORT);
+        System.out.println("Transport: " + TRANSPORT);
         System.out.println("Connection Timeout: " + CONNECTION_TIMEOUT + "ms");
         System.out.println("Socket Timeout: " + SOCKET_TIMEOUT + "ms");
+        System.out.println("Capture: " + CAPTURE_FILE + " (sample success=" + CAPTURE_SUCCESS_SAMPLE_RATE
+                + ", failure=" + CAPTURE_FAILURE_SAMPLE_RATE + ", overflow=" + CAPTURE_OVERFLOW + ")");
+        System.out.println("Connection Pool: max " + MAX_CONNECTIONS_TOTAL + " total, " + MAX_CONNECTIONS_PER_ROUTE
+                + " per route, idle eviction " + IDLE_CONNECTION_EVICTION_SECONDS + "s");
         System.out.println("=========================");
     }
 }
\ No newline at end of file
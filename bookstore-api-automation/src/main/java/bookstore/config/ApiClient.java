@@ -0,0 +1,236 @@
+package bookstore.config;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.LogConfig;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.mapper.ObjectMapperType;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLContexts;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe HTTP layer for the Bookstore API.
+ * <p>
+ * One keep-alive connection pool and one HttpClient are shared by every thread, so
+ * requests reuse sockets instead of paying a TCP handshake each. Requests are built from
+ * an immutable base specification; nothing here touches RestAssured's static baseURI,
+ * port, config or filters, so parallel scenarios and virtual users cannot race on them.
+ */
+@SuppressWarnings("deprecation") // RestAssured 5 only accepts the AbstractHttpClient API of HttpClient 4
+public class ApiClient {
+
+    private static final LongAdder OPENED_CONNECTIONS = new LongAdder();
+
+    private static final List<Filter> filters = new ArrayList<>();
+    // Built on the first request after startup or after the filters change
+    private static volatile RequestSpecification baseSpec;
+    private static volatile boolean poolStarted;
+
+    /**
+     * The pooled client and RestAssured configuration, built on first use: adding filters
+     * or reading pool statistics does not load RestAssured (and its Groovy runtime), so a
+     * run on another transport never pays for it.
+     */
+    private static final class Pool {
+
+        static final PoolingClientConnectionManager CONNECTION_MANAGER = createConnectionManager();
+        static final DefaultHttpClient HTTP_CLIENT = createHttpClient();
+        static final RestAssuredConfig CONFIG = createConfig();
+        // Logging on validation failure makes RestAssured copy and pretty-print every body up front
+        static final RestAssuredConfig STREAMING_CONFIG = CONFIG.logConfig(LogConfig.logConfig());
+        static final RequestSpecification UNFILTERED_SPEC = buildSpec(List.of());
+
+        static {
+            ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "http-idle-connection-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, APIConfig.IDLE_CONNECTION_EVICTION_SECONDS / 2);
+            evictor.scheduleWithFixedDelay(() -> {
+                CONNECTION_MANAGER.closeExpiredConnections();
+                CONNECTION_MANAGER.closeIdleConnections(APIConfig.IDLE_CONNECTION_EVICTION_SECONDS, TimeUnit.SECONDS);
+            }, period, period, TimeUnit.SECONDS);
+            poolStarted = true;
+        }
+    }
+
+    /**
+     * Start a request from the shared base specification. The returned specification
+     * belongs to the caller and can be customised without affecting other threads.
+     */
+    public static RequestSpecification request() {
+        return RestAssured.given(baseSpec());
+    }
+
+    /**
+     * Like {@link #request()}, but the response body is left on the connection for the caller
+     * to read as a stream with asInputStream(). The stream must be closed to release the
+     * connection.
+     */
+    public static RequestSpecification streamingRequest() {
+        return RestAssured.given(baseSpec()).config(Pool.STREAMING_CONFIG);
+    }
+
+    /**
+     * Like {@link #request()}, but bypassing every added filter: housekeeping calls such as
+     * cleanup deletes stay out of latency windows, metrics and captures
+     */
+    public static RequestSpecification unfilteredRequest() {
+        return RestAssured.given(Pool.UNFILTERED_SPEC);
+    }
+
+    /**
+     * Add filters to every request made from now on. The base specification is rebuilt on
+     * the next request rather than modified, so in-flight requests are unaffected.
+     */
+    public static synchronized void addFilters(Filter... newFilters) {
+        filters.addAll(Arrays.asList(newFilters));
+        baseSpec = null;
+    }
+
+    /**
+     * Remove filters added through {@link #addFilters(Filter...)}, e.g. a capture that only
+     * covers part of a run
+     */
+    public static synchronized void removeFilters(Filter... oldFilters) {
+        filters.removeAll(Arrays.asList(oldFilters));
+        baseSpec = null;
+    }
+
+    /**
+     * Remove all filters added through {@link #addFilters(Filter...)}
+     */
+    public static synchronized void clearFilters() {
+        filters.clear();
+        baseSpec = null;
+    }
+
+    /**
+     * The RestAssured configuration backing every request: pooled client, timeouts, Jackson mapping
+     */
+    public static RestAssuredConfig config() {
+        return Pool.CONFIG;
+    }
+
+    /**
+     * Sockets opened since startup; stays bounded when connections are being reused
+     */
+    public static long getOpenedConnections() {
+        return OPENED_CONNECTIONS.sum();
+    }
+
+    /**
+     * Leased, idle and pending connections across all routes; all zero until the first
+     * RestAssured request starts the pool
+     */
+    public static PoolStats getPoolStats() {
+        if (!poolStarted) {
+            return new PoolStats(0, 0, 0, APIConfig.MAX_CONNECTIONS_TOTAL);
+        }
+        return Pool.CONNECTION_MANAGER.getTotalStats();
+    }
+
+    /**
+     * Print connection reuse statistics
+     */
+    public static void printPoolStats() {
+        PoolStats stats = getPoolStats();
+        System.out.println("[HTTP] Connections opened: " + getOpenedConnections() + ", pool leased=" + stats.getLeased()
+                + " available=" + stats.getAvailable() + " pending=" + stats.getPending() + " max=" + stats.getMax());
+    }
+
+    private static RequestSpecification baseSpec() {
+        RequestSpecification spec = baseSpec;
+        if (spec == null) {
+            synchronized (ApiClient.class) {
+                if (baseSpec == null) {
+                    baseSpec = buildSpec(filters);
+                }
+                spec = baseSpec;
+            }
+        }
+        return spec;
+    }
+
+    private static RequestSpecification buildSpec(List<Filter> filters) {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(APIConfig.BASE_URI)
+                .setBasePath(APIConfig.BASE_PATH)
+                .setPort(APIConfig.DEFAULT_PORT)
+                .setConfig(Pool.CONFIG);
+        if (!filters.isEmpty()) {
+            builder.addFilters(new ArrayList<>(filters));
+        }
+        return builder.build();
+    }
+
+    private static RestAssuredConfig createConfig() {
+        return RestAssuredConfig.config()
+                .httpClient(HttpClientConfig.httpClientConfig()
+                        .httpClientFactory(() -> Pool.HTTP_CLIENT)
+                        .reuseHttpClientInstance()
+                        .setParam("http.connection.timeout", APIConfig.CONNECTION_TIMEOUT)
+                        .setParam("http.socket.timeout", APIConfig.SOCKET_TIMEOUT))
+                .objectMapperConfig(ObjectMapperConfig.objectMapperConfig()
+                        .defaultObjectMapperType(ObjectMapperType.JACKSON_2))
+                .logConfig(LogConfig.logConfig()
+                        .enableLoggingOfRequestAndResponseIfValidationFails()
+                        .enablePrettyPrinting(true));
+    }
+
+    private static DefaultHttpClient createHttpClient() {
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, APIConfig.CONNECTION_TIMEOUT);
+        HttpConnectionParams.setSoTimeout(params, APIConfig.SOCKET_TIMEOUT);
+        HttpConnectionParams.setTcpNoDelay(params, true);
+        return new DefaultHttpClient(Pool.CONNECTION_MANAGER, params);
+    }
+
+    private static PoolingClientConnectionManager createConnectionManager() {
+        SchemeRegistry registry = new SchemeRegistry();
+        registry.register(new Scheme("http", 80, new PlainSocketFactory() {
+            @Override
+            public Socket createSocket(HttpParams params) {
+                OPENED_CONNECTIONS.increment();
+                return super.createSocket(params);
+            }
+        }));
+        registry.register(new Scheme("https", 443, new SSLSocketFactory(
+                SSLContexts.createDefault(), SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER) {
+            @Override
+            public Socket createSocket(HttpParams params) throws IOException {
+                OPENED_CONNECTIONS.increment();
+                return super.createSocket(params);
+            }
+        }));
+
+        PoolingClientConnectionManager manager = new PoolingClientConnectionManager(registry);
+        manager.setMaxTotal(APIConfig.MAX_CONNECTIONS_TOTAL);
+        manager.setDefaultMaxPerRoute(APIConfig.MAX_CONNECTIONS_PER_ROUTE);
+        return manager;
+    }
+}
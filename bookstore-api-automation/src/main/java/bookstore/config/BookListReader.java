@@ -0,0 +1,206 @@
+package bookstore.config;
+
+import bookstore.metrics.LatencyRegistry;
+import bookstore.transport.ApiResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads the GET /books/ array one book at a time straight from the response stream.
+ * <p>
+ * The endpoint has no pagination, so buffering the body with asString() or jsonPath()
+ * would hold the whole catalogue in memory several times over. Here RestAssured's input
+ * stream is fed into Jackson's streaming parser and each book is checked as it goes past;
+ * memory stays at the parser's buffer however large the catalogue is. Fields are checked
+ * against the API's Book schema: a positive integer id, non-empty name and author, an
+ * integer published_year and an optional book_summary.
+ * <p>
+ * Three timings are recorded in the shared {@link LatencyRegistry}: first byte (status
+ * line and headers), first book and complete. Thread-safe; one reader can serve many calls.
+ */
+public class BookListReader {
+
+    public static final String FIRST_BYTE_LABEL = "GET /books/ first byte";
+    public static final String FIRST_BOOK_LABEL = "GET /books/ first book";
+    public static final String COMPLETE_LABEL = "GET /books/ complete";
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int AUTHOR = 4;
+    private static final int YEAR = 8;
+    private static final int REQUIRED = ID | NAME | AUTHOR | YEAR;
+
+    private final long watchedBookId;
+
+    public BookListReader() {
+        this(-1);
+    }
+
+    /**
+     * @param watchedBookId a book id to look out for, see {@link BookListResult#isWatchedBookSeen()}
+     */
+    public BookListReader(long watchedBookId) {
+        this.watchedBookId = watchedBookId;
+    }
+
+    /**
+     * Send GET /books/ through {@link BookstoreApi#shared()} and stream the whole response
+     */
+    public BookListResult read(String accessToken) {
+        return read(BookstoreApi.shared(), accessToken);
+    }
+
+    /**
+     * Send GET /books/ through the given API and stream the whole response
+     */
+    public BookListResult read(BookstoreApi api, String accessToken) {
+        long start = System.nanoTime();
+        ApiResponse response = api.listBooks(accessToken);
+        long firstByte = System.nanoTime() - start;
+        BookListResult result = response.getStatusCode() == 200
+                ? readBooks(response, start, firstByte)
+                : new BookListResult(response, 0, 0, null, false, response.asByteArray().length, firstByte, -1,
+                System.nanoTime() - start);
+
+        LatencyRegistry registry = LatencyRegistry.shared();
+        int status = result.getStatusCode();
+        registry.record(FIRST_BYTE_LABEL, status, result.getFirstByteNanos());
+        if (result.getFirstBookNanos() >= 0) {
+            registry.record(FIRST_BOOK_LABEL, status, result.getFirstBookNanos());
+        }
+        registry.record(COMPLETE_LABEL, status, result.getTotalNanos());
+        return result;
+    }
+
+    private BookListResult readBooks(ApiResponse response, long start, long firstByte) {
+        long books = 0;
+        long invalid = 0;
+        String firstInvalid = null;
+        boolean watchedSeen = false;
+        long firstBook = -1;
+        CountingInputStream in = new CountingInputStream(response.asInputStream());
+        try (JsonParser parser = JSON.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("GET /books/ did not return a JSON array");
+            }
+            JsonToken element;
+            while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (element == null) {
+                    throw new IllegalStateException("GET /books/ ended before the array was closed");
+                }
+                long id = -1;
+                String problem = null;
+                if (element == JsonToken.START_OBJECT) {
+                    int seen = 0;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        JsonToken value = parser.nextToken();
+                        switch (field) {
+                            case "id" -> {
+                                if (value == JsonToken.VALUE_NUMBER_INT && parser.getLongValue() > 0) {
+                                    id = parser.getLongValue();
+                                    seen |= ID;
+                                } else {
+                                    problem = "id is not a positive integer";
+                                }
+                            }
+                            case "name", "author" -> {
+                                if (value == JsonToken.VALUE_STRING && parser.getTextLength() > 0) {
+                                    seen |= field.equals("name") ? NAME : AUTHOR;
+                                } else {
+                                    problem = field + " is not a non-empty string";
+                                }
+                            }
+                            case "published_year" -> {
+                                if (value == JsonToken.VALUE_NUMBER_INT) {
+                                    seen |= YEAR;
+                                } else {
+                                    problem = "published_year is not an integer";
+                                }
+                            }
+                            case "book_summary" -> {
+                                if (value != JsonToken.VALUE_STRING && value != JsonToken.VALUE_NULL) {
+                                    problem = "book_summary is not a string";
+                                }
+                            }
+                            default -> {
+                                // Fields the schema does not know about are allowed
+                            }
+                        }
+                        parser.skipChildren();
+                    }
+                    if (problem == null && seen != REQUIRED) {
+                        problem = "missing one of id, name, author, published_year";
+                    }
+                } else {
+                    problem = "element is not an object";
+                    parser.skipChildren();
+                }
+
+                books++;
+                if (firstBook < 0) {
+                    firstBook = System.nanoTime() - start;
+                }
+                if (problem != null) {
+                    invalid++;
+                    if (firstInvalid == null) {
+                        firstInvalid = "book #" + books + (id > 0 ? " (id " + id + ")" : "") + ": " + problem;
+                    }
+                }
+                if (id == watchedBookId) {
+                    watchedSeen = true;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not stream GET /books/ after " + books + " books", e);
+        } finally {
+            in.closeQuietly();
+        }
+        return new BookListResult(response, books, invalid, firstInvalid, watchedSeen, in.count, firstByte, firstBook,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Counts the bytes read through it; closing it returns the connection to the pool
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        void closeQuietly() {
+            try {
+                close();
+            } catch (IOException e) {
+                // The connection is discarded instead of being reused
+            }
+        }
+    }
+}
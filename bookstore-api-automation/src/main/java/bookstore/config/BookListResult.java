@@ -0,0 +1,95 @@
+package bookstore.config;
+
+import bookstore.transport.ApiResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of streaming one GET /books/ response: how many books it held, which of them
+ * were malformed, and when the first byte, the first book and the end of the array arrived.
+ * Times are nanoseconds from the moment the request was sent.
+ */
+public class BookListResult {
+
+    private final ApiResponse response;
+    private final long books;
+    private final long invalidBooks;
+    private final String firstInvalid;
+    private final boolean watchedBookSeen;
+    private final long bytes;
+    private final long firstByteNanos;
+    private final long firstBookNanos;
+    private final long totalNanos;
+
+    BookListResult(ApiResponse response, long books, long invalidBooks, String firstInvalid, boolean watchedBookSeen,
+                   long bytes, long firstByteNanos, long firstBookNanos, long totalNanos) {
+        this.response = response;
+        this.books = books;
+        this.invalidBooks = invalidBooks;
+        this.firstInvalid = firstInvalid;
+        this.watchedBookSeen = watchedBookSeen;
+        this.bytes = bytes;
+        this.firstByteNanos = firstByteNanos;
+        this.firstBookNanos = firstBookNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * The response whose body was consumed; only the status line and headers are still readable
+     */
+    public ApiResponse getResponse() {
+        return response;
+    }
+
+    public int getStatusCode() {
+        return response.getStatusCode();
+    }
+
+    public long getBooks() {
+        return books;
+    }
+
+    public long getInvalidBooks() {
+        return invalidBooks;
+    }
+
+    /**
+     * Why the first malformed book was rejected, or null when every book was valid
+     */
+    public String getFirstInvalid() {
+        return firstInvalid;
+    }
+
+    /**
+     * True when the book id given to the {@link BookListReader} was in the list
+     */
+    public boolean isWatchedBookSeen() {
+        return watchedBookSeen;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getFirstByteNanos() {
+        return firstByteNanos;
+    }
+
+    /**
+     * Time until the first complete book was parsed, or -1 when the list was empty
+     */
+    public long getFirstBookNanos() {
+        return firstBookNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public String format() {
+        return String.format("%d books (%d invalid), %d KB, first byte %d ms, first book %s, complete %d ms",
+                books, invalidBooks, bytes / 1024, TimeUnit.NANOSECONDS.toMillis(firstByteNanos),
+                firstBookNanos < 0 ? "-" : TimeUnit.NANOSECONDS.toMillis(firstBookNanos) + " ms",
+                TimeUnit.NANOSECONDS.toMillis(totalNanos));
+    }
+}
@@ -0,0 +1,151 @@
+package bookstore.config;
+
+import bookstore.transport.ApiResponse;
+import bookstore.transport.Transport;
+import bookstore.utils.FakerDataUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bookstore API calls shared by the step definitions and the load engine.
+ * Each method performs exactly one HTTP request and keeps no state of its own. Bodies are
+ * serialized to bytes here, once, and handed to this instance's {@link Transport}.
+ * {@link #shared()} uses the -Dapi.transport engine; code that needs another engine, such
+ * as a scenario comparing transports, creates its own instance instead of changing that one.
+ */
+public class BookstoreApi {
+
+    private final Transport transport;
+
+    public BookstoreApi(Transport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * The instance on the -Dapi.transport engine, created on first use
+     */
+    public static BookstoreApi shared() {
+        return Shared.API;
+    }
+
+    /**
+     * The engine every call goes through
+     */
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * GET /health
+     */
+    public ApiResponse health() {
+        return transport.send("GET", APIConfig.HEALTH_ENDPOINT, null, null);
+    }
+
+    /**
+     * POST /signup
+     */
+    public ApiResponse signup(String email, String password) {
+        return transport.send("POST", APIConfig.SIGNUP_ENDPOINT, null, utf8(JsonPayloads.credentials(email, password)));
+    }
+
+    /**
+     * POST /login
+     */
+    public ApiResponse login(String email, String password) {
+        return transport.send("POST", APIConfig.LOGIN_ENDPOINT, null, utf8(JsonPayloads.credentials(email, password)));
+    }
+
+    /**
+     * POST /books/ - the Authorization header is omitted when accessToken is null
+     */
+    public ApiResponse createBook(String accessToken, Map<String, Object> body) {
+        return transport.send("POST", APIConfig.BOOKS_ENDPOINT, accessToken, toJson(body));
+    }
+
+    /**
+     * POST /books/ with a body that is already JSON text, e.g. from {@link JsonPayloads#book}
+     */
+    public ApiResponse createBook(String accessToken, String jsonBody) {
+        return transport.send("POST", APIConfig.BOOKS_ENDPOINT, accessToken, utf8(jsonBody));
+    }
+
+    /**
+     * GET /books/ - the body is left unread; stream it with {@link BookListReader}
+     */
+    public ApiResponse listBooks(String accessToken) {
+        return transport.stream("GET", APIConfig.BOOKS_ENDPOINT, accessToken);
+    }
+
+    /**
+     * GET /books/{id}
+     */
+    public ApiResponse getBook(String accessToken, int bookId) {
+        return transport.send("GET", APIConfig.BOOKS_ENDPOINT + bookId, accessToken, null);
+    }
+
+    /**
+     * PUT /books/{id}
+     */
+    public ApiResponse updateBook(String accessToken, int bookId, Map<String, Object> body) {
+        return transport.send("PUT", APIConfig.BOOKS_ENDPOINT + bookId, accessToken, toJson(body));
+    }
+
+    /**
+     * DELETE /books/{id}
+     */
+    public ApiResponse deleteBook(String accessToken, int bookId) {
+        return transport.send("DELETE", APIConfig.BOOKS_ENDPOINT + bookId, accessToken, null);
+    }
+
+    /**
+     * Build a complete book payload; "name" is the field the API uses for the title
+     */
+    public static Map<String, Object> bookBody(String title, String author) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", title);
+        body.put("author", author);
+        body.put("published_year", FakerDataUtils.generateRandomYear());
+        body.put("book_summary", FakerDataUtils.generateRandomSentence());
+        return body;
+    }
+
+    /**
+     * Build a partial payload that only changes the book title
+     */
+    public static Map<String, Object> titleBody(String title) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", title);
+        return body;
+    }
+
+    private static byte[] utf8(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A map body as the JSON bytes that createBook and updateBook send
+     */
+    public static byte[] toJson(Map<String, Object> body) {
+        try {
+            return Json.MAPPER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be written as JSON: " + body, e);
+        }
+    }
+
+    private static final class Shared {
+        static final BookstoreApi API = new BookstoreApi(Transport.create(APIConfig.TRANSPORT));
+    }
+
+    /**
+     * The object mapper, created on the first map body; calls with prepared JSON never need it
+     */
+    private static final class Json {
+        static final ObjectMapper MAPPER = new ObjectMapper();
+    }
+}
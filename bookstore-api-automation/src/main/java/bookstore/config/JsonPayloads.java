@@ -0,0 +1,47 @@
+package bookstore.config;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * Request bodies written straight to JSON text, for call sites that send many requests
+ * and should not build a map and run it through the object mapper for each one.
+ * Strings are escaped with Jackson's encoder, so the output matches what the mapper
+ * would produce for the equivalent map.
+ */
+public class JsonPayloads {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    /**
+     * {"email": ..., "password": ...} for /signup and /login
+     */
+    public static String credentials(String email, String password) {
+        StringBuilder json = new StringBuilder(32 + email.length() + password.length());
+        json.append("{\"email\":");
+        quote(json, email);
+        json.append(",\"password\":");
+        quote(json, password);
+        return json.append('}').toString();
+    }
+
+    /**
+     * Complete book body for POST /books/; "name" is the field the API uses for the title
+     */
+    public static String book(String title, String author, int publishedYear, String summary) {
+        StringBuilder json = new StringBuilder(64 + title.length() + author.length() + summary.length());
+        json.append("{\"name\":");
+        quote(json, title);
+        json.append(",\"author\":");
+        quote(json, author);
+        json.append(",\"published_year\":").append(publishedYear);
+        json.append(",\"book_summary\":");
+        quote(json, summary);
+        return json.append('}').toString();
+    }
+
+    private static void quote(StringBuilder json, String value) {
+        json.append('"');
+        ENCODER.quoteAsString(value, json);
+        json.append('"');
+    }
+}
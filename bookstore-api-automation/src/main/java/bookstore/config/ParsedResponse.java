@@ -0,0 +1,155 @@
+package bookstore.config;
+
+import bookstore.transport.ApiResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Response whose JSON body is parsed at most once and then shared by every field lookup.
+ * <p>
+ * response.jsonPath() re-parses the whole body through Groovy on every call. Here small
+ * bodies are read into a Jackson tree on the first lookup. Bodies larger than
+ * {@link #STREAMING_THRESHOLD_BYTES} are scanned once with the streaming parser, keeping
+ * only top-level scalar fields; nested objects and arrays are skipped and only parsed
+ * into a tree if one of them is asked for. Keys are top-level field names or dotted
+ * paths such as "user.email". Not thread-safe; use one instance per response.
+ */
+public class ParsedResponse {
+
+    public static final int STREAMING_THRESHOLD_BYTES = Integer.parseInt(System.getProperty("response.streaming.threshold", "65536"));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ApiResponse response;
+    private byte[] body;
+    private JsonNode tree;
+    private Map<String, String> scalars;
+    private Set<String> containers;
+
+    public ParsedResponse(ApiResponse response) {
+        this.response = response;
+    }
+
+    public ApiResponse getResponse() {
+        return response;
+    }
+
+    public int getStatusCode() {
+        return response.getStatusCode();
+    }
+
+    /**
+     * Raw body text, for failure messages and logging only
+     */
+    public String getBody() {
+        return response.asString();
+    }
+
+    /**
+     * Value of a field as text, or null when the field is missing, JSON null or the body
+     * is not a JSON object. Objects and arrays are returned as JSON.
+     */
+    public String getString(String key) {
+        if (key.indexOf('.') < 0 && scanIfLarge()) {
+            if (!containers.contains(key)) {
+                return scalars.get(key);
+            }
+        }
+        JsonNode node = find(key);
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    /**
+     * Value of an integer field; fails when the field is missing or not a number
+     */
+    public int getInt(String key) {
+        String value = getString(key);
+        if (value == null) {
+            throw new IllegalStateException("Response has no value for '" + key + "': " + getBody());
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Response field '" + key + "' is not an integer: " + value, e);
+        }
+    }
+
+    public boolean contains(String key) {
+        return getString(key) != null;
+    }
+
+    private byte[] body() {
+        if (body == null) {
+            body = response.asByteArray();
+        }
+        return body;
+    }
+
+    /**
+     * Run the one streaming pass for a large body; returns false for small bodies, which
+     * go straight to the tree
+     */
+    private boolean scanIfLarge() {
+        if (scalars != null) {
+            return true;
+        }
+        if (tree != null || body().length <= STREAMING_THRESHOLD_BYTES) {
+            return false;
+        }
+        scalars = new HashMap<>();
+        containers = new HashSet<>();
+        try (JsonParser parser = MAPPER.getFactory().createParser(body())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return true;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    containers.add(name);
+                    parser.skipChildren();
+                } else {
+                    scalars.put(name, value == JsonToken.VALUE_NULL ? null : parser.getText());
+                }
+            }
+        } catch (IOException e) {
+            // Not JSON (e.g. an HTML error page): no fields, the assertion reports the body
+            scalars.clear();
+            containers.clear();
+        }
+        return true;
+    }
+
+    private JsonNode find(String key) {
+        if (tree == null) {
+            try {
+                byte[] bytes = body();
+                tree = bytes.length == 0 ? MAPPER.missingNode() : MAPPER.readTree(bytes);
+            } catch (IOException e) {
+                tree = MAPPER.missingNode();
+            }
+        }
+        JsonNode node = tree;
+        int start = 0;
+        while (node != null && start <= key.length()) {
+            int end = key.indexOf('.', start);
+            if (end < 0) {
+                end = key.length();
+            }
+            node = node.isObject() ? node.get(key.substring(start, end)) : null;
+            start = end + 1;
+        }
+        return node;
+    }
+}
@@ -0,0 +1,159 @@
+package bookstore.distributed;
+
+import bookstore.load.LoadOperation;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Run-wide result of a distributed load run, merged from every worker's interval and
+ * summary frames. Response times are from intended start, in microseconds, as in
+ * {@link bookstore.load.LoadResult}. Methods are synchronized because each worker's
+ * frames arrive on their own reader thread.
+ */
+public class DistributedLoadResult {
+
+    private final LoadOperation operation;
+    private final double targetRate;
+    private final long intervalMillis;
+    private final Histogram responseTime = new Histogram(3);
+    private final Histogram serviceTime = new Histogram(3);
+    private final Map<Integer, Histogram> timeline = new TreeMap<>();
+    private final Map<Integer, Long> statusCounts = new TreeMap<>();
+    private final Map<String, Long> requestsByWorker = new TreeMap<>();
+    private final Map<String, String> failedWorkers = new TreeMap<>();
+    private long errors;
+    private long elapsedNanos;
+
+    public DistributedLoadResult(LoadOperation operation, double targetRate, long intervalMillis) {
+        this.operation = operation;
+        this.targetRate = targetRate;
+        this.intervalMillis = intervalMillis;
+    }
+
+    synchronized void addInterval(int index, Histogram interval) {
+        responseTime.add(interval);
+        timeline.computeIfAbsent(index, i -> new Histogram(3)).add(interval);
+    }
+
+    synchronized void addSummary(String workerId, long requests, long workerErrors, long workerElapsedNanos,
+                                 Map<Integer, Long> workerStatusCounts, Histogram workerServiceTime) {
+        requestsByWorker.put(workerId, requests);
+        errors += workerErrors;
+        elapsedNanos = Math.max(elapsedNanos, workerElapsedNanos);
+        workerStatusCounts.forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
+        serviceTime.add(workerServiceTime);
+    }
+
+    synchronized void addFailure(String workerId, String message) {
+        failedWorkers.put(workerId, message);
+    }
+
+    public LoadOperation getOperation() {
+        return operation;
+    }
+
+    public synchronized long getTotalRequests() {
+        return responseTime.getTotalCount();
+    }
+
+    public synchronized Map<String, Long> getRequestsByWorker() {
+        return new TreeMap<>(requestsByWorker);
+    }
+
+    /**
+     * Workers that reported an error or disconnected before their summary, with the reason
+     */
+    public synchronized Map<String, String> getFailedWorkers() {
+        return new TreeMap<>(failedWorkers);
+    }
+
+    public synchronized Map<Integer, Long> getStatusCounts() {
+        return new TreeMap<>(statusCounts);
+    }
+
+    /**
+     * Requests that threw or returned a status outside 2xx, across all workers
+     */
+    public synchronized long getFailedRequests() {
+        long failed = errors;
+        for (Map.Entry<Integer, Long> entry : statusCounts.entrySet()) {
+            if (entry.getKey() < 200 || entry.getKey() >= 300) {
+                failed += entry.getValue();
+            }
+        }
+        return failed;
+    }
+
+    public synchronized double getAchievedRate() {
+        return elapsedNanos == 0 ? 0 : getTotalRequests() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Merged response-time percentile in milliseconds, e.g. 99.0 for p99
+     */
+    public synchronized double getResponseTimePercentileMillis(double percentile) {
+        return responseTime.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public synchronized void printSummary() {
+        System.out.println("=== Distributed Load Result: " + operation.getLabel() + " ===");
+        System.out.printf("Workers: %d, target rate: %.1f rps, achieved: %.1f rps%n", requestsByWorker.size()
+                + failedWorkers.size(), targetRate, getAchievedRate());
+        System.out.println("Requests: " + getTotalRequests() + " " + requestsByWorker + ", failed: " + getFailedRequests()
+                + ", errors: " + errors);
+        if (!failedWorkers.isEmpty()) {
+            System.out.println("Failed workers: " + failedWorkers);
+        }
+        System.out.println("Status counts: " + statusCounts);
+        System.out.printf("Response time (from intended start) ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                getResponseTimePercentileMillis(50), getResponseTimePercentileMillis(90),
+                getResponseTimePercentileMillis(99), getResponseTimePercentileMillis(99.9),
+                responseTime.getMaxValue() / 1000.0);
+        System.out.println("Per-interval p99 ms:");
+        for (Map.Entry<Integer, Histogram> entry : timeline.entrySet()) {
+            Histogram interval = entry.getValue();
+            System.out.printf("  %5ds  requests=%-7d p99=%.2f%n", (entry.getKey() + 1) * intervalMillis / 1000,
+                    interval.getTotalCount(), interval.getValueAtPercentile(99) / 1000.0);
+        }
+        System.out.println("=========================");
+    }
+
+    /**
+     * Write the merged distributions (.hgrm, milliseconds) and the merged per-interval
+     * histograms as an HdrHistogram log (.hlog) that HistogramLogProcessor can read
+     */
+    public synchronized void writeReport(File directory) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            System.err.println("Could not create load report directory: " + directory);
+            return;
+        }
+        String baseName = "distributed-" + operation.name().toLowerCase() + "-" + System.currentTimeMillis();
+        try (PrintStream out = new PrintStream(new File(directory, baseName + "-response-time.hgrm"))) {
+            responseTime.outputPercentileDistribution(out, 1000.0);
+        } catch (FileNotFoundException e) {
+            System.err.println("Could not write load report: " + e.getMessage());
+        }
+        try (PrintStream out = new PrintStream(new File(directory, baseName + "-service-time.hgrm"))) {
+            serviceTime.outputPercentileDistribution(out, 1000.0);
+        } catch (FileNotFoundException e) {
+            System.err.println("Could not write load report: " + e.getMessage());
+        }
+        try (PrintStream out = new PrintStream(new File(directory, baseName + "-intervals.hlog"))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            for (Map.Entry<Integer, Histogram> entry : timeline.entrySet()) {
+                double start = entry.getKey() * intervalMillis / 1000.0;
+                writer.outputIntervalHistogram(start, start + intervalMillis / 1000.0, entry.getValue(), 1000.0);
+            }
+        } catch (FileNotFoundException e) {
+            System.err.println("Could not write load report: " + e.getMessage());
+        }
+    }
+}
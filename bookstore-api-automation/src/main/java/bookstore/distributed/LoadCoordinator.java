@@ -0,0 +1,235 @@
+package bookstore.distributed;
+
+import bookstore.load.LoadOperation;
+import bookstore.load.LoadRunner;
+import bookstore.utils.DataCorpus;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits an open-loop load run across several {@link LoadWorker} processes and merges
+ * what they report into one {@link DistributedLoadResult}.
+ * <p>
+ * Workers connect, the coordinator waits until the expected number have said hello and
+ * then starts them together, each at an equal share of the target rate. Fresh worker JVMs
+ * first run an unrecorded warm-up so JIT compilation does not land in the first intervals.
+ * Every worker
+ * streams one compressed histogram per interval; the coordinator adds them into the
+ * run-wide histogram and a per-interval timeline, so nothing is lost by averaging
+ * percentiles. Configured via system properties:
+ * <pre>
+ * -Dcoordinator.port=7070          port workers connect to
+ * -Dcoordinator.workers=4          workers to wait for
+ * -Dcoordinator.spawn.local=true   also launch that many worker JVMs on this machine
+ * -Dcoordinator.interval.ms=1000   histogram interval
+ * -Dcoordinator.warmup.seconds=10  unrecorded warm-up each worker runs before the measured run
+ * -Dload.operation, -Dload.rps, -Dload.duration, -Dload.concurrency, -Dload.seed.books as for LoadRunner
+ *                                  (rps is the total; concurrency and seed books are per worker)
+ * </pre>
+ */
+public class LoadCoordinator implements AutoCloseable {
+
+    public static final long INTERVAL_MILLIS = Long.parseLong(System.getProperty("coordinator.interval.ms", "1000"));
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(Long.parseLong(
+            System.getProperty("coordinator.connect.timeout", "120")));
+
+    private final ServerSocket serverSocket;
+    private final int workers;
+    private final LoadOperation operation;
+    private final double requestsPerSecond;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int concurrencyPerWorker;
+    private final int seedBooksPerWorker;
+
+    /**
+     * Bind the coordinator port (0 picks a free one) so workers can be started against it
+     */
+    public LoadCoordinator(int port, int workers, LoadOperation operation, double requestsPerSecond,
+                           Duration duration, Duration warmup, int concurrencyPerWorker, int seedBooksPerWorker)
+            throws IOException {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        this.serverSocket = new ServerSocket(port);
+        this.workers = workers;
+        this.operation = operation;
+        this.requestsPerSecond = requestsPerSecond;
+        this.duration = duration;
+        this.warmup = warmup;
+        this.concurrencyPerWorker = concurrencyPerWorker;
+        this.seedBooksPerWorker = seedBooksPerWorker;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workers = Integer.parseInt(System.getProperty("coordinator.workers", "2"));
+        LoadCoordinator coordinator = new LoadCoordinator(
+                Integer.parseInt(System.getProperty("coordinator.port", "7070")),
+                workers,
+                LoadOperation.fromLabel(System.getProperty("load.operation", "GET_BOOK")),
+                Double.parseDouble(System.getProperty("load.rps", "100")),
+                Duration.ofSeconds(Long.parseLong(System.getProperty("load.duration", "30"))),
+                Duration.ofSeconds(Long.parseLong(System.getProperty("coordinator.warmup.seconds", "10"))),
+                Integer.parseInt(System.getProperty("load.concurrency", "1000")),
+                Integer.parseInt(System.getProperty("load.seed.books", "50")));
+        List<Process> localWorkers = Boolean.parseBoolean(System.getProperty("coordinator.spawn.local", "false"))
+                ? LocalWorkerLauncher.launch(workers, coordinator.getPort(), new File(LoadRunner.REPORT_DIRECTORY))
+                : List.of();
+        DistributedLoadResult result;
+        try (coordinator) {
+            result = coordinator.run();
+        } finally {
+            LocalWorkerLauncher.awaitExit(localWorkers, Duration.ofSeconds(30));
+        }
+        result.printSummary();
+        result.writeReport(new File(LoadRunner.REPORT_DIRECTORY));
+        System.exit(result.getFailedWorkers().isEmpty() && result.getFailedRequests() == 0 ? 0 : 1);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Wait for the workers, start them, and return once every one has reported or dropped out
+     */
+    public DistributedLoadResult run() throws IOException {
+        DistributedLoadResult result = new DistributedLoadResult(operation, requestsPerSecond, INTERVAL_MILLIS);
+        Map<String, Socket> connected = acceptWorkers();
+        double share = requestsPerSecond / connected.size();
+        String runId = DataCorpus.RUN_ID;
+
+        System.out.println("[COORDINATOR] Starting " + connected.size() + " workers at " + share + " rps each: "
+                + connected.keySet());
+        List<DataInputStream> inputs = new ArrayList<>();
+        for (Socket socket : connected.values()) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeByte(WorkerProtocol.START);
+            out.writeUTF(runId);
+            out.writeUTF(operation.name());
+            out.writeDouble(share);
+            out.writeLong(duration.toMillis());
+            out.writeLong(warmup.toMillis());
+            out.writeInt(concurrencyPerWorker);
+            out.writeInt(seedBooksPerWorker);
+            out.writeLong(INTERVAL_MILLIS);
+            out.flush();
+            inputs.add(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+        }
+
+        ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+        int i = 0;
+        for (Map.Entry<String, Socket> worker : connected.entrySet()) {
+            DataInputStream in = inputs.get(i++);
+            readers.execute(() -> readWorker(worker.getKey(), worker.getValue(), in, result));
+        }
+        readers.shutdown();
+        try {
+            if (!readers.awaitTermination(warmup.toMillis() + duration.toMillis() + TimeUnit.MINUTES.toMillis(5), TimeUnit.MILLISECONDS)) {
+                System.err.println("[COORDINATOR] Timed out waiting for worker summaries");
+                readers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            readers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        for (Socket socket : connected.values()) {
+            socket.close();
+        }
+        return result;
+    }
+
+    private Map<String, Socket> acceptWorkers() throws IOException {
+        Map<String, Socket> connected = new HashMap<>();
+        long deadline = System.nanoTime() + CONNECT_TIMEOUT.toNanos();
+        System.out.println("[COORDINATOR] Waiting for " + workers + " workers on port " + getPort());
+        while (connected.size() < workers) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw new IOException("Only " + connected.size() + " of " + workers + " workers connected within "
+                        + CONNECT_TIMEOUT.getSeconds() + "s");
+            }
+            serverSocket.setSoTimeout((int) Math.min(remainingMillis, Integer.MAX_VALUE));
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketTimeoutException e) {
+                continue;
+            }
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            if (in.readByte() != WorkerProtocol.HELLO) {
+                socket.close();
+                continue;
+            }
+            String workerId = in.readUTF();
+            if (connected.putIfAbsent(workerId, socket) != null) {
+                System.err.println("[COORDINATOR] Rejecting duplicate worker id " + workerId);
+                socket.close();
+                continue;
+            }
+            System.out.println("[COORDINATOR] Worker " + workerId + " connected from " + socket.getRemoteSocketAddress());
+        }
+        return connected;
+    }
+
+    private void readWorker(String workerId, Socket socket, DataInputStream in, DistributedLoadResult result) {
+        try {
+            while (true) {
+                byte type = in.readByte();
+                if (type == WorkerProtocol.INTERVAL) {
+                    int index = in.readInt();
+                    result.addInterval(index, WorkerProtocol.readHistogram(in));
+                } else if (type == WorkerProtocol.DONE) {
+                    long requests = in.readLong();
+                    long errors = in.readLong();
+                    long elapsedNanos = in.readLong();
+                    int statuses = in.readInt();
+                    Map<Integer, Long> statusCounts = new HashMap<>();
+                    for (int s = 0; s < statuses; s++) {
+                        statusCounts.put(in.readInt(), in.readLong());
+                    }
+                    Histogram serviceTime = WorkerProtocol.readHistogram(in);
+                    result.addSummary(workerId, requests, errors, elapsedNanos, statusCounts, serviceTime);
+                    System.out.println("[COORDINATOR] Worker " + workerId + " finished: " + requests + " requests");
+                    return;
+                } else if (type == WorkerProtocol.FAILED) {
+                    result.addFailure(workerId, in.readUTF());
+                    return;
+                } else {
+                    result.addFailure(workerId, "Unknown frame type " + type);
+                    return;
+                }
+            }
+        } catch (EOFException e) {
+            result.addFailure(workerId, "Disconnected before sending its summary");
+        } catch (IOException e) {
+            if (!socket.isClosed()) {
+                result.addFailure(workerId, String.valueOf(e));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,185 @@
+package bookstore.distributed;
+
+import bookstore.cleanup.BookReaper;
+import bookstore.config.APIConfig;
+import bookstore.load.LoadOperation;
+import bookstore.load.LoadResult;
+import bookstore.load.LoadSession;
+import bookstore.load.OpenLoopLoadEngine;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One load-generating process of a distributed run. Connects to a {@link LoadCoordinator},
+ * waits for its share of the work, runs it with the {@link OpenLoopLoadEngine} and streams
+ * an interval histogram back every interval, then a final summary.
+ * <pre>
+ * -Dcoordinator.host=localhost   coordinator address
+ * -Dcoordinator.port=7070        coordinator port
+ * -Dworker.id=w1                 unique per worker; also tags generated emails
+ * </pre>
+ * The target API is taken from base.uri and port as usual.
+ */
+public class LoadWorker {
+
+    private final String coordinatorHost;
+    private final int coordinatorPort;
+    private final String workerId;
+
+    public LoadWorker(String coordinatorHost, int coordinatorPort, String workerId) {
+        this.coordinatorHost = coordinatorHost;
+        this.coordinatorPort = coordinatorPort;
+        this.workerId = workerId;
+    }
+
+    public static void main(String[] args) {
+        String workerId = System.getProperty("worker.id", "w" + ProcessHandle.current().pid());
+        // Generated emails carry the worker id so workers never collide on signup
+        System.setProperty("data.worker.id", workerId);
+        APIConfig.enableMetrics();
+        LoadWorker worker = new LoadWorker(System.getProperty("coordinator.host", "localhost"),
+                Integer.parseInt(System.getProperty("coordinator.port", "7070")), workerId);
+        int exitCode = 0;
+        try {
+            worker.run();
+        } catch (IOException e) {
+            System.err.println("[WORKER " + workerId + "] Lost coordinator: " + e.getMessage());
+            exitCode = 2;
+        }
+        BookReaper.shared().reapRun();
+        System.exit(exitCode);
+    }
+
+    /**
+     * Serve one run from the coordinator and return once the summary has been sent
+     */
+    public void run() throws IOException {
+        try (Socket socket = new Socket(coordinatorHost, coordinatorPort)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeByte(WorkerProtocol.HELLO);
+            out.writeUTF(workerId);
+            out.flush();
+
+            if (in.readByte() != WorkerProtocol.START) {
+                throw new IOException("Expected START from coordinator");
+            }
+            String runId = in.readUTF();
+            LoadOperation operation = LoadOperation.fromLabel(in.readUTF());
+            double rps = in.readDouble();
+            Duration duration = Duration.ofMillis(in.readLong());
+            Duration warmup = Duration.ofMillis(in.readLong());
+            int concurrency = in.readInt();
+            int seedBooks = in.readInt();
+            long intervalMillis = in.readLong();
+            if (System.getProperty("data.run.id") == null) {
+                System.setProperty("data.run.id", runId);
+            }
+            System.out.println("[WORKER " + workerId + "] " + operation.getLabel() + " at " + rps + " rps for "
+                    + duration.getSeconds() + "s against " + APIConfig.BASE_URI + ":" + APIConfig.DEFAULT_PORT);
+
+            try {
+                execute(out, operation, rps, duration, warmup, concurrency, seedBooks, intervalMillis);
+            } catch (RuntimeException e) {
+                synchronized (out) {
+                    out.writeByte(WorkerProtocol.FAILED);
+                    out.writeUTF(String.valueOf(e));
+                    out.flush();
+                }
+                System.err.println("[WORKER " + workerId + "] Run failed: " + e);
+            }
+        }
+    }
+
+    private void execute(DataOutputStream out, LoadOperation operation, double rps, Duration duration, Duration warmup,
+                         int concurrency, int seedBooks, long intervalMillis) throws IOException {
+        LoadSession session = LoadSession.open(seedBooks);
+        if (!warmup.isZero()) {
+            System.out.println("[WORKER " + workerId + "] Warming up for " + warmup.getSeconds() + "s");
+            new OpenLoopLoadEngine(operation, rps, warmup, concurrency).run(session);
+        }
+        LoadResult result = new LoadResult(operation, rps, true);
+        IntervalSender sender = new IntervalSender(out, result);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "worker-interval-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(sender, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        try {
+            new OpenLoopLoadEngine(operation, rps, duration, concurrency).run(session, result);
+        } finally {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Requests still in flight at the last tick land in one final interval
+        sender.run();
+        if (sender.failure != null) {
+            throw sender.failure;
+        }
+
+        synchronized (out) {
+            out.writeByte(WorkerProtocol.DONE);
+            out.writeLong(result.getTotalRequests());
+            out.writeLong(result.getErrorCount());
+            out.writeLong(result.getElapsedNanos());
+            Map<Integer, Long> statusCounts = result.getStatusCounts();
+            out.writeInt(statusCounts.size());
+            for (Map.Entry<Integer, Long> entry : statusCounts.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            WorkerProtocol.writeHistogram(out, result.getServiceTime());
+            out.flush();
+        }
+        System.out.println("[WORKER " + workerId + "] Sent " + sender.index + " intervals, "
+                + result.getTotalRequests() + " requests");
+    }
+
+    /**
+     * Takes the interval histogram off the recorder and sends it, reusing the histogram
+     */
+    private static class IntervalSender implements Runnable {
+        private final DataOutputStream out;
+        private final LoadResult result;
+        private Histogram interval;
+        private int index;
+        private IOException failure;
+
+        IntervalSender(DataOutputStream out, LoadResult result) {
+            this.out = out;
+            this.result = result;
+        }
+
+        @Override
+        public synchronized void run() {
+            interval = result.getIntervalHistogram(interval);
+            try {
+                synchronized (out) {
+                    out.writeByte(WorkerProtocol.INTERVAL);
+                    out.writeInt(index++);
+                    WorkerProtocol.writeHistogram(out, interval);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package bookstore.distributed;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts {@link LoadWorker} JVMs on this machine with the current classpath, passing on
+ * the target API and test-data settings. Each worker logs to worker-&lt;id&gt;.log.
+ */
+public class LocalWorkerLauncher {
+
+    private static final String[] FORWARDED_PROPERTIES = {
+            "base.uri", "base.path", "port", "token.pool.size", "http.pool.max.total", "http.pool.max.per.route",
+            "data.seed", "data.corpus.size", "data.corpus.cache", "data.run.id"
+    };
+
+    /**
+     * Launch workers w1..wN pointed at a coordinator on localhost
+     */
+    public static List<Process> launch(int count, int coordinatorPort, File logDirectory) throws IOException {
+        logDirectory.mkdirs();
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<Process> processes = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            for (String property : FORWARDED_PROPERTIES) {
+                String value = System.getProperty(property);
+                if (value != null) {
+                    command.add("-D" + property + "=" + value);
+                }
+            }
+            command.add("-Dcoordinator.host=localhost");
+            command.add("-Dcoordinator.port=" + coordinatorPort);
+            command.add("-Dworker.id=w" + i);
+            command.add(LoadWorker.class.getName());
+
+            File log = new File(logDirectory, "worker-w" + i + ".log");
+            processes.add(new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start());
+        }
+        System.out.println("[COORDINATOR] Launched " + count + " local workers, logs in " + logDirectory.getPath());
+        return processes;
+    }
+
+    /**
+     * Wait for launched workers to exit, killing any still running after the timeout
+     */
+    public static void awaitExit(List<Process> processes, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
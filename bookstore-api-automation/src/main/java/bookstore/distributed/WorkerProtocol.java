@@ -0,0 +1,50 @@
+package bookstore.distributed;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+
+/**
+ * Wire format between {@link LoadCoordinator} and {@link LoadWorker}: one TCP connection per
+ * worker carrying typed frames written with DataOutputStream.
+ * <pre>
+ * worker  -> HELLO     workerId
+ * coord.  -> START     runId, operation, rps, durationMillis, warmupMillis, concurrency, seedBooks, intervalMillis
+ * worker  -> INTERVAL  index, compressed response-time histogram of that interval (micros)
+ * worker  -> DONE      requests, errors, elapsedNanos, status counts, compressed service-time histogram
+ * worker  -> FAILED    message
+ * </pre>
+ * Histograms use HdrHistogram's compressed encoding, a few hundred bytes per interval.
+ */
+final class WorkerProtocol {
+
+    static final byte HELLO = 'H';
+    static final byte START = 'S';
+    static final byte INTERVAL = 'I';
+    static final byte DONE = 'D';
+    static final byte FAILED = 'F';
+
+    private WorkerProtocol() {
+    }
+
+    static void writeHistogram(DataOutputStream out, Histogram histogram) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        out.writeInt(length);
+        out.write(buffer.array(), 0, length);
+    }
+
+    static Histogram readHistogram(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt histogram frame", e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package bookstore.history;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * One endpoint across every run of a {@link RunHistory} that called it, held as columns:
+ * run index, call count, throughput and one column per stored percentile. Trend queries
+ * read a column and never touch the histograms; a histogram is only decoded from the
+ * mapped file when a comparison asks for it.
+ */
+public class EndpointSeries {
+
+    private final String endpoint;
+    private final ByteBuffer file;
+    private int size;
+    private int[] runs = new int[16];
+    private long[] counts = new long[16];
+    private double[] throughputs = new double[16];
+    private final long[][] percentiles = new long[RunHistory.PERCENTILES.length][16];
+    private int[] histogramOffsets = new int[16];
+    private int[] histogramLengths = new int[16];
+
+    EndpointSeries(String endpoint, ByteBuffer file) {
+        this.endpoint = endpoint;
+        this.file = file;
+    }
+
+    /**
+     * Append one run's row; called by {@link RunHistory} in run order while indexing the file
+     */
+    int add(int run, ByteBuffer row, int position) {
+        if (size == runs.length) {
+            int capacity = size * 2;
+            runs = Arrays.copyOf(runs, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            throughputs = Arrays.copyOf(throughputs, capacity);
+            for (int p = 0; p < percentiles.length; p++) {
+                percentiles[p] = Arrays.copyOf(percentiles[p], capacity);
+            }
+            histogramOffsets = Arrays.copyOf(histogramOffsets, capacity);
+            histogramLengths = Arrays.copyOf(histogramLengths, capacity);
+        }
+        runs[size] = run;
+        counts[size] = row.getLong(position);
+        throughputs[size] = row.getDouble(position + 8);
+        position += 16;
+        for (long[] column : percentiles) {
+            column[size] = row.getLong(position);
+            position += 8;
+        }
+        histogramLengths[size] = row.getInt(position);
+        histogramOffsets[size] = position + 4;
+        size++;
+        return position + 4 + row.getInt(position);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Number of runs that called this endpoint
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Index in the history of the i-th run that called this endpoint
+     */
+    public int getRun(int i) {
+        return runs[checkIndex(i)];
+    }
+
+    /**
+     * Position of a history run in this series, or -1 when that run did not call the endpoint
+     */
+    public int indexOfRun(int run) {
+        int index = Arrays.binarySearch(runs, 0, size, run);
+        return index < 0 ? -1 : index;
+    }
+
+    public long getCount(int i) {
+        return counts[checkIndex(i)];
+    }
+
+    /**
+     * Calls per second in the i-th run
+     */
+    public double getThroughput(int i) {
+        return throughputs[checkIndex(i)];
+    }
+
+    /**
+     * Stored percentile of the i-th run, in microseconds
+     */
+    public long getPercentile(double percentile, int i) {
+        return percentiles[RunHistory.percentileIndex(percentile)][checkIndex(i)];
+    }
+
+    /**
+     * The whole column of one stored percentile, in microseconds, oldest run first
+     */
+    public long[] getPercentileColumn(double percentile) {
+        return Arrays.copyOf(percentiles[RunHistory.percentileIndex(percentile)], size);
+    }
+
+    public double[] getThroughputColumn() {
+        return Arrays.copyOf(throughputs, size);
+    }
+
+    /**
+     * Latency histogram of the i-th run in microseconds, decoded from the file
+     */
+    public Histogram getHistogram(int i) {
+        checkIndex(i);
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(file.slice(histogramOffsets[i], histogramLengths[i]), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt histogram of " + endpoint + " in run " + runs[i], e);
+        }
+    }
+
+    /**
+     * Runs from..to (exclusive) of this series merged into one histogram
+     */
+    public Histogram mergeHistograms(int from, int to) {
+        Histogram merged = new Histogram(3);
+        for (int i = from; i < to; i++) {
+            merged.add(getHistogram(i));
+        }
+        return merged;
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Run " + i + " of " + size + " for " + endpoint);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,66 @@
+package bookstore.history;
+
+import bookstore.config.APIConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command-line entry point for querying the run history, configured via system properties:
+ * <pre>
+ * -Dhistory.file=history/runs.hist   history to read (see {@link RunHistory})
+ * -Dhistory.endpoint=GET /books/{id}  only show this endpoint's trend (default: every endpoint)
+ * -Dhistory.trend.runs=20            latest runs shown per endpoint
+ * -Dhistory.baseline.runs=10         earlier runs of the same label the latest run is compared with
+ * -Dhistory.alpha=0.01               one-sided significance level
+ * -Dhistory.min.effect=0.56          smallest effect size that counts (see {@link RegressionCheck#getEffect()})
+ * </pre>
+ * Exits with 1 when the latest run regressed on any endpoint.
+ */
+public class HistoryRunner {
+
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(APIConfig.HISTORY_FILE);
+        String onlyEndpoint = System.getProperty("history.endpoint");
+        int trendRuns = Integer.parseInt(System.getProperty("history.trend.runs", "20"));
+
+        long start = System.nanoTime();
+        try (RunHistory history = RunHistory.open(file)) {
+            System.out.println("[HISTORY] " + history.getRunCount() + " runs in " + file + " indexed in "
+                    + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / 1000.0 + " ms");
+            if (history.getRunCount() == 0) {
+                return;
+            }
+            for (String endpoint : history.getEndpoints()) {
+                if (onlyEndpoint == null || onlyEndpoint.equals(endpoint)) {
+                    printTrend(history, history.getSeries(endpoint), trendRuns);
+                }
+            }
+            int latest = history.getRunCount() - 1;
+            System.out.println("=== Run " + latest + " (" + history.getLabel(latest) + ") against its baseline ===");
+            List<RegressionCheck> checks = RegressionDetector.fromSystemProperties().compare(history, latest);
+            RegressionCheck.printTable(checks);
+            boolean regressed = checks.stream().anyMatch(RegressionCheck::isRegression);
+            System.exit(regressed ? 1 : 0);
+        }
+    }
+
+    /**
+     * Print the latest runs of one endpoint, oldest first
+     */
+    static void printTrend(RunHistory history, EndpointSeries series, int runs) {
+        System.out.println("=== " + series.getEndpoint() + ": last " + Math.min(runs, series.size()) + " of "
+                + series.size() + " runs ===");
+        System.out.println("  run | started              |  calls |      rps |  p50 ms |  p99 ms |  max ms | label");
+        for (int i = Math.max(0, series.size() - runs); i < series.size(); i++) {
+            int run = series.getRun(i);
+            System.out.printf(" %4d | %-20s | %6d | %8.1f | %7.2f | %7.2f | %7.2f | %s%n", run,
+                    Instant.ofEpochMilli(history.getStartedAtMillis(run)).toString().substring(0, 19),
+                    series.getCount(i), series.getThroughput(i), series.getPercentile(50, i) / 1000.0,
+                    series.getPercentile(99, i) / 1000.0, series.getPercentile(100, i) / 1000.0, history.getLabel(run));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package bookstore.history;
+
+import java.util.List;
+
+/**
+ * Verdict for one endpoint of one run against its baseline window: the Mann-Whitney
+ * p-value, the effect size and whether together they amount to a regression.
+ */
+public class RegressionCheck {
+
+    private final String endpoint;
+    private final int baselineRuns;
+    private final long baselineCalls;
+    private final long currentCalls;
+    private final double baselineP50Millis;
+    private final double currentP50Millis;
+    private final double baselineP99Millis;
+    private final double currentP99Millis;
+    private final double effect;
+    private final double pValue;
+    private final boolean regression;
+
+    RegressionCheck(String endpoint, int baselineRuns, long baselineCalls, long currentCalls, double baselineP50Millis,
+                    double currentP50Millis, double baselineP99Millis, double currentP99Millis, double effect,
+                    double pValue, boolean regression) {
+        this.endpoint = endpoint;
+        this.baselineRuns = baselineRuns;
+        this.baselineCalls = baselineCalls;
+        this.currentCalls = currentCalls;
+        this.baselineP50Millis = baselineP50Millis;
+        this.currentP50Millis = currentP50Millis;
+        this.baselineP99Millis = baselineP99Millis;
+        this.currentP99Millis = currentP99Millis;
+        this.effect = effect;
+        this.pValue = pValue;
+        this.regression = regression;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Earlier runs of the same label merged into the baseline; 0 means nothing to compare with
+     */
+    public int getBaselineRuns() {
+        return baselineRuns;
+    }
+
+    public long getBaselineCalls() {
+        return baselineCalls;
+    }
+
+    public long getCurrentCalls() {
+        return currentCalls;
+    }
+
+    public double getBaselineP50Millis() {
+        return baselineP50Millis;
+    }
+
+    public double getCurrentP50Millis() {
+        return currentP50Millis;
+    }
+
+    public double getBaselineP99Millis() {
+        return baselineP99Millis;
+    }
+
+    public double getCurrentP99Millis() {
+        return currentP99Millis;
+    }
+
+    /**
+     * Probability that a call of this run is slower than a baseline call, ties counted half
+     * (Vargha-Delaney A): 0.5 means no shift, 0.56 / 0.64 / 0.71 are small / medium / large
+     */
+    public double getEffect() {
+        return effect;
+    }
+
+    /**
+     * One-sided Mann-Whitney p-value for "this run is slower than the baseline"
+     */
+    public double getPValue() {
+        return pValue;
+    }
+
+    public boolean isRegression() {
+        return regression;
+    }
+
+    /**
+     * Print one row per endpoint
+     */
+    public static void printTable(List<RegressionCheck> checks) {
+        System.out.println(" endpoint               | runs |  base p50 |   now p50 |  base p99 |   now p99 | effect |  p-value |");
+        for (RegressionCheck check : checks) {
+            System.out.printf(" %-22s | %4d | %9.2f | %9.2f | %9.2f | %9.2f | %6.3f | %8.2g | %s%n", check.endpoint,
+                    check.baselineRuns, check.baselineP50Millis, check.currentP50Millis, check.baselineP99Millis,
+                    check.currentP99Millis, check.effect, check.pValue,
+                    check.regression ? "REGRESSION" : check.baselineRuns == 0 ? "no baseline" : "ok");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package bookstore.history;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Compares a run's latency with a baseline window of earlier runs of the same label.
+ * <p>
+ * The test is Mann-Whitney U, computed straight from the two histograms: their buckets are
+ * walked in value order and every bucket is one tie group, so no sample is materialised.
+ * With thousands of calls per run even a shift of a few microseconds is "significant", so a
+ * regression also needs an effect size above a floor: the probability that a call of the
+ * run is slower than a baseline call (Vargha-Delaney A). Baseline runs are merged into one
+ * sample, which treats calls from different runs as exchangeable.
+ */
+public class RegressionDetector {
+
+    private final int baselineRuns;
+    private final double alpha;
+    private final double minEffect;
+
+    /**
+     * @param baselineRuns how many earlier runs of the same label form the baseline
+     * @param alpha        one-sided significance level
+     * @param minEffect    smallest A that counts, e.g. 0.56 for a small effect
+     */
+    public RegressionDetector(int baselineRuns, double alpha, double minEffect) {
+        if (baselineRuns <= 0) {
+            throw new IllegalArgumentException("Baseline runs must be positive: " + baselineRuns);
+        }
+        this.baselineRuns = baselineRuns;
+        this.alpha = alpha;
+        this.minEffect = minEffect;
+    }
+
+    /**
+     * -Dhistory.baseline.runs (default 10), -Dhistory.alpha (0.01) and -Dhistory.min.effect (0.56)
+     */
+    public static RegressionDetector fromSystemProperties() {
+        return new RegressionDetector(Integer.parseInt(System.getProperty("history.baseline.runs", "10")),
+                Double.parseDouble(System.getProperty("history.alpha", "0.01")),
+                Double.parseDouble(System.getProperty("history.min.effect", "0.56")));
+    }
+
+    /**
+     * Check every endpoint of one run against the preceding runs with the same label
+     */
+    public List<RegressionCheck> compare(RunHistory history, int run) {
+        List<RegressionCheck> checks = new ArrayList<>();
+        String label = history.getLabel(run);
+        for (String endpoint : history.getEndpoints()) {
+            EndpointSeries series = history.getSeries(endpoint);
+            int current = series.indexOfRun(run);
+            if (current < 0) {
+                continue;
+            }
+            Histogram baseline = new Histogram(3);
+            int baselineCount = 0;
+            for (int i = current - 1; i >= 0 && baselineCount < baselineRuns; i--) {
+                if (label.equals(history.getLabel(series.getRun(i)))) {
+                    baseline.add(series.getHistogram(i));
+                    baselineCount++;
+                }
+            }
+            checks.add(compare(endpoint, baseline, baselineCount, series.getHistogram(current)));
+        }
+        return checks;
+    }
+
+    /**
+     * Check one endpoint's latency histogram against a baseline histogram, both in microseconds
+     */
+    public RegressionCheck compare(String endpoint, Histogram baseline, int baselineRunCount, Histogram current) {
+        double effect = 0.5;
+        double pValue = 1;
+        if (baseline.getTotalCount() > 0 && current.getTotalCount() > 0) {
+            double[] test = mannWhitney(current, baseline);
+            effect = test[0];
+            pValue = test[1];
+        }
+        return new RegressionCheck(endpoint, baselineRunCount, baseline.getTotalCount(), current.getTotalCount(),
+                millis(baseline, 50), millis(current, 50), millis(baseline, 99), millis(current, 99), effect, pValue,
+                pValue < alpha && effect >= minEffect);
+    }
+
+    /**
+     * A = U / (n1 n2) for x over y, and the one-sided p-value of x being stochastically larger,
+     * from the normal approximation with tie and continuity correction
+     */
+    static double[] mannWhitney(Histogram x, Histogram y) {
+        double n1 = x.getTotalCount();
+        double n2 = y.getTotalCount();
+        Iterator<HistogramIterationValue> xs = x.recordedValues().iterator();
+        Iterator<HistogramIterationValue> ys = y.recordedValues().iterator();
+        HistogramIterationValue xv = xs.hasNext() ? xs.next() : null;
+        HistogramIterationValue yv = ys.hasNext() ? ys.next() : null;
+        double rankSum = 0;
+        double tieTerm = 0;
+        double ranked = 0;
+        // Both histograms use the same precision, so equal values share a bucket
+        while (xv != null || yv != null) {
+            long value = Math.min(xv == null ? Long.MAX_VALUE : xv.getValueIteratedTo(),
+                    yv == null ? Long.MAX_VALUE : yv.getValueIteratedTo());
+            double inX = 0;
+            double inY = 0;
+            if (xv != null && xv.getValueIteratedTo() == value) {
+                inX = xv.getCountAtValueIteratedTo();
+                xv = xs.hasNext() ? xs.next() : null;
+            }
+            if (yv != null && yv.getValueIteratedTo() == value) {
+                inY = yv.getCountAtValueIteratedTo();
+                yv = ys.hasNext() ? ys.next() : null;
+            }
+            double tied = inX + inY;
+            rankSum += inX * (ranked + (tied + 1) / 2);
+            tieTerm += tied * tied * tied - tied;
+            ranked += tied;
+        }
+        double u = rankSum - n1 * (n1 + 1) / 2;
+        double n = n1 + n2;
+        double variance = n1 * n2 / 12 * ((n + 1) - tieTerm / (n * (n - 1)));
+        double pValue;
+        if (variance <= 0) {
+            pValue = 1;
+        } else {
+            double z = (u - n1 * n2 / 2 - 0.5) / Math.sqrt(variance);
+            pValue = 0.5 * erfc(z / Math.sqrt(2));
+        }
+        return new double[]{u / (n1 * n2), pValue};
+    }
+
+    /**
+     * Complementary error function, fractional error below 1.2e-7 (Numerical Recipes' erfcc)
+     */
+    static double erfc(double x) {
+        double z = Math.abs(x);
+        double t = 1 / (1 + 0.5 * z);
+        double r = t * Math.exp(-z * z - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? r : 2 - r;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,284 @@
+package bookstore.history;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Append-only file of past runs, read through a memory mapping.
+ * <p>
+ * After a 12-byte header (magic, version) the file is a sequence of runs, each prefixed
+ * with its length:
+ * <pre>
+ * int     bytes in the rest of the run
+ * long    start, epoch millis
+ * long    duration millis
+ * short+  label, UTF-8
+ * short   endpoint count, then per endpoint:
+ *   short+  endpoint, UTF-8
+ *   long    calls
+ *   double  calls per second
+ *   long[6] p50, p90, p95, p99, p99.9 and max latency in microseconds
+ *   int+    compressed HdrHistogram of the latency in microseconds
+ * </pre>
+ * Runs are never rewritten. Opening the file walks the length prefixes once and copies the
+ * fixed-width fields into one {@link EndpointSeries} of columns per endpoint, so a trend
+ * over hundreds of runs is an array read. Histograms stay in the mapping until a comparison
+ * decodes them. A run cut short by a crash mid-append is ignored on open and overwritten by
+ * the next append.
+ */
+public class RunHistory implements AutoCloseable {
+
+    public static final double[] PERCENTILES = {50, 90, 95, 99, 99.9, 100};
+
+    private static final long MAGIC = 0x424B52554E484953L; // "BKRUNHIS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+
+    private final FileChannel channel;
+    private final List<String> labels = new ArrayList<>();
+    private long[] startedAtMillis = new long[16];
+    private long[] durationMillis = new long[16];
+    private final Map<String, EndpointSeries> series = new LinkedHashMap<>();
+    private final long trailingBytes;
+
+    private RunHistory(FileChannel channel) throws IOException {
+        this.channel = channel;
+        if (channel == null) {
+            trailingBytes = 0;
+            return;
+        }
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Run history larger than 2 GB is not supported: " + size + " bytes");
+        }
+        MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        try {
+            checkHeader(file);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        trailingBytes = size - index(file);
+    }
+
+    /**
+     * Map a history file and index its runs; a missing or empty file is an empty history
+     */
+    public static RunHistory open(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return new RunHistory(null);
+        }
+        return new RunHistory(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * Append a run, creating the file if needed. Appends from several JVMs are serialized
+     * with a file lock; a run torn by an earlier crash is truncated first.
+     */
+    public static void append(Path file, RunRecord run) throws IOException {
+        ByteBuffer encoded = encode(run);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            long end = channel.size();
+            if (end == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putLong(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                end = HEADER_BYTES;
+            } else {
+                end = endOfLastRun(channel);
+                channel.truncate(end);
+            }
+            while (encoded.hasRemaining()) {
+                end += channel.write(encoded, end);
+            }
+            channel.force(false);
+        }
+    }
+
+    public int getRunCount() {
+        return labels.size();
+    }
+
+    public String getLabel(int run) {
+        return labels.get(run);
+    }
+
+    public long getStartedAtMillis(int run) {
+        return startedAtMillis[checkRun(run)];
+    }
+
+    public long getDurationMillis(int run) {
+        return durationMillis[checkRun(run)];
+    }
+
+    /**
+     * Every endpoint any run called, sorted
+     */
+    public Set<String> getEndpoints() {
+        return new TreeSet<>(series.keySet());
+    }
+
+    /**
+     * Columns of one endpoint, or null if no run called it
+     */
+    public EndpointSeries getSeries(String endpoint) {
+        return series.get(endpoint);
+    }
+
+    /**
+     * Bytes after the last complete run, left by an append that did not finish
+     */
+    public long getTrailingBytes() {
+        return trailingBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    static int percentileIndex(double percentile) {
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            if (PERCENTILES[i] == percentile) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Percentile " + percentile + " is not stored; stored: " + Arrays.toString(PERCENTILES));
+    }
+
+    /**
+     * Walk the runs, filling the columns; returns where the last complete run ends
+     */
+    private long index(ByteBuffer file) {
+        int position = HEADER_BYTES;
+        while (file.limit() - position >= 4) {
+            int length = file.getInt(position);
+            if (length <= 0 || length > file.limit() - position - 4) {
+                break;
+            }
+            int run = labels.size();
+            if (run == startedAtMillis.length) {
+                startedAtMillis = Arrays.copyOf(startedAtMillis, run * 2);
+                durationMillis = Arrays.copyOf(durationMillis, run * 2);
+            }
+            int field = position + 4;
+            startedAtMillis[run] = file.getLong(field);
+            durationMillis[run] = file.getLong(field + 8);
+            field += 16;
+            labels.add(readString(file, field));
+            field += 2 + file.getShort(field);
+            int endpoints = file.getShort(field);
+            field += 2;
+            for (int e = 0; e < endpoints; e++) {
+                String endpoint = readString(file, field);
+                field += 2 + file.getShort(field);
+                field = series.computeIfAbsent(endpoint, name -> new EndpointSeries(name, file)).add(run, file, field);
+            }
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    private static void checkHeader(ByteBuffer file) throws IOException {
+        if (file.limit() < HEADER_BYTES || file.getLong(0) != MAGIC) {
+            throw new IOException("Not a run history file");
+        }
+        if (file.getInt(8) != VERSION) {
+            throw new IOException("Unsupported run history version " + file.getInt(8));
+        }
+    }
+
+    private static long endOfLastRun(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        checkHeader(header.flip());
+        long size = channel.size();
+        long position = HEADER_BYTES;
+        ByteBuffer length = ByteBuffer.allocate(4);
+        while (size - position >= 4) {
+            length.clear();
+            channel.read(length, position);
+            int bytes = length.flip().getInt();
+            if (bytes <= 0 || bytes > size - position - 4) {
+                break;
+            }
+            position += 4 + bytes;
+        }
+        return position;
+    }
+
+    private static ByteBuffer encode(RunRecord run) {
+        List<String> endpoints = run.getEndpoints();
+        byte[] label = run.getLabel().getBytes(StandardCharsets.UTF_8);
+        int capacity = 4 + 16 + 2 + label.length + 2;
+        for (int e = 0; e < endpoints.size(); e++) {
+            capacity += 2 + endpoints.get(e).getBytes(StandardCharsets.UTF_8).length + 16 + 8 * PERCENTILES.length
+                    // The compressed form never outgrows the plain encoding plus deflate's block overhead
+                    + 4 + run.getHistogram(e).getNeededByteBufferCapacity() + 64;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+        buffer.position(4);
+        buffer.putLong(run.getStartedAtMillis()).putLong(run.getDurationMillis());
+        putString(buffer, label);
+        buffer.putShort((short) endpoints.size());
+        for (int e = 0; e < endpoints.size(); e++) {
+            Histogram histogram = run.getHistogram(e);
+            putString(buffer, endpoints.get(e).getBytes(StandardCharsets.UTF_8));
+            buffer.putLong(histogram.getTotalCount()).putDouble(run.getThroughput(e));
+            for (double percentile : PERCENTILES) {
+                buffer.putLong(histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile));
+            }
+            int lengthPosition = buffer.position();
+            buffer.position(lengthPosition + 4);
+            int compressed = histogram.encodeIntoCompressedByteBuffer(buffer);
+            buffer.putInt(lengthPosition, compressed);
+        }
+        buffer.putInt(0, buffer.position() - 4);
+        return buffer.flip();
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] utf8) {
+        if (utf8.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("String too long for the run history: " + utf8.length + " bytes");
+        }
+        buffer.putShort((short) utf8.length).put(utf8);
+    }
+
+    private static String readString(ByteBuffer file, int position) {
+        byte[] utf8 = new byte[file.getShort(position)];
+        file.get(position + 2, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private int checkRun(int run) {
+        if (run < 0 || run >= labels.size()) {
+            throw new IndexOutOfBoundsException("Run " + run + " of " + labels.size());
+        }
+        return run;
+    }
+}
@@ -0,0 +1,98 @@
+package bookstore.history;
+
+import bookstore.metrics.EndpointLatency;
+import bookstore.metrics.LatencyRegistry;
+import bookstore.stub.StubConfig;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One run as it is appended to a {@link RunHistory}: when it ran, under which label, and the
+ * latency histogram and throughput of every endpoint it called.
+ */
+public class RunRecord {
+
+    private final String label;
+    private final long startedAtMillis;
+    private final long durationMillis;
+    private final List<String> endpoints = new ArrayList<>();
+    private final List<Histogram> histograms = new ArrayList<>();
+    private final List<Double> throughputs = new ArrayList<>();
+
+    /**
+     * @param label runs are only compared with earlier runs of the same label, e.g. the same tag expression
+     */
+    public RunRecord(String label, long startedAtMillis, long durationMillis) {
+        this.label = label;
+        this.startedAtMillis = startedAtMillis;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * -Dhistory.label if given, else the tag expression; runs against the stub server are
+     * marked so they are never compared with runs against a live API
+     */
+    public static String defaultLabel() {
+        String label = System.getProperty("history.label");
+        if (label != null) {
+            return label;
+        }
+        return System.getProperty("cucumber.filter.tags", "default") + (StubConfig.ENABLED ? " (stub)" : "");
+    }
+
+    /**
+     * Every endpoint of a latency registry, all statuses merged, with its calls per second
+     * over the run's duration
+     */
+    public static RunRecord fromLatency(LatencyRegistry registry, String label, long startedAtMillis, long durationMillis) {
+        RunRecord record = new RunRecord(label, startedAtMillis, durationMillis);
+        for (String endpoint : registry.getEndpoints()) {
+            EndpointLatency latency = registry.get(endpoint);
+            Histogram histogram = latency.getHistogram();
+            record.addEndpoint(endpoint, histogram,
+                    durationMillis == 0 ? 0 : histogram.getTotalCount() * 1000.0 / durationMillis);
+        }
+        return record;
+    }
+
+    /**
+     * @param histogram latency in microseconds
+     * @param throughput calls per second
+     */
+    public RunRecord addEndpoint(String endpoint, Histogram histogram, double throughput) {
+        if (endpoints.contains(endpoint)) {
+            throw new IllegalArgumentException("Endpoint already in this run: " + endpoint);
+        }
+        endpoints.add(endpoint);
+        histograms.add(histogram);
+        throughputs.add(throughput);
+        return this;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public List<String> getEndpoints() {
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    Histogram getHistogram(int endpoint) {
+        return histograms.get(endpoint);
+    }
+
+    double getThroughput(int endpoint) {
+        return throughputs.get(endpoint);
+    }
+}
@@ -0,0 +1,139 @@
+package bookstore.launcher;
+
+import bookstore.config.APIConfig;
+import bookstore.config.BookstoreApi;
+import bookstore.config.JsonPayloads;
+import bookstore.config.ParsedResponse;
+import bookstore.load.LoadRunner;
+import bookstore.stub.BookstoreStubServer;
+import bookstore.stub.StubConfig;
+import bookstore.transport.ApiResponse;
+import bookstore.utils.FakerDataUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quick-starting entry point for smoke checks and load runs, configured via system properties:
+ * <pre>
+ * -Dlauncher.mode=smoke            smoke (one pass over every endpoint) or load (see {@link LoadRunner})
+ * -Dlauncher.startup.budget.ms=0   fail if the first request ends later than this after process start; 0 only reports
+ * -Dapi.transport=http2            the default here instead of restassured (see below)
+ * -Dstub.enabled=true              run against an in-JVM stub server (see {@link StubConfig})
+ * </pre>
+ * There is no Cucumber glue scan and nothing is set up before it is needed: test data
+ * (and Faker) on the first signup, the Jackson mapper on the first map body. RestAssured's
+ * setup is not made faster, only avoided: unless -Dapi.transport is given, the launcher
+ * runs on the JDK client, which never loads RestAssured or Groovy, and says so in its
+ * output. With -Dapi.transport=restassured that setup lands in the "first request" phase.
+ * Each startup phase is timed and printed. Started
+ * with the class-data archive that mvn -Pfast-start package builds, the JVM maps the
+ * classes of a training run instead of loading and verifying them again:
+ * <pre>
+ * java -XX:SharedArchiveFile=target/bookstore-launcher.jsa \
+ *      -cp target/classes:$(cat target/launcher.classpath) bookstore.launcher.FastLauncher
+ * </pre>
+ */
+public class FastLauncher {
+
+    public static final String SMOKE_MODE = "smoke";
+    public static final String LOAD_MODE = "load";
+
+    public static void main(String[] args) {
+        StartupTimer timer = StartupTimer.sinceProcessStart();
+        String mode = System.getProperty("launcher.mode", SMOKE_MODE);
+        long budgetMillis = Long.parseLong(System.getProperty("launcher.startup.budget.ms", "0"));
+        if (!mode.equals(SMOKE_MODE) && !mode.equals(LOAD_MODE)) {
+            throw new IllegalArgumentException("Unknown launcher.mode '" + mode + "'; expected " + SMOKE_MODE + " or " + LOAD_MODE);
+        }
+        // Must happen before APIConfig is read, so BookstoreApi never creates the RestAssured transport
+        boolean transportSubstituted = System.getProperty("api.transport") == null;
+        if (transportSubstituted) {
+            System.setProperty("api.transport", "http2");
+        }
+        String transport = BookstoreApi.shared().getTransport().getName();
+        timer.mark("config");
+
+        if (StubConfig.ENABLED) {
+            BookstoreStubServer.start(StubConfig.fromSystemProperties(APIConfig.DEFAULT_PORT));
+            timer.mark("stub");
+        }
+        List<String> failures = new ArrayList<>(firstRequest(timer));
+        double firstRequestMillis = timer.getTotalMillis();
+        if (mode.equals(SMOKE_MODE)) {
+            failures.addAll(smoke(timer));
+        }
+        timer.printSummary();
+        System.out.printf("[STARTUP] First request %.1f ms after process start (mode %s, transport %s)%n",
+                firstRequestMillis, mode, transport);
+        if (transportSubstituted) {
+            System.out.println("[STARTUP] api.transport was not set, so the launcher used http2 instead of the test suite's"
+                    + " restassured; RestAssured's setup is not in these timings (-Dapi.transport=restassured to include it)");
+        }
+        if (budgetMillis > 0 && firstRequestMillis > budgetMillis) {
+            failures.add(String.format("first request took %.1f ms, budget is %d ms", firstRequestMillis, budgetMillis));
+        }
+
+        if (!failures.isEmpty()) {
+            failures.forEach(failure -> System.out.println("[SMOKE] FAILED: " + failure));
+            System.exit(1);
+        }
+        System.exit(mode.equals(LOAD_MODE) ? LoadRunner.run() : 0);
+    }
+
+    /**
+     * GET /health, timed as the "first request" phase; returns what went wrong, if anything
+     */
+    public static List<String> firstRequest(StartupTimer timer) {
+        List<String> failures = new ArrayList<>();
+        expectStatus(failures, "GET /health", BookstoreApi.shared().health(), 200);
+        timer.mark("first request");
+        return failures;
+    }
+
+    /**
+     * Sign up, log in, then create, read and delete one book, timed as the "smoke" phase;
+     * stops at the first failed call and returns what went wrong, if anything
+     */
+    public static List<String> smoke(StartupTimer timer) {
+        List<String> failures = new ArrayList<>();
+        try {
+            String email = FakerDataUtils.generateRandomEmail();
+            String password = FakerDataUtils.generateRandomPassword();
+            if (!expectStatus(failures, "POST /signup", BookstoreApi.shared().signup(email, password), 200)) {
+                return failures;
+            }
+            ApiResponse login = BookstoreApi.shared().login(email, password);
+            if (!expectStatus(failures, "POST /login", login, 200)) {
+                return failures;
+            }
+            String token = new ParsedResponse(login).getString("access_token");
+
+            String title = FakerDataUtils.generateRandomBookTitle();
+            ApiResponse created = BookstoreApi.shared().createBook(token, JsonPayloads.book(title,
+                    FakerDataUtils.generateRandomAuthor(), FakerDataUtils.generateRandomYear(),
+                    FakerDataUtils.generateRandomSentence()));
+            if (!expectStatus(failures, "POST /books/", created, 200)) {
+                return failures;
+            }
+            int bookId = new ParsedResponse(created).getInt("id");
+            ApiResponse book = BookstoreApi.shared().getBook(token, bookId);
+            if (expectStatus(failures, "GET /books/" + bookId, book, 200)
+                    && !title.equals(new ParsedResponse(book).getString("name"))) {
+                failures.add("GET /books/" + bookId + " returned another title than was created");
+            }
+            expectStatus(failures, "DELETE /books/" + bookId, BookstoreApi.shared().deleteBook(token, bookId), 200);
+            return failures;
+        } finally {
+            timer.mark("smoke");
+        }
+    }
+
+    private static boolean expectStatus(List<String> failures, String call, ApiResponse response, int status) {
+        if (response.getStatusCode() == status) {
+            return true;
+        }
+        failures.add(call + " returned " + response.getStatusCode() + ": " + response.asString());
+        return false;
+    }
+}
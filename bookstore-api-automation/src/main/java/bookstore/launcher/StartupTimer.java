@@ -0,0 +1,98 @@
+package bookstore.launcher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Wall-clock time of consecutive startup phases, each measured from the end of the one
+ * before. The first phase ends when the timer is created and starts when the operating
+ * system started the process, so it covers JVM boot and class loading up to main; the
+ * kernel reports that start in clock ticks, so it is only good to about 10 ms.
+ */
+public class StartupTimer {
+
+    public static final String JVM_PHASE = "jvm";
+
+    private final List<String> phases = new ArrayList<>();
+    private final List<Long> phaseNanos = new ArrayList<>();
+    private long lastMark;
+
+    /**
+     * @param jvmNanos time already spent before the timer was created, or -1 if unknown
+     */
+    public StartupTimer(long jvmNanos) {
+        lastMark = System.nanoTime();
+        if (jvmNanos >= 0) {
+            phases.add(JVM_PHASE);
+            phaseNanos.add(jvmNanos);
+        }
+    }
+
+    /**
+     * A timer whose first phase runs from process start to now
+     */
+    public static StartupTimer sinceProcessStart() {
+        Instant now = Instant.now();
+        return new StartupTimer(ProcessHandle.current().info().startInstant()
+                .map(start -> Math.max(0, Duration.between(start, now).toNanos()))
+                .orElse(-1L));
+    }
+
+    /**
+     * End the current phase under the given name and start the next one
+     */
+    public synchronized void mark(String phase) {
+        long now = System.nanoTime();
+        phases.add(phase);
+        phaseNanos.add(now - lastMark);
+        lastMark = now;
+    }
+
+    public synchronized List<String> getPhases() {
+        return Collections.unmodifiableList(new ArrayList<>(phases));
+    }
+
+    /**
+     * Duration of a phase, or -1 if it was never marked
+     */
+    public synchronized double getMillis(String phase) {
+        int index = phases.indexOf(phase);
+        return index < 0 ? -1 : phaseNanos.get(index) / 1_000_000.0;
+    }
+
+    /**
+     * Sum of the phases up to and including the given one, or -1 if it was never marked
+     */
+    public synchronized double getMillisThrough(String phase) {
+        int index = phases.indexOf(phase);
+        if (index < 0) {
+            return -1;
+        }
+        long total = 0;
+        for (int i = 0; i <= index; i++) {
+            total += phaseNanos.get(i);
+        }
+        return total / 1_000_000.0;
+    }
+
+    public synchronized double getTotalMillis() {
+        return phases.isEmpty() ? 0 : getMillisThrough(phases.get(phases.size() - 1));
+    }
+
+    /**
+     * Print one line per phase with its share of the total
+     */
+    public synchronized void printSummary() {
+        double total = getTotalMillis();
+        System.out.println("[STARTUP] phase            |      ms |   share");
+        for (int i = 0; i < phases.size(); i++) {
+            double millis = phaseNanos.get(i) / 1_000_000.0;
+            System.out.printf("[STARTUP] %-16s | %7.1f | %6.1f%%%n", phases.get(i), millis,
+                    total == 0 ? 0 : millis * 100 / total);
+        }
+        System.out.printf("[STARTUP] %-16s | %7.1f |%n", "total", total);
+    }
+}
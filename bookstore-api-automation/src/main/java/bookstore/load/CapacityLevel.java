@@ -0,0 +1,82 @@
+package bookstore.load;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * One offered rate of a capacity search and how the API held up: a point on the
+ * throughput-vs-latency curve.
+ */
+public class CapacityLevel {
+
+    private final double offeredRate;
+    private final double achievedRate;
+    private final long requests;
+    private final long failedRequests;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    private String breach;
+
+    /**
+     * @param responseTime microseconds from intended start of the requests completed while measuring
+     */
+    CapacityLevel(double offeredRate, Histogram responseTime, long failedRequests, long elapsedNanos) {
+        this.offeredRate = offeredRate;
+        this.requests = responseTime.getTotalCount();
+        this.achievedRate = elapsedNanos == 0 ? 0 : requests * 1e9 / elapsedNanos;
+        this.failedRequests = failedRequests;
+        this.p50Millis = responseTime.getValueAtPercentile(50) / 1000.0;
+        this.p99Millis = responseTime.getValueAtPercentile(99) / 1000.0;
+        this.maxMillis = responseTime.getMaxValue() / 1000.0;
+    }
+
+    void setBreach(String breach) {
+        this.breach = breach;
+    }
+
+    public double getOfferedRate() {
+        return offeredRate;
+    }
+
+    /**
+     * Requests completed per second after warm-up, including the time to drain in-flight requests
+     */
+    public double getAchievedRate() {
+        return achievedRate;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getFailedRequests() {
+        return failedRequests;
+    }
+
+    public double getErrorRate() {
+        return requests == 0 ? 0 : (double) failedRequests / requests;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public boolean isWithinSlo() {
+        return breach == null;
+    }
+
+    /**
+     * Why the level broke the objective, or null when it met it
+     */
+    public String getBreach() {
+        return breach;
+    }
+}
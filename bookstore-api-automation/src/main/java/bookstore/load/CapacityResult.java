@@ -0,0 +1,104 @@
+package bookstore.load;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of a capacity search for one operation: every level that was offered and the
+ * highest rate that stayed within the objective.
+ */
+public class CapacityResult {
+
+    private final LoadOperation operation;
+    private final CapacitySlo slo;
+    private final List<CapacityLevel> levels = new ArrayList<>();
+
+    public CapacityResult(LoadOperation operation, CapacitySlo slo) {
+        this.operation = operation;
+        this.slo = slo;
+    }
+
+    void add(CapacityLevel level) {
+        levels.add(level);
+    }
+
+    public LoadOperation getOperation() {
+        return operation;
+    }
+
+    public CapacitySlo getSlo() {
+        return slo;
+    }
+
+    /**
+     * Levels in the order they were run
+     */
+    public List<CapacityLevel> getLevels() {
+        return Collections.unmodifiableList(levels);
+    }
+
+    /**
+     * Highest offered rate that met the objective, or 0 when none did
+     */
+    public double getMaxSustainableRate() {
+        double max = 0;
+        for (CapacityLevel level : levels) {
+            if (level.isWithinSlo()) {
+                max = Math.max(max, level.getOfferedRate());
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Print the throughput-vs-latency curve, lowest rate first
+     */
+    public void printSummary() {
+        System.out.println("=== Capacity Search Result: " + operation.getLabel() + " ===");
+        System.out.println("Objective: " + slo);
+        System.out.println(" offered rps | achieved rps |  p50 ms |  p99 ms | errors  | verdict");
+        for (CapacityLevel level : sortedByRate()) {
+            System.out.printf("%12.1f | %12.1f | %7.1f | %7.1f | %6.2f%% | %s%n", level.getOfferedRate(),
+                    level.getAchievedRate(), level.getP50Millis(), level.getP99Millis(), level.getErrorRate() * 100,
+                    level.isWithinSlo() ? "ok" : level.getBreach());
+        }
+        System.out.printf("Max sustainable rate: %.1f rps%n", getMaxSustainableRate());
+        System.out.println("=========================");
+    }
+
+    /**
+     * Write the curve as CSV, one row per level sorted by offered rate
+     */
+    public void writeReport(File directory) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            System.err.println("Could not create capacity report directory: " + directory);
+            return;
+        }
+        File file = new File(directory, operation.name().toLowerCase() + "-capacity.csv");
+        try (PrintStream out = new PrintStream(file)) {
+            out.println("# " + operation.getLabel() + ", objective " + slo + ", max sustainable rate "
+                    + getMaxSustainableRate() + " rps");
+            out.println("offered_rps,achieved_rps,requests,failed,p50_ms,p99_ms,max_ms,within_slo");
+            for (CapacityLevel level : sortedByRate()) {
+                out.printf(Locale.ROOT, "%.2f,%.2f,%d,%d,%.3f,%.3f,%.3f,%s%n", level.getOfferedRate(), level.getAchievedRate(),
+                        level.getRequests(), level.getFailedRequests(), level.getP50Millis(), level.getP99Millis(),
+                        level.getMaxMillis(), level.isWithinSlo());
+            }
+        } catch (FileNotFoundException e) {
+            System.err.println("Could not write capacity report: " + file);
+            e.printStackTrace();
+        }
+    }
+
+    private List<CapacityLevel> sortedByRate() {
+        List<CapacityLevel> sorted = new ArrayList<>(levels);
+        sorted.sort(Comparator.comparingDouble(CapacityLevel::getOfferedRate));
+        return sorted;
+    }
+}
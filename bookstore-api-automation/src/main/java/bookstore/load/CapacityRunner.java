@@ -0,0 +1,69 @@
+package bookstore.load;
+
+import bookstore.cleanup.BookReaper;
+import bookstore.config.APIConfig;
+import bookstore.config.ApiClient;
+import bookstore.stub.BookstoreStubServer;
+import bookstore.stub.StubConfig;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line entry point for capacity searches, configured via system properties:
+ * <pre>
+ * -Dcapacity.operations=POST /login,POST /books/,GET /books/{id}   operations to search, one after another
+ * -Dcapacity.mode=binary          binary (double, then bisect) or step
+ * -Dcapacity.start.rps=10         first offered rate
+ * -Dcapacity.max.rps=2000         highest rate tried
+ * -Dcapacity.step.rps=10          increment between step levels
+ * -Dcapacity.precision=0.1        binary search stops when good and bad rates are within 10%
+ * -Dcapacity.warmup.seconds=2     unmeasured start of each level
+ * -Dcapacity.level.seconds=5      measured part of each level
+ * -Dcapacity.slo.p99.ms=500       p99 response time objective, from intended start
+ * -Dcapacity.slo.error.rate=0.01  failed request objective
+ * -Dcapacity.min.rps=0            exit with 1 when an operation sustains less than this
+ * -Dload.seed.books=50            books created up front for read/update operations
+ * -Dcleanup.enabled=true          delete the books the run created before exiting (see {@link BookReaper})
+ * </pre>
+ */
+public class CapacityRunner {
+
+    public static final String REPORT_DIRECTORY = "target/capacity-reports";
+    public static final String DEFAULT_OPERATIONS = "POST /login,POST /books/,GET /books/{id}";
+
+    public static void main(String[] args) {
+        List<LoadOperation> operations = new ArrayList<>();
+        for (String label : System.getProperty("capacity.operations", DEFAULT_OPERATIONS).split(",")) {
+            operations.add(LoadOperation.fromLabel(label.trim()));
+        }
+        double minimumRate = Double.parseDouble(System.getProperty("capacity.min.rps", "0"));
+        int seedBooks = Integer.parseInt(System.getProperty("load.seed.books", "50"));
+
+        if (StubConfig.ENABLED) {
+            BookstoreStubServer.start(StubConfig.fromSystemProperties(APIConfig.DEFAULT_PORT));
+        }
+        APIConfig.printEnvironmentInfo();
+        APIConfig.enableMetrics();
+        LoadSession session = LoadSession.open(seedBooks);
+        CapacitySearch search = CapacitySearch.fromSystemProperties();
+
+        boolean sufficient = true;
+        List<CapacityResult> results = new ArrayList<>();
+        for (LoadOperation operation : operations) {
+            CapacityResult result = search.run(operation, session);
+            result.printSummary();
+            result.writeReport(new File(REPORT_DIRECTORY));
+            results.add(result);
+            sufficient &= result.getMaxSustainableRate() >= minimumRate;
+        }
+        ApiClient.printPoolStats();
+        for (CapacityResult result : results) {
+            System.out.printf("[CAPACITY] %-16s max sustainable %.1f rps%n", result.getOperation().getLabel(),
+                    result.getMaxSustainableRate());
+        }
+        BookReaper.shared().reapRun();
+        System.exit(sufficient ? 0 : 1);
+    }
+}
@@ -0,0 +1,176 @@
+package bookstore.load;
+
+import bookstore.config.APIConfig;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Finds the highest arrival rate an operation sustains within a {@link CapacitySlo}.
+ * <p>
+ * Each level is an open-loop run at a fixed rate: a warm-up period whose results are
+ * discarded, so connection setup and the backlog of the previous level settle, then a
+ * measured period. STEP raises the rate by a fixed increment until a level breaks the
+ * objective. BINARY doubles the rate until a level breaks it, then bisects between the
+ * last good and first bad rate until they are within the precision of each other. Either
+ * way a short cool-down separates levels so an overloaded server can drain.
+ * <p>
+ * Arrivals beyond the concurrency cap queue for a permit and that wait counts towards
+ * their latency.
+ */
+public class CapacitySearch {
+
+    /**
+     * How the next rate is chosen
+     */
+    public enum Mode {
+        /** Start, start + step, start + 2 * step, ... up to the first breach */
+        STEP,
+        /** Double up to the first breach, then bisect */
+        BINARY
+    }
+
+    private static final Duration COOL_DOWN = Duration.ofSeconds(2);
+
+    private final Mode mode;
+    private final CapacitySlo slo;
+    private final double startRate;
+    private final double maxRate;
+    private final double stepRate;
+    private final double precision;
+    private final Duration warmUp;
+    private final Duration levelDuration;
+    private final int maxConcurrency;
+
+    /**
+     * @param stepRate  increment between STEP levels; ignored by BINARY
+     * @param precision BINARY stops once the bad rate is within this fraction of the good one, e.g. 0.1
+     */
+    public CapacitySearch(Mode mode, CapacitySlo slo, double startRate, double maxRate, double stepRate,
+                          double precision, Duration warmUp, Duration levelDuration, int maxConcurrency) {
+        if (startRate <= 0 || maxRate < startRate) {
+            throw new IllegalArgumentException("Rates must satisfy 0 < start <= max: " + startRate + ", " + maxRate);
+        }
+        if (mode == Mode.STEP && stepRate <= 0) {
+            throw new IllegalArgumentException("Step rate must be positive: " + stepRate);
+        }
+        if (mode == Mode.BINARY && precision <= 0) {
+            throw new IllegalArgumentException("Precision must be positive: " + precision);
+        }
+        this.mode = mode;
+        this.slo = slo;
+        this.startRate = startRate;
+        this.maxRate = maxRate;
+        this.stepRate = stepRate;
+        this.precision = precision;
+        this.warmUp = warmUp;
+        this.levelDuration = levelDuration;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Search configured from system properties; see {@link CapacityRunner} for the names
+     */
+    public static CapacitySearch fromSystemProperties() {
+        return new CapacitySearch(
+                Mode.valueOf(System.getProperty("capacity.mode", "binary").toUpperCase()),
+                CapacitySlo.fromSystemProperties(),
+                Double.parseDouble(System.getProperty("capacity.start.rps", "10")),
+                Double.parseDouble(System.getProperty("capacity.max.rps", "2000")),
+                Double.parseDouble(System.getProperty("capacity.step.rps", "10")),
+                Double.parseDouble(System.getProperty("capacity.precision", "0.1")),
+                Duration.ofSeconds(Long.parseLong(System.getProperty("capacity.warmup.seconds", "2"))),
+                Duration.ofSeconds(Long.parseLong(System.getProperty("capacity.level.seconds", "5"))),
+                Integer.parseInt(System.getProperty("capacity.concurrency", String.valueOf(APIConfig.MAX_CONNECTIONS_PER_ROUTE))));
+    }
+
+    /**
+     * The same search held to a different objective
+     */
+    public CapacitySearch withSlo(CapacitySlo newSlo) {
+        return new CapacitySearch(mode, newSlo, startRate, maxRate, stepRate, precision, warmUp, levelDuration, maxConcurrency);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public CapacitySlo getSlo() {
+        return slo;
+    }
+
+    /**
+     * Run levels against the operation until the search converges
+     */
+    public CapacityResult run(LoadOperation operation, LoadSession session) {
+        System.out.println("[CAPACITY] Searching " + operation.getLabel() + " (" + mode + ") for " + slo
+                + ", rates " + startRate + ".." + maxRate + " rps");
+        CapacityResult result = new CapacityResult(operation, slo);
+        if (mode == Mode.STEP) {
+            for (double rate = startRate; rate <= maxRate; rate += stepRate) {
+                if (!measure(operation, session, rate, result).isWithinSlo()) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        double good = 0;
+        double bad = Double.POSITIVE_INFINITY;
+        double rate = startRate;
+        while (true) {
+            if (measure(operation, session, rate, result).isWithinSlo()) {
+                good = rate;
+                if (rate >= maxRate) {
+                    break;
+                }
+                rate = Double.isInfinite(bad) ? Math.min(rate * 2, maxRate) : (good + bad) / 2;
+            } else {
+                bad = rate;
+                if (good == 0 && rate <= startRate) {
+                    // Even the starting rate breaks the objective; halve towards the floor
+                    rate = rate / 2;
+                    if (rate < 1) {
+                        break;
+                    }
+                    continue;
+                }
+                rate = (good + bad) / 2;
+            }
+            if (!Double.isInfinite(bad) && good > 0 && bad - good <= precision * good) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Offer one rate for warm-up plus level duration and judge the part after warm-up
+     */
+    private CapacityLevel measure(LoadOperation operation, LoadSession session, double rate, CapacityResult result) {
+        OpenLoopLoadEngine engine = new OpenLoopLoadEngine(operation, rate, warmUp.plus(levelDuration), maxConcurrency);
+        LoadResult load = new LoadResult(operation, rate, true);
+        Thread runner = new Thread(() -> engine.run(session, load), "capacity-level");
+        runner.start();
+        try {
+            Thread.sleep(warmUp.toMillis());
+            Histogram recycled = load.getIntervalHistogram(null);
+            long failedBefore = load.getFailedRequests();
+            long measureStart = System.nanoTime();
+            runner.join();
+            Histogram measured = load.getIntervalHistogram(recycled);
+            CapacityLevel level = new CapacityLevel(rate, measured, load.getFailedRequests() - failedBefore,
+                    System.nanoTime() - measureStart);
+            level.setBreach(slo.breach(level));
+            result.add(level);
+            System.out.printf("[CAPACITY] %s at %.1f rps: achieved %.1f rps, p99 %.1f ms, errors %.2f%% -> %s%n",
+                    operation.getLabel(), rate, level.getAchievedRate(), level.getP99Millis(), level.getErrorRate() * 100,
+                    level.isWithinSlo() ? "ok" : level.getBreach());
+            Thread.sleep(COOL_DOWN.toMillis());
+            return level;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during capacity search", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package bookstore.load;
+
+/**
+ * Service level objective a capacity search holds each offered rate to: a p99 response
+ * time (from intended start) and a maximum fraction of failed requests.
+ */
+public class CapacitySlo {
+
+    private final double p99Millis;
+    private final double maxErrorRate;
+
+    public CapacitySlo(double p99Millis, double maxErrorRate) {
+        if (p99Millis <= 0) {
+            throw new IllegalArgumentException("p99 objective must be positive: " + p99Millis);
+        }
+        if (maxErrorRate < 0 || maxErrorRate > 1) {
+            throw new IllegalArgumentException("Error rate objective must be between 0 and 1: " + maxErrorRate);
+        }
+        this.p99Millis = p99Millis;
+        this.maxErrorRate = maxErrorRate;
+    }
+
+    /**
+     * -Dcapacity.slo.p99.ms=500 and -Dcapacity.slo.error.rate=0.01
+     */
+    public static CapacitySlo fromSystemProperties() {
+        return new CapacitySlo(Double.parseDouble(System.getProperty("capacity.slo.p99.ms", "500")),
+                Double.parseDouble(System.getProperty("capacity.slo.error.rate", "0.01")));
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    /**
+     * Null when the level met the objective, otherwise why it did not
+     */
+    String breach(CapacityLevel level) {
+        if (level.getRequests() == 0) {
+            return "no requests completed";
+        }
+        if (level.getErrorRate() > maxErrorRate) {
+            return String.format("error rate %.2f%% > %.2f%%", level.getErrorRate() * 100, maxErrorRate * 100);
+        }
+        if (level.getP99Millis() > p99Millis) {
+            return String.format("p99 %.1f ms > %.1f ms", level.getP99Millis(), p99Millis);
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p99 <= %.1f ms, errors <= %.2f%%", p99Millis, maxErrorRate * 100);
+    }
+}
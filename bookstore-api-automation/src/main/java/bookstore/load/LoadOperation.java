@@ -0,0 +1,148 @@
+package bookstore.load;
+
+import bookstore.cleanup.ResourceRegistry;
+import bookstore.config.BookListReader;
+import bookstore.config.BookListResult;
+import bookstore.config.BookstoreApi;
+import bookstore.config.ParsedResponse;
+import bookstore.transport.ApiResponse;
+import bookstore.utils.FakerDataUtils;
+
+/**
+ * Operations the load engine can offer at a constant arrival rate.
+ * Each maps onto the same API calls the BookstoreApiSteps flows make.
+ */
+public enum LoadOperation {
+
+    HEALTH("GET /health") {
+        @Override
+        public ApiResponse execute(LoadSession session) {
+            return BookstoreApi.shared().health();
+        }
+    },
+
+    SIGNUP("POST /signup") {
+        @Override
+        public ApiResponse execute(LoadSession session) {
+            String email = FakerDataUtils.generateRandomEmail();
+            ResourceRegistry.run().registerUser(email);
+            return BookstoreApi.shared().signup(email, FakerDataUtils.generateRandomPassword());
+        }
+    },
+
+    LOGIN("POST /login") {
+        @Override
+        public ApiResponse execute(LoadSession session) {
+            return BookstoreApi.shared().login(session.getEmail(), session.getPassword());
+        }
+    },
+
+    CREATE_BOOK("POST /books/") {
+        @Override
+        public ApiResponse execute(LoadSession session) {
+            ApiResponse response = BookstoreApi.shared().createBook(session.getAccessToken(), BookstoreApi.bookBody(
+                    FakerDataUtils.generateRandomBookTitle(), FakerDataUtils.generateRandomAuthor()));
+            if (response.getStatusCode() == 200) {
+                ResourceRegistry.run().registerBook(new ParsedResponse(response).getInt("id"));
+            }
+            return response;
+        }
+    },
+
+    GET_BOOK("GET /books/{id}") {
+        @Override
+        public ApiResponse execute(LoadSession session) {
+            return BookstoreApi.shared().getBook(session.getAccessToken(), session.nextBookId());
+        }
+    },
+
+    /**
+     * The whole catalogue, streamed and checked book by book in constant memory. A list with
+     * malformed books counts as an error.
+     */
+    LIST_BOOKS("GET /books/") {
+        @Override
+        public ApiResponse execute(LoadSession session) {
+            BookListResult result = LIST_READER.read(session.getAccessToken());
+            if (result.getInvalidBooks() > 0) {
+                throw new IllegalStateException(result.getInvalidBooks() + " malformed books, first " + result.getFirstInvalid());
+            }
+            return result.getResponse();
+        }
+    },
+
+    UPDATE_BOOK("PUT /books/{id}") {
+        @Override
+        public ApiResponse execute(LoadSession session) {
+            return BookstoreApi.shared().updateBook(session.getAccessToken(), session.nextBookId(),
+                    BookstoreApi.titleBody(FakerDataUtils.generateRandomBookTitle()));
+        }
+    },
+
+    /**
+     * The create/get/update/get/delete chain of the "Basic Load Testing Simulation" scenario,
+     * offered as one arrival. Stops at the first non-200 response and returns it; the book
+     * is registered for cleanup until its delete succeeds, so an early stop does not leak it.
+     */
+    BOOK_LIFECYCLE("book lifecycle") {
+        @Override
+        public ApiResponse execute(LoadSession session) {
+            BookstoreApi api = BookstoreApi.shared();
+            String token = session.getAccessToken();
+            ApiResponse response = api.createBook(token, BookstoreApi.bookBody(
+                    FakerDataUtils.generateRandomBookTitle(), FakerDataUtils.generateRandomAuthor()));
+            if (response.getStatusCode() != 200) {
+                return response;
+            }
+            int bookId = new ParsedResponse(response).getInt("id");
+            ResourceRegistry registry = ResourceRegistry.run();
+            registry.registerBook(bookId);
+            response = api.getBook(token, bookId);
+            if (response.getStatusCode() != 200) {
+                return response;
+            }
+            response = api.updateBook(token, bookId, BookstoreApi.titleBody(FakerDataUtils.generateRandomBookTitle()));
+            if (response.getStatusCode() != 200) {
+                return response;
+            }
+            response = api.getBook(token, bookId);
+            if (response.getStatusCode() != 200) {
+                return response;
+            }
+            response = api.deleteBook(token, bookId);
+            if (response.getStatusCode() == 200 || response.getStatusCode() == 404) {
+                registry.unregisterBook(bookId);
+            }
+            return response;
+        }
+    };
+
+    private static final BookListReader LIST_READER = new BookListReader();
+
+    private final String label;
+
+    LoadOperation(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Perform one arrival of this operation
+     */
+    public abstract ApiResponse execute(LoadSession session);
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Resolve an operation by its label ("GET /books/{id}") or enum name ("GET_BOOK")
+     */
+    public static LoadOperation fromLabel(String value) {
+        for (LoadOperation operation : values()) {
+            if (operation.label.equalsIgnoreCase(value) || operation.name().equalsIgnoreCase(value)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load operation: " + value);
+    }
+}
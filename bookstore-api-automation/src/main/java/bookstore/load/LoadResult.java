@@ -0,0 +1,193 @@
+package bookstore.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and status outcome of one open-loop run.
+ * <p>
+ * Response time is measured from each arrival's intended start, so time spent queued
+ * behind a stalled server is counted. Service time is measured from the moment the
+ * request was actually sent and is kept alongside for comparison.
+ */
+public class LoadResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadOperation operation;
+    private final double targetRate;
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final Recorder intervalRecorder;
+    private volatile long elapsedNanos;
+
+    public LoadResult(LoadOperation operation, double targetRate) {
+        this(operation, targetRate, false);
+    }
+
+    /**
+     * @param recordIntervals also record response times into a {@link Recorder} so they can be
+     *                        taken interval by interval while the run is in progress
+     */
+    public LoadResult(LoadOperation operation, double targetRate, boolean recordIntervals) {
+        this.operation = operation;
+        this.targetRate = targetRate;
+        this.intervalRecorder = recordIntervals ? new Recorder(HIGHEST_TRACKABLE_MICROS, 3) : null;
+    }
+
+    void recordResponse(int statusCode, long intendedStartNanos, long actualStartNanos, long endNanos) {
+        statusCounts.computeIfAbsent(statusCode, code -> new LongAdder()).increment();
+        record(intendedStartNanos, actualStartNanos, endNanos);
+    }
+
+    void recordError(long intendedStartNanos, long actualStartNanos, long endNanos) {
+        errors.increment();
+        record(intendedStartNanos, actualStartNanos, endNanos);
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    private void record(long intendedStartNanos, long actualStartNanos, long endNanos) {
+        long responseMicros = toMicros(endNanos - intendedStartNanos);
+        responseTime.recordValue(responseMicros);
+        serviceTime.recordValue(toMicros(endNanos - actualStartNanos));
+        if (intervalRecorder != null) {
+            intervalRecorder.recordValue(responseMicros);
+        }
+    }
+
+    /**
+     * Response times recorded since the previous call, in microseconds. Only available when
+     * the result was created with recordIntervals; pass the last returned histogram back in
+     * to reuse it.
+     */
+    public Histogram getIntervalHistogram(Histogram histogramToRecycle) {
+        if (intervalRecorder == null) {
+            throw new IllegalStateException("Interval recording was not enabled for this load result");
+        }
+        return intervalRecorder.getIntervalHistogram(histogramToRecycle);
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    public LoadOperation getOperation() {
+        return operation;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Latency from intended start, in microseconds
+     */
+    public Histogram getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Latency from actual send, in microseconds
+     */
+    public Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getTotalRequests() {
+        return responseTime.getTotalCount();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Requests that threw or returned a status outside 2xx
+     */
+    public long getFailedRequests() {
+        long failed = errors.sum();
+        for (Map.Entry<Integer, LongAdder> entry : statusCounts.entrySet()) {
+            if (entry.getKey() < 200 || entry.getKey() >= 300) {
+                failed += entry.getValue().sum();
+            }
+        }
+        return failed;
+    }
+
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    public double getAchievedRate() {
+        return elapsedNanos == 0 ? 0 : getTotalRequests() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Response-time percentile in milliseconds, e.g. 99.0 for p99
+     */
+    public double getResponseTimePercentileMillis(double percentile) {
+        return responseTime.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Print a one-block summary of the run
+     */
+    public void printSummary() {
+        System.out.println("=== Open-Loop Load Result: " + operation.getLabel() + " ===");
+        System.out.printf("Target rate: %.1f rps, achieved: %.1f rps%n", targetRate, getAchievedRate());
+        System.out.println("Requests: " + getTotalRequests() + ", failed: " + getFailedRequests() + ", errors: " + getErrorCount());
+        System.out.println("Status counts: " + getStatusCounts());
+        System.out.printf("Response time (from intended start) ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                getResponseTimePercentileMillis(50), getResponseTimePercentileMillis(90),
+                getResponseTimePercentileMillis(99), getResponseTimePercentileMillis(99.9),
+                responseTime.getMaxValue() / 1000.0);
+        System.out.printf("Service time (from actual send) ms:     p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                serviceTime.getValueAtPercentile(50) / 1000.0, serviceTime.getValueAtPercentile(90) / 1000.0,
+                serviceTime.getValueAtPercentile(99) / 1000.0, serviceTime.getValueAtPercentile(99.9) / 1000.0,
+                serviceTime.getMaxValue() / 1000.0);
+        System.out.println("=========================");
+    }
+
+    /**
+     * Write both latency distributions in HdrHistogram's .hgrm text format, scaled to milliseconds
+     */
+    public void writeReport(File directory) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            System.err.println("Could not create load report directory: " + directory);
+            return;
+        }
+        String baseName = operation.name().toLowerCase() + "-" + System.currentTimeMillis();
+        writeHistogram(new File(directory, baseName + "-response-time.hgrm"), responseTime);
+        writeHistogram(new File(directory, baseName + "-service-time.hgrm"), serviceTime);
+    }
+
+    private static void writeHistogram(File file, Histogram histogram) {
+        try (PrintStream out = new PrintStream(file)) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        } catch (FileNotFoundException e) {
+            System.err.println("Could not write load report: " + file);
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package bookstore.load;
+
+import bookstore.cleanup.BookReaper;
+import bookstore.config.APIConfig;
+import bookstore.config.ApiClient;
+import bookstore.stub.BookstoreStubServer;
+import bookstore.stub.StubConfig;
+
+import java.io.File;
+import java.time.Duration;
+
+/**
+ * Command-line entry point for open-loop load runs, configured via system properties:
+ * <pre>
+ * -Dload.operation=GET_BOOK     operation label or name (see {@link LoadOperation})
+ * -Dload.rps=100                target arrival rate
+ * -Dload.duration=30            run length in seconds
+ * -Dload.concurrency=1000       max requests in flight
+ * -Dload.seed.books=50          books created up front for read/update operations
+ * -Dstub.enabled=true           run against an in-JVM stub server (see {@link StubConfig})
+ * -Dcleanup.enabled=true        delete the books the run created before exiting (see {@link BookReaper})
+ * </pre>
+ */
+public class LoadRunner {
+
+    public static final String REPORT_DIRECTORY = "target/load-reports";
+
+    public static void main(String[] args) {
+        if (StubConfig.ENABLED) {
+            BookstoreStubServer.start(StubConfig.fromSystemProperties(APIConfig.DEFAULT_PORT));
+        }
+        System.exit(run());
+    }
+
+    /**
+     * One run as configured, against an API that is already up; returns the exit status
+     */
+    public static int run() {
+        LoadOperation operation = LoadOperation.fromLabel(System.getProperty("load.operation", "GET_BOOK"));
+        double rps = Double.parseDouble(System.getProperty("load.rps", "100"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(System.getProperty("load.duration", "30")));
+        int concurrency = Integer.parseInt(System.getProperty("load.concurrency", "1000"));
+        int seedBooks = Integer.parseInt(System.getProperty("load.seed.books", "50"));
+
+        APIConfig.printEnvironmentInfo();
+        APIConfig.enableMetrics();
+        LoadSession session = LoadSession.open(seedBooks);
+        LoadResult result = new OpenLoopLoadEngine(operation, rps, duration, concurrency).run(session);
+        result.printSummary();
+        ApiClient.printPoolStats();
+        result.writeReport(new File(REPORT_DIRECTORY));
+        BookReaper.shared().reapRun();
+        return result.getFailedRequests() == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,74 @@
+package bookstore.load;
+
+import bookstore.auth.PooledUser;
+import bookstore.auth.TokenPool;
+import bookstore.cleanup.ResourceRegistry;
+import bookstore.config.BookstoreApi;
+import bookstore.config.ParsedResponse;
+import bookstore.transport.ApiResponse;
+import bookstore.utils.FakerDataUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared state for one load run: a user borrowed from the {@link TokenPool} and a set of
+ * pre-created books that read/update arrivals cycle through. The access token is read
+ * from the pooled user on every call, so runs longer than the token lifetime pick up
+ * refreshed tokens.
+ */
+public class LoadSession {
+
+    private final PooledUser user;
+    private final int[] bookIds;
+    private final AtomicInteger bookCursor = new AtomicInteger();
+
+    private LoadSession(PooledUser user, int[] bookIds) {
+        this.user = user;
+        this.bookIds = bookIds;
+    }
+
+    /**
+     * Borrow a pooled user, then create seedBooks books owned by the run and reaped at its end
+     */
+    public static LoadSession open(int seedBooks) {
+        PooledUser user = TokenPool.shared().acquire();
+        String accessToken = user.getAccessToken();
+
+        ApiResponse response;
+        int[] bookIds = new int[seedBooks];
+        for (int i = 0; i < seedBooks; i++) {
+            response = BookstoreApi.shared().createBook(accessToken, BookstoreApi.bookBody(
+                    FakerDataUtils.generateRandomBookTitle(), FakerDataUtils.generateRandomAuthor()));
+            if (response.getStatusCode() != 200) {
+                throw new IllegalStateException("Load session book seeding failed: " + response.getStatusCode() + " " + response.asString());
+            }
+            bookIds[i] = new ParsedResponse(response).getInt("id");
+            ResourceRegistry.run().registerBook(bookIds[i]);
+        }
+
+        System.out.println("[LOAD] Session ready for " + user.getEmail() + " with " + seedBooks + " seeded books");
+        return new LoadSession(user, bookIds);
+    }
+
+    public String getEmail() {
+        return user.getEmail();
+    }
+
+    public String getPassword() {
+        return user.getPassword();
+    }
+
+    public String getAccessToken() {
+        return user.getAccessToken();
+    }
+
+    /**
+     * Round-robin over the seeded books; fails fast when the session has none
+     */
+    public int nextBookId() {
+        if (bookIds.length == 0) {
+            throw new IllegalStateException("Load session has no seeded books");
+        }
+        return bookIds[Math.floorMod(bookCursor.getAndIncrement(), bookIds.length)];
+    }
+}
@@ -0,0 +1,100 @@
+package bookstore.load;
+
+import bookstore.transport.ApiResponse;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: arrivals are scheduled at a constant rate regardless of how
+ * fast earlier requests complete. Every arrival has an intended start time on a fixed
+ * schedule and its latency is measured from that time, so a stalled server shows up as
+ * queueing delay instead of being hidden by coordinated omission.
+ * <p>
+ * Each arrival runs on its own virtual thread. Max concurrency caps the requests on the
+ * wire; arrivals beyond it wait for a permit and that wait counts towards their latency.
+ */
+public class OpenLoopLoadEngine {
+
+    private final LoadOperation operation;
+    private final double requestsPerSecond;
+    private final Duration duration;
+    private final int maxConcurrency;
+
+    public OpenLoopLoadEngine(LoadOperation operation, double requestsPerSecond, Duration duration, int maxConcurrency) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Requests per second must be positive: " + requestsPerSecond);
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+        }
+        this.operation = operation;
+        this.requestsPerSecond = requestsPerSecond;
+        this.duration = duration;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Offer the operation at the target rate for the configured duration and wait for
+     * every in-flight request to finish.
+     */
+    public LoadResult run(LoadSession session) {
+        return run(session, new LoadResult(operation, requestsPerSecond));
+    }
+
+    /**
+     * Run into a result supplied by the caller, who can read it while the run is in progress
+     */
+    public LoadResult run(LoadSession session, LoadResult result) {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        long totalArrivals = (long) (requestsPerSecond * duration.toNanos() / TimeUnit.SECONDS.toNanos(1));
+
+        System.out.println("[LOAD] Offering " + operation.getLabel() + " at " + requestsPerSecond + " rps for "
+                + duration.getSeconds() + "s (" + totalArrivals + " arrivals, max concurrency " + maxConcurrency + ")");
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        long startNanos = System.nanoTime();
+        try {
+            for (long i = 0; i < totalArrivals; i++) {
+                long intendedStart = startNanos + (long) (i * intervalNanos);
+                long waitNanos;
+                while ((waitNanos = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+                executor.execute(() -> execute(session, result, inFlight, intendedStart));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        try {
+            if (!executor.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(5), TimeUnit.MILLISECONDS)) {
+                System.err.println("[LOAD] Timed out waiting for in-flight requests; abandoning them");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        result.setElapsedNanos(System.nanoTime() - startNanos);
+        return result;
+    }
+
+    private void execute(LoadSession session, LoadResult result, Semaphore inFlight, long intendedStart) {
+        inFlight.acquireUninterruptibly();
+        long actualStart = System.nanoTime();
+        try {
+            ApiResponse response = operation.execute(session);
+            result.recordResponse(response.getStatusCode(), intendedStart, actualStart, System.nanoTime());
+        } catch (RuntimeException e) {
+            result.recordError(intendedStart, actualStart, System.nanoTime());
+        } finally {
+            inFlight.release();
+        }
+    }
+}
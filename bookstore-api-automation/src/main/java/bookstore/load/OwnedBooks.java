@@ -0,0 +1,54 @@
+package bookstore.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Book ids created by one virtual user and not yet deleted. Backed by a growable int
+ * array with swap-remove, so picking and removing a random book allocates nothing.
+ * Owned by a single virtual user thread; not thread-safe.
+ */
+public class OwnedBooks {
+
+    private int[] ids = new int[16];
+    private int size;
+
+    public void add(int bookId) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = bookId;
+    }
+
+    /**
+     * A random owned book; the user must own at least one
+     */
+    public int pick() {
+        return ids[ThreadLocalRandom.current().nextInt(size)];
+    }
+
+    /**
+     * Remove and return a random owned book; the user must own at least one
+     */
+    public int removeRandom() {
+        int index = ThreadLocalRandom.current().nextInt(size);
+        int bookId = ids[index];
+        ids[index] = ids[--size];
+        return bookId;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy of the owned ids, e.g. for cleanup after a run
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
@@ -0,0 +1,108 @@
+package bookstore.load;
+
+import bookstore.transport.Transport;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs many concurrent virtual users, one virtual thread each. Every virtual user gets
+ * its own state object from the supplied factory and runs the script against it for a
+ * fixed number of iterations. Blocking HTTP calls park the virtual thread instead of
+ * holding an OS thread, so thousands of users need only a handful of carrier threads.
+ * Thousands of users are thousands of concurrent scripts, not requests: the transport
+ * holds requests on the wire to its in-flight limit (http.pool.max.per.route, default
+ * 200) and the other users wait for a permit. The result reports both peaks.
+ */
+public class VirtualUserExecutor {
+
+    private final int users;
+    private final int iterations;
+    private final Duration rampUp;
+    private final Transport transport;
+
+    /**
+     * @param transport the engine the scripts send through, whose peak in-flight requests are reported
+     */
+    public VirtualUserExecutor(int users, int iterations, Duration rampUp, Transport transport) {
+        if (users <= 0 || iterations <= 0) {
+            throw new IllegalArgumentException("Users and iterations must be positive: " + users + ", " + iterations);
+        }
+        this.users = users;
+        this.iterations = iterations;
+        this.rampUp = rampUp;
+        this.transport = transport;
+    }
+
+    /**
+     * Start every virtual user, spreading their start times evenly over the ramp-up,
+     * and block until all of them have finished. A script that throws fails only the
+     * iteration it was running in; a user whose state cannot be created fails all of its
+     * iterations, so completed plus failed always adds up to users x iterations.
+     */
+    public <S> VirtualUserResult run(Supplier<S> stateFactory, Consumer<S> script) {
+        VirtualUserResult result = new VirtualUserResult(users, iterations);
+        long rampUpNanos = rampUp.toNanos();
+
+        System.out.println("[LOAD] Starting " + users + " virtual users x " + iterations + " iterations, ramp-up "
+                + rampUp.toMillis() + " ms");
+
+        transport.takePeakInFlight();
+        long startNanos = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                int userId = user;
+                long startDelayNanos = rampUpNanos * user / users;
+                executor.execute(() -> runUser(userId, startNanos + startDelayNanos, stateFactory, script, result));
+            }
+        }
+        result.setElapsedNanos(System.nanoTime() - startNanos);
+        result.setPeakInFlightRequests(transport.takePeakInFlight(), transport.getMaxInFlight());
+        return result;
+    }
+
+    private <S> void runUser(int userId, long startAtNanos, Supplier<S> stateFactory, Consumer<S> script,
+                             VirtualUserResult result) {
+        try {
+            long waitNanos = startAtNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                Thread.sleep(Duration.ofNanos(waitNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failAll(userId, e, result);
+            return;
+        }
+
+        result.userStarted();
+        try {
+            S state;
+            try {
+                state = stateFactory.get();
+            } catch (RuntimeException e) {
+                failAll(userId, e, result);
+                return;
+            }
+            for (int i = 0; i < iterations; i++) {
+                long iterationStart = System.nanoTime();
+                try {
+                    script.accept(state);
+                    result.recordIteration(System.nanoTime() - iterationStart);
+                } catch (RuntimeException | AssertionError e) {
+                    result.recordFailure(userId, e);
+                }
+            }
+        } finally {
+            result.userFinished();
+        }
+    }
+
+    private void failAll(int userId, Throwable cause, VirtualUserResult result) {
+        for (int i = 0; i < iterations; i++) {
+            result.recordFailure(userId, cause);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package bookstore.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a virtual-user run: per-iteration script latency, failures, the peak number
+ * of virtual users running at the same time and the peak number of their requests on the
+ * wire. Running users include those waiting for the transport's in-flight limit, so the
+ * second number is the concurrency the server actually saw.
+ */
+public class VirtualUserResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int MAX_FAILURE_SAMPLES = 10;
+
+    private final int users;
+    private final int iterationsPerUser;
+    private final Histogram iterationTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final ConcurrentLinkedQueue<String> failureSamples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger failureSampleCount = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger peakRunning = new AtomicInteger();
+    private volatile int peakInFlightRequests;
+    private volatile int maxInFlightRequests;
+    private volatile long elapsedNanos;
+
+    public VirtualUserResult(int users, int iterationsPerUser) {
+        this.users = users;
+        this.iterationsPerUser = iterationsPerUser;
+    }
+
+    void userStarted() {
+        peakRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+    }
+
+    void userFinished() {
+        running.decrementAndGet();
+    }
+
+    void recordIteration(long elapsedNanos) {
+        completed.increment();
+        iterationTime.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    void recordFailure(int user, Throwable failure) {
+        failed.increment();
+        if (failureSampleCount.getAndIncrement() < MAX_FAILURE_SAMPLES) {
+            failureSamples.add("VU " + user + ": " + failure);
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void setPeakInFlightRequests(int peak, int max) {
+        this.peakInFlightRequests = peak;
+        this.maxInFlightRequests = max;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getIterationsPerUser() {
+        return iterationsPerUser;
+    }
+
+    public long getCompletedIterations() {
+        return completed.sum();
+    }
+
+    public long getFailedIterations() {
+        return failed.sum();
+    }
+
+    /**
+     * Most virtual users started and not yet finished at once, whether sending or waiting for a permit
+     */
+    public int getPeakRunningUsers() {
+        return peakRunning.get();
+    }
+
+    /**
+     * Most requests on the wire at once; never above {@link #getMaxInFlightRequests()}
+     */
+    public int getPeakInFlightRequests() {
+        return peakInFlightRequests;
+    }
+
+    /**
+     * The transport's in-flight limit during the run
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * Script iteration latency, in microseconds
+     */
+    public Histogram getIterationTime() {
+        return iterationTime;
+    }
+
+    /**
+     * The first few failures, for assertion messages
+     */
+    public List<String> getFailureSamples() {
+        return new ArrayList<>(failureSamples);
+    }
+
+    public double getIterationsPerSecond() {
+        return elapsedNanos == 0 ? 0 : (completed.sum() + failed.sum()) * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Print a one-block summary of the run
+     */
+    public void printSummary() {
+        System.out.println("=== Virtual User Result ===");
+        System.out.println("Virtual users: " + users + " x " + iterationsPerUser + " iterations, peak running: "
+                + getPeakRunningUsers() + ", peak requests in flight: " + peakInFlightRequests + " (limit "
+                + maxInFlightRequests + ")");
+        System.out.printf("Iterations: completed=%d failed=%d (%.1f/s)%n", getCompletedIterations(), getFailedIterations(), getIterationsPerSecond());
+        System.out.printf("Iteration time ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                iterationTime.getValueAtPercentile(50) / 1000.0, iterationTime.getValueAtPercentile(90) / 1000.0,
+                iterationTime.getValueAtPercentile(99) / 1000.0, iterationTime.getMaxValue() / 1000.0);
+        for (String sample : failureSamples) {
+            System.out.println("[FAILURE] " + sample);
+        }
+        System.out.println("=========================");
+    }
+}
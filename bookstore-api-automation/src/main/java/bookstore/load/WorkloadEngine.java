@@ -0,0 +1,115 @@
+package bookstore.load;
+
+import bookstore.auth.PooledUser;
+import bookstore.auth.TokenPool;
+import bookstore.cleanup.ResourceRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs virtual users that walk a {@link WorkloadMix} for a fixed duration.
+ * <p>
+ * Each virtual user runs on its own virtual thread with a pooled user's token and its own
+ * {@link OwnedBooks}. It picks the next operation from the current one, performs it on one
+ * of its own books, then thinks for an exponentially distributed time around the
+ * operation's mean. A book operation drawn while the user owns no books becomes a create.
+ * The walk itself allocates nothing: the state is an ordinal and each transition is one
+ * random draw against precomputed cumulative weights.
+ */
+public class WorkloadEngine {
+
+    private static final int CREATE = WorkloadOperation.CREATE.ordinal();
+
+    private final WorkloadMix mix;
+    private final int users;
+    private final Duration duration;
+    private final Duration rampUp;
+
+    public WorkloadEngine(WorkloadMix mix, int users, Duration duration, Duration rampUp) {
+        if (users <= 0) {
+            throw new IllegalArgumentException("Users must be positive: " + users);
+        }
+        this.mix = mix;
+        this.users = users;
+        this.duration = duration;
+        this.rampUp = rampUp;
+    }
+
+    /**
+     * Start every virtual user, spreading their start times over the ramp-up, and block
+     * until the duration has passed and every user has finished its current operation
+     */
+    public WorkloadResult run(TokenPool pool) {
+        WorkloadResult result = new WorkloadResult(users);
+        System.out.println("[LOAD] Starting " + users + " workload virtual users for " + duration.toSeconds()
+                + "s, ramp-up " + rampUp.toMillis() + " ms");
+
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                PooledUser pooledUser = pool.acquire();
+                long startAtNanos = startNanos + rampUp.toNanos() * user / users;
+                executor.execute(() -> runUser(pooledUser, startAtNanos, endNanos, result));
+            }
+        }
+        result.setElapsedNanos(System.nanoTime() - startNanos);
+        return result;
+    }
+
+    private void runUser(PooledUser user, long startAtNanos, long endNanos, WorkloadResult result) {
+        if (!parkUntil(startAtNanos)) {
+            return;
+        }
+        OwnedBooks books = new OwnedBooks();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int operation = mix.first(random.nextDouble());
+        while (System.nanoTime() < endNanos) {
+            int performed = operation;
+            if (WorkloadOperation.at(performed).needsBook() && books.isEmpty()) {
+                performed = CREATE;
+                result.recordFallbackCreate();
+            }
+
+            long start = System.nanoTime();
+            try {
+                int status = WorkloadOperation.at(performed).execute(user.getAccessToken(), books);
+                result.record(performed, status, System.nanoTime() - start);
+            } catch (RuntimeException e) {
+                result.recordError(performed, System.nanoTime() - start);
+            }
+
+            long meanThinkNanos = mix.getThinkNanos(performed);
+            if (meanThinkNanos > 0) {
+                long thinkNanos = (long) (-meanThinkNanos * Math.log(1 - random.nextDouble()));
+                if (!parkUntil(Math.min(System.nanoTime() + thinkNanos, endNanos))) {
+                    break;
+                }
+            }
+            operation = mix.next(performed, random.nextDouble());
+        }
+        result.addOwnedBooks(books.size());
+        ResourceRegistry registry = ResourceRegistry.run();
+        for (int bookId : books.toArray()) {
+            registry.registerBook(bookId);
+        }
+    }
+
+    /**
+     * Park until the deadline; false if the thread was interrupted
+     */
+    private static boolean parkUntil(long deadlineNanos) {
+        long waitNanos;
+        while ((waitNanos = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(waitNanos);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,215 @@
+package bookstore.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weighted Markov chain over {@link WorkloadOperation}s with a think time per operation.
+ * <p>
+ * Defined as a table, either a Gherkin data table or the same pipe-separated rows in a file:
+ * <pre>
+ * | from   | get | create | update | delete | think ms |
+ * | start  | 0   | 1      | 0      | 0      | 0        |
+ * | create | 90  | 5      | 3      | 2      | 200      |
+ * | get    | 90  | 5      | 3      | 2      | 200      |
+ * </pre>
+ * Each row gives the relative weights of the next operation after the "from" operation,
+ * and the mean think time a virtual user waits after it. The optional "start" row picks
+ * the first operation; without it the first operation row is used. Operations with no row
+ * of their own continue with the start distribution. Weights are turned into cumulative
+ * arrays up front, so picking a transition is one random draw and a scan of a few doubles.
+ */
+public class WorkloadMix {
+
+    private static final int OPERATIONS = WorkloadOperation.values().length;
+    private static final int START = OPERATIONS;
+
+    /** Cumulative weights, normalised to end at 1, per from-state; row START is the start distribution */
+    private final double[][] cumulative;
+    private final long[] thinkNanos;
+
+    private WorkloadMix(double[][] cumulative, long[] thinkNanos) {
+        this.cumulative = cumulative;
+        this.thinkNanos = thinkNanos;
+    }
+
+    /**
+     * Parse a table whose first row is the header: "from", operation names, then optionally "think ms"
+     */
+    public static WorkloadMix fromTable(List<List<String>> rows) {
+        if (rows.size() < 2) {
+            throw new IllegalArgumentException("A workload table needs a header and at least one row");
+        }
+        List<String> header = rows.get(0);
+        int thinkColumn = -1;
+        WorkloadOperation[] columns = new WorkloadOperation[header.size()];
+        for (int column = 1; column < header.size(); column++) {
+            String name = header.get(column).trim();
+            if (name.equalsIgnoreCase("think ms")) {
+                thinkColumn = column;
+            } else {
+                columns[column] = WorkloadOperation.fromName(name);
+            }
+        }
+
+        double[][] weights = new double[OPERATIONS + 1][];
+        long[] thinkNanos = new long[OPERATIONS];
+        int firstRow = -1;
+        for (List<String> row : rows.subList(1, rows.size())) {
+            String from = row.get(0).trim();
+            int state = from.equalsIgnoreCase("start") ? START : WorkloadOperation.fromName(from).ordinal();
+            if (weights[state] != null) {
+                throw new IllegalArgumentException("Duplicate workload row: " + from);
+            }
+            weights[state] = new double[OPERATIONS];
+            for (int column = 1; column < row.size(); column++) {
+                String cell = row.get(column).trim();
+                if (cell.isEmpty()) {
+                    continue;
+                }
+                double value = Double.parseDouble(cell);
+                if (value < 0) {
+                    throw new IllegalArgumentException("Negative value in workload row " + from + ": " + cell);
+                }
+                if (column == thinkColumn) {
+                    if (state != START) {
+                        thinkNanos[state] = (long) (value * 1_000_000);
+                    }
+                } else if (columns[column] != null) {
+                    weights[state][columns[column].ordinal()] = value;
+                }
+            }
+            if (firstRow < 0 && state != START) {
+                firstRow = state;
+            }
+        }
+        if (weights[START] == null) {
+            if (firstRow < 0) {
+                throw new IllegalArgumentException("A workload table needs at least one operation row");
+            }
+            weights[START] = weights[firstRow];
+        }
+
+        double[][] cumulative = new double[OPERATIONS + 1][];
+        for (int state = 0; state <= OPERATIONS; state++) {
+            cumulative[state] = cumulate(weights[state] != null ? weights[state] : weights[START], state);
+        }
+        return new WorkloadMix(cumulative, thinkNanos);
+    }
+
+    /**
+     * Read the table from a file: one pipe-separated row per line, blank and # lines ignored
+     */
+    public static WorkloadMix fromFile(Path file) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (trimmed.startsWith("|")) {
+                trimmed = trimmed.substring(1);
+            }
+            if (trimmed.endsWith("|")) {
+                trimmed = trimmed.substring(0, trimmed.length() - 1);
+            }
+            List<String> cells = new ArrayList<>();
+            for (String cell : trimmed.split("\\|", -1)) {
+                cells.add(cell.trim());
+            }
+            rows.add(cells);
+        }
+        return fromTable(rows);
+    }
+
+    private static double[] cumulate(double[] weights, int state) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        if (total <= 0) {
+            String from = state == START ? "start" : WorkloadOperation.at(state).getTableName();
+            throw new IllegalArgumentException("Workload row " + from + " has no positive weight");
+        }
+        double[] cumulative = new double[weights.length];
+        double running = 0;
+        for (int i = 0; i < weights.length; i++) {
+            running += weights[i];
+            cumulative[i] = running / total;
+        }
+        cumulative[weights.length - 1] = 1.0;
+        return cumulative;
+    }
+
+    /**
+     * Ordinal of the first operation
+     *
+     * @param random uniform draw in [0, 1)
+     */
+    public int first(double random) {
+        return pick(cumulative[START], random);
+    }
+
+    /**
+     * Ordinal of the operation that follows the given one
+     *
+     * @param random uniform draw in [0, 1)
+     */
+    public int next(int operation, double random) {
+        return pick(cumulative[operation], random);
+    }
+
+    /**
+     * Mean think time after an operation
+     */
+    public long getThinkNanos(int operation) {
+        return thinkNanos[operation];
+    }
+
+    /**
+     * Long-run share of each operation, indexed by ordinal, from power iteration over the
+     * transition matrix: what a long run converges to when no virtual user runs out of books
+     */
+    public double[] stationaryShares() {
+        double[] shares = probabilities(cumulative[START]);
+        double[] average = new double[OPERATIONS];
+        int iterations = 1000;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            double[] next = new double[OPERATIONS];
+            for (int from = 0; from < OPERATIONS; from++) {
+                double[] transitions = probabilities(cumulative[from]);
+                for (int to = 0; to < OPERATIONS; to++) {
+                    next[to] += shares[from] * transitions[to];
+                }
+            }
+            shares = next;
+            // Averaging the iterates also converges for periodic chains, e.g. create -> delete -> create
+            for (int i = 0; i < OPERATIONS; i++) {
+                average[i] += shares[i] / iterations;
+            }
+        }
+        return average;
+    }
+
+    private static double[] probabilities(double[] cumulative) {
+        double[] probabilities = new double[cumulative.length];
+        double previous = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            probabilities[i] = cumulative[i] - previous;
+            previous = cumulative[i];
+        }
+        return probabilities;
+    }
+
+    private static int pick(double[] cumulative, double random) {
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (random < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+}
@@ -0,0 +1,114 @@
+package bookstore.load;
+
+import bookstore.config.BookstoreApi;
+import bookstore.config.ParsedResponse;
+import bookstore.transport.ApiResponse;
+import bookstore.utils.FakerDataUtils;
+
+/**
+ * States of a {@link WorkloadMix}: the book calls the create/get/update/delete steps of
+ * BookstoreApiSteps make, applied to the virtual user's own books instead of a single
+ * created book.
+ */
+public enum WorkloadOperation {
+
+    CREATE("create", "POST /books/", false) {
+        @Override
+        int execute(String accessToken, OwnedBooks books) {
+            ApiResponse response = BookstoreApi.shared().createBook(accessToken, BookstoreApi.bookBody(
+                    FakerDataUtils.generateRandomBookTitle(), FakerDataUtils.generateRandomAuthor()));
+            if (response.getStatusCode() == 200) {
+                books.add(new ParsedResponse(response).getInt("id"));
+            }
+            return response.getStatusCode();
+        }
+    },
+
+    GET("get", "GET /books/{id}", true) {
+        @Override
+        int execute(String accessToken, OwnedBooks books) {
+            return BookstoreApi.shared().getBook(accessToken, books.pick()).getStatusCode();
+        }
+    },
+
+    UPDATE("update", "PUT /books/{id}", true) {
+        @Override
+        int execute(String accessToken, OwnedBooks books) {
+            return BookstoreApi.shared().updateBook(accessToken, books.pick(),
+                    BookstoreApi.titleBody(FakerDataUtils.generateRandomBookTitle())).getStatusCode();
+        }
+    },
+
+    DELETE("delete", "DELETE /books/{id}", true) {
+        @Override
+        int execute(String accessToken, OwnedBooks books) {
+            int bookId = books.removeRandom();
+            int status;
+            try {
+                status = BookstoreApi.shared().deleteBook(accessToken, bookId).getStatusCode();
+            } catch (RuntimeException e) {
+                books.add(bookId);
+                throw e;
+            }
+            if (status != 200 && status != 404) {
+                // Still there: keep owning it
+                books.add(bookId);
+            }
+            return status;
+        }
+    };
+
+    private static final WorkloadOperation[] VALUES = values();
+
+    private final String tableName;
+    private final String label;
+    private final boolean needsBook;
+
+    WorkloadOperation(String tableName, String label, boolean needsBook) {
+        this.tableName = tableName;
+        this.label = label;
+        this.needsBook = needsBook;
+    }
+
+    /**
+     * Perform the operation for a virtual user and return the response status
+     */
+    abstract int execute(String accessToken, OwnedBooks books);
+
+    /**
+     * Name used in workload tables, e.g. "get"
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Endpoint label, e.g. "GET /books/{id}"
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Whether the operation acts on a book the virtual user owns
+     */
+    public boolean needsBook() {
+        return needsBook;
+    }
+
+    static WorkloadOperation at(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Resolve an operation by table name ("get") or enum name ("GET")
+     */
+    public static WorkloadOperation fromName(String value) {
+        for (WorkloadOperation operation : VALUES) {
+            if (operation.tableName.equalsIgnoreCase(value) || operation.name().equalsIgnoreCase(value)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown workload operation: " + value);
+    }
+}
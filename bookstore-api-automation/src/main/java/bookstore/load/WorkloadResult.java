@@ -0,0 +1,143 @@
+package bookstore.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation outcome of a workload-mix run: how often each operation ran, how many
+ * failed, its latency and the throughput it achieved.
+ */
+public class WorkloadResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final WorkloadOperation[] OPERATIONS = WorkloadOperation.values();
+
+    private final int users;
+    private final Histogram[] latency = new Histogram[OPERATIONS.length];
+    private final LongAdder[] failures = new LongAdder[OPERATIONS.length];
+    private final LongAdder fallbackCreates = new LongAdder();
+    private final AtomicLong ownedBooks = new AtomicLong();
+    private volatile long elapsedNanos;
+
+    public WorkloadResult(int users) {
+        this.users = users;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            latency[i] = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+            failures[i] = new LongAdder();
+        }
+    }
+
+    void record(int operation, int status, long latencyNanos) {
+        latency[operation].recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (status < 200 || status >= 300) {
+            failures[operation].increment();
+        }
+    }
+
+    void recordError(int operation, long latencyNanos) {
+        record(operation, 0, latencyNanos);
+    }
+
+    void recordFallbackCreate() {
+        fallbackCreates.increment();
+    }
+
+    void addOwnedBooks(int books) {
+        ownedBooks.addAndGet(books);
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getCount(WorkloadOperation operation) {
+        return latency[operation.ordinal()].getTotalCount();
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (Histogram histogram : latency) {
+            total += histogram.getTotalCount();
+        }
+        return total;
+    }
+
+    /**
+     * Calls that threw or returned a status outside 2xx
+     */
+    public long getFailures(WorkloadOperation operation) {
+        return failures[operation.ordinal()].sum();
+    }
+
+    public long getTotalFailures() {
+        long total = 0;
+        for (LongAdder failure : failures) {
+            total += failure.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Fraction of all calls that were this operation
+     */
+    public double getShare(WorkloadOperation operation) {
+        long total = getTotalCount();
+        return total == 0 ? 0 : (double) getCount(operation) / total;
+    }
+
+    /**
+     * Calls of this operation per second over the whole run
+     */
+    public double getThroughput(WorkloadOperation operation) {
+        return elapsedNanos == 0 ? 0 : getCount(operation) * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Latency in microseconds
+     */
+    public Histogram getLatency(WorkloadOperation operation) {
+        return latency[operation.ordinal()];
+    }
+
+    /**
+     * Book operations that became a create because the virtual user owned no books
+     */
+    public long getFallbackCreates() {
+        return fallbackCreates.sum();
+    }
+
+    /**
+     * Books the virtual users still owned when the run ended, left for the end-of-run reap
+     */
+    public long getOwnedBooks() {
+        return ownedBooks.get();
+    }
+
+    /**
+     * Print per-operation counts, share, throughput and latency
+     */
+    public void printSummary() {
+        System.out.println("=== Workload Mix Result: " + users + " virtual users, " + elapsedNanos / 1_000_000 + " ms ===");
+        System.out.println(" operation          |  calls |  share | throughput | failed |  p50 ms |  p99 ms");
+        for (WorkloadOperation operation : OPERATIONS) {
+            Histogram histogram = getLatency(operation);
+            System.out.printf(" %-18s | %6d | %5.1f%% | %6.1f rps | %6d | %7.2f | %7.2f%n", operation.getLabel(),
+                    getCount(operation), getShare(operation) * 100, getThroughput(operation), getFailures(operation),
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0);
+        }
+        System.out.println("Fallback creates: " + getFallbackCreates() + ", books still owned: " + getOwnedBooks());
+        System.out.println("=========================");
+    }
+}
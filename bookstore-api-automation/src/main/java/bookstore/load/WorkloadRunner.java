@@ -0,0 +1,44 @@
+package bookstore.load;
+
+import bookstore.auth.TokenPool;
+import bookstore.cleanup.BookReaper;
+import bookstore.config.APIConfig;
+import bookstore.config.ApiClient;
+import bookstore.stub.BookstoreStubServer;
+import bookstore.stub.StubConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Command-line entry point for workload-mix runs, configured via system properties:
+ * <pre>
+ * -Dworkload.file=workload.txt    mix table, see {@link WorkloadMix}
+ * -Dworkload.users=100            concurrent virtual users
+ * -Dworkload.duration=60          run length in seconds
+ * -Dworkload.rampup=10            seconds over which the users start
+ * -Dstub.enabled=true             run against an in-JVM stub server (see {@link StubConfig})
+ * -Dcleanup.enabled=true          delete the books the run created before exiting (see {@link BookReaper})
+ * </pre>
+ */
+public class WorkloadRunner {
+
+    public static void main(String[] args) throws IOException {
+        WorkloadMix mix = WorkloadMix.fromFile(Path.of(System.getProperty("workload.file", "workload.txt")));
+        int users = Integer.parseInt(System.getProperty("workload.users", "100"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(System.getProperty("workload.duration", "60")));
+        Duration rampUp = Duration.ofSeconds(Long.parseLong(System.getProperty("workload.rampup", "10")));
+
+        if (StubConfig.ENABLED) {
+            BookstoreStubServer.start(StubConfig.fromSystemProperties(APIConfig.DEFAULT_PORT));
+        }
+        APIConfig.printEnvironmentInfo();
+        APIConfig.enableMetrics();
+        WorkloadResult result = new WorkloadEngine(mix, users, duration, rampUp).run(TokenPool.shared());
+        result.printSummary();
+        ApiClient.printPoolStats();
+        BookReaper.shared().reapRun();
+        System.exit(result.getTotalFailures() == 0 ? 0 : 1);
+    }
+}
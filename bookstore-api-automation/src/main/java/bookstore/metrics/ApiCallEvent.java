@@ -0,0 +1,44 @@
+package bookstore.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one API call; the event's duration is the call's latency.
+ * Lined up with GC and safepoint events in the same recording, it shows whether a slow
+ * call was the server's doing or a pause in the load generator.
+ */
+@Name("bookstore.ApiCall")
+@Label("API Call")
+@Category({"Bookstore", "HTTP"})
+@Description("One Bookstore API request, from sending it until the response headers arrived")
+@StackTrace(false)
+public class ApiCallEvent extends jdk.jfr.Event {
+
+    @Label("Endpoint")
+    @Description("Method and path with numeric ids replaced, e.g. GET /books/{id}")
+    public String endpoint;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    @Description("HTTP status, or 0 when no response arrived")
+    public int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Bytes")
+    @Description("Content-Length of the response; 0 for chunked bodies")
+    @DataAmount
+    public long responseBytes;
+}
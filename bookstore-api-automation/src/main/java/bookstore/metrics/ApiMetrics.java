@@ -0,0 +1,206 @@
+package bookstore.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Run-wide request counters and latency histograms in the Prometheus text format.
+ * <p>
+ * Every value is a striped {@link LongAdder}, so the request path never contends on a
+ * shared counter and a scrape reads sums without stopping writers. Latency uses fixed
+ * Prometheus histogram buckets, which can be aggregated across load generators and lined
+ * up with server dashboards; {@link LatencyRegistry} keeps the exact percentiles. Counters
+ * and gauges owned elsewhere (connection pool, capture writer) are registered as suppliers
+ * and read at scrape time.
+ */
+public class ApiMetrics {
+
+    /** Bucket upper bounds in seconds, the Prometheus client default */
+    private static final double[] BUCKET_SECONDS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final long[] BUCKET_NANOS = new long[BUCKET_SECONDS.length];
+    private static final ApiMetrics SHARED = new ApiMetrics();
+
+    static {
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            BUCKET_NANOS[i] = (long) (BUCKET_SECONDS[i] * 1e9);
+        }
+    }
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder tokenRefreshes = new LongAdder();
+    private final LongAdder tokenRefreshFailures = new LongAdder();
+    private final List<SuppliedMetric> supplied = new CopyOnWriteArrayList<>();
+
+    public static ApiMetrics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Count one call that got a response
+     *
+     * @param endpoint label from {@link LatencyRegistry#endpointLabel}
+     */
+    public void recordCall(String endpoint, int status, long requestBytes, long responseBytes, long latencyNanos) {
+        EndpointMetrics metrics = endpoint(endpoint);
+        metrics.statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+        metrics.requestBytes.add(requestBytes);
+        metrics.responseBytes.add(responseBytes);
+        metrics.observe(latencyNanos);
+    }
+
+    /**
+     * Count one call that failed without a response, e.g. a connection timeout
+     */
+    public void recordError(String endpoint, long requestBytes, long latencyNanos) {
+        EndpointMetrics metrics = endpoint(endpoint);
+        metrics.errors.increment();
+        metrics.requestBytes.add(requestBytes);
+        metrics.observe(latencyNanos);
+    }
+
+    public void recordTokenRefresh(boolean succeeded) {
+        (succeeded ? tokenRefreshes : tokenRefreshFailures).increment();
+    }
+
+    /**
+     * Expose a monotonically increasing value kept by another component
+     */
+    public void registerCounter(String name, String help, LongSupplier value) {
+        supplied.add(new SuppliedMetric(name, help, "counter", value));
+    }
+
+    /**
+     * Expose a value that can go up and down, read when the metrics are scraped
+     */
+    public void registerGauge(String name, String help, LongSupplier value) {
+        supplied.add(new SuppliedMetric(name, help, "gauge", value));
+    }
+
+    /**
+     * Responses with the given status counted for an endpoint so far
+     */
+    public long getRequests(String endpoint, int status) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        LongAdder count = metrics == null ? null : metrics.statuses.get(status);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * All metrics in the Prometheus text exposition format, version 0.0.4
+     */
+    public String scrape() {
+        Map<String, EndpointMetrics> sorted = new TreeMap<>(endpoints);
+        StringBuilder out = new StringBuilder(4096);
+
+        header(out, "bookstore_api_requests_total", "API responses by endpoint and status", "counter");
+        for (EndpointMetrics metrics : sorted.values()) {
+            for (Map.Entry<Integer, LongAdder> status : new TreeMap<>(metrics.statuses).entrySet()) {
+                out.append("bookstore_api_requests_total{").append(metrics.labels).append(",status=\"")
+                        .append(status.getKey()).append("\"} ").append(status.getValue().sum()).append('\n');
+            }
+        }
+        endpointCounter(out, sorted, "bookstore_api_errors_total", "API calls that failed without a response", m -> m.errors);
+        endpointCounter(out, sorted, "bookstore_api_request_bytes_total", "Request body bytes sent", m -> m.requestBytes);
+        endpointCounter(out, sorted, "bookstore_api_response_bytes_total",
+                "Response body bytes received, by Content-Length", m -> m.responseBytes);
+
+        header(out, "bookstore_api_request_duration_seconds", "API call latency until the response headers arrived", "histogram");
+        for (EndpointMetrics metrics : sorted.values()) {
+            long cumulative = 0;
+            for (int i = 0; i <= BUCKET_SECONDS.length; i++) {
+                cumulative += metrics.buckets[i].sum();
+                out.append("bookstore_api_request_duration_seconds_bucket{").append(metrics.labels).append(",le=\"")
+                        .append(i < BUCKET_SECONDS.length ? Double.toString(BUCKET_SECONDS[i]) : "+Inf").append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            out.append("bookstore_api_request_duration_seconds_sum{").append(metrics.labels).append("} ")
+                    .append(metrics.sumNanos.sum() / 1e9).append('\n');
+            out.append("bookstore_api_request_duration_seconds_count{").append(metrics.labels).append("} ")
+                    .append(cumulative).append('\n');
+        }
+
+        header(out, "bookstore_token_refresh_total", "Pooled users that logged in again before their token expired", "counter");
+        out.append("bookstore_token_refresh_total{result=\"success\"} ").append(tokenRefreshes.sum()).append('\n');
+        out.append("bookstore_token_refresh_total{result=\"failure\"} ").append(tokenRefreshFailures.sum()).append('\n');
+
+        for (SuppliedMetric metric : supplied) {
+            header(out, metric.name, metric.help, metric.type);
+            out.append(metric.name).append(' ').append(metric.value.getAsLong()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private void endpointCounter(StringBuilder out, Map<String, EndpointMetrics> sorted, String name, String help,
+                                 Function<EndpointMetrics, LongAdder> counter) {
+        header(out, name, help, "counter");
+        for (EndpointMetrics metrics : sorted.values()) {
+            out.append(name).append('{').append(metrics.labels).append("} ").append(counter.apply(metrics).sum()).append('\n');
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private EndpointMetrics endpoint(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        return metrics != null ? metrics : endpoints.computeIfAbsent(endpoint, EndpointMetrics::new);
+    }
+
+    /**
+     * Escape a label value: backslash, double quote and newline
+     */
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static class EndpointMetrics {
+        final String labels;
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final LongAdder errors = new LongAdder();
+        final LongAdder requestBytes = new LongAdder();
+        final LongAdder responseBytes = new LongAdder();
+        final LongAdder[] buckets = new LongAdder[BUCKET_SECONDS.length + 1];
+        final LongAdder sumNanos = new LongAdder();
+
+        EndpointMetrics(String endpoint) {
+            int space = endpoint.indexOf(' ');
+            String method = space < 0 ? "" : endpoint.substring(0, space);
+            String path = endpoint.substring(space + 1);
+            this.labels = "method=\"" + escape(method) + "\",endpoint=\"" + escape(path) + "\"";
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void observe(long latencyNanos) {
+            int bucket = 0;
+            while (bucket < BUCKET_NANOS.length && latencyNanos > BUCKET_NANOS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            sumNanos.add(latencyNanos);
+        }
+    }
+
+    private static class SuppliedMetric {
+        final String name;
+        final String help;
+        final String type;
+        final LongSupplier value;
+
+        SuppliedMetric(String name, String help, String type, LongSupplier value) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package bookstore.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a captured exchange thrown away because the capture ring
+ * buffer was full; bursts of these mean the writer thread cannot keep up
+ */
+@Name("bookstore.CaptureDrop")
+@Label("Capture Drop")
+@Category({"Bookstore", "Capture"})
+@Description("A request/response capture dropped because the capture buffer was full")
+@StackTrace(false)
+public class CaptureDropEvent extends jdk.jfr.Event {
+
+    @Label("Buffer Capacity")
+    public int capacity;
+
+    @Label("Dropped So Far")
+    public long droppedTotal;
+}
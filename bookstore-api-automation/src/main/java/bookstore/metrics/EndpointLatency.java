@@ -0,0 +1,57 @@
+package bookstore.metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of one endpoint (e.g. "POST /books/"), one per response status.
+ * Values are in microseconds; histograms resize themselves as larger values arrive.
+ */
+public class EndpointLatency {
+
+    private final String endpoint;
+    private final Map<Integer, Histogram> byStatus = new ConcurrentHashMap<>();
+
+    EndpointLatency(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(int status, long micros) {
+        Histogram histogram = byStatus.get(status);
+        if (histogram == null) {
+            histogram = byStatus.computeIfAbsent(status, code -> new ConcurrentHistogram(3));
+        }
+        histogram.recordValue(micros);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Set<Integer> getStatuses() {
+        return new TreeSet<>(byStatus.keySet());
+    }
+
+    /**
+     * Histogram for one status, or null if that status was never returned
+     */
+    public Histogram getHistogram(int status) {
+        return byStatus.get(status);
+    }
+
+    /**
+     * All statuses merged into a new histogram
+     */
+    public Histogram getHistogram() {
+        Histogram merged = new Histogram(3);
+        for (Histogram histogram : byStatus.values()) {
+            merged.add(histogram);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,31 @@
+package bookstore.metrics;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * RestAssured filter that records each call's latency, measured with System.nanoTime(),
+ * into a {@link LatencyRegistry} under its endpoint label and response status.
+ */
+public class LatencyFilter implements Filter {
+
+    private final LatencyRegistry registry;
+
+    public LatencyFilter(LatencyRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long latencyNanos = System.nanoTime() - start;
+        registry.record(LatencyRegistry.endpointLabel(requestSpec.getMethod(), requestSpec.getDerivedPath()),
+                response.getStatusCode(), latencyNanos);
+        return response;
+    }
+}
@@ -0,0 +1,162 @@
+package bookstore.metrics;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint, per-status latency of every API call, recorded by {@link LatencyFilter}.
+ * <p>
+ * The shared registry covers the whole run. A window opened with {@link #openWindow()}
+ * receives every call recorded while it is open, which is how a scenario gets its own
+ * percentiles. Windows see all threads, so scenarios running in parallel share calls.
+ */
+public class LatencyRegistry {
+
+    private static final LatencyRegistry SHARED = new LatencyRegistry();
+
+    private final Map<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+    private final List<LatencyRegistry> windows = new CopyOnWriteArrayList<>();
+
+    public static LatencyRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Label a call the way load operations are labelled: "GET /books/{id}" for "GET /books/17"
+     */
+    public static String endpointLabel(String method, String path) {
+        StringBuilder label = new StringBuilder(method.length() + path.length() + 4).append(method).append(' ');
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end > start && isNumeric(path, start, end)) {
+                label.append("{id}");
+            } else {
+                label.append(path, start, end);
+            }
+            if (end < path.length()) {
+                label.append('/');
+            }
+            start = end + 1;
+        }
+        return label.toString();
+    }
+
+    private static boolean isNumeric(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(path.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void record(String endpoint, int status, long latencyNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+        endpoint(endpoint).record(status, micros);
+        for (LatencyRegistry window : windows) {
+            window.endpoint(endpoint).record(status, micros);
+        }
+    }
+
+    private EndpointLatency endpoint(String endpoint) {
+        EndpointLatency latency = endpoints.get(endpoint);
+        return latency != null ? latency : endpoints.computeIfAbsent(endpoint, EndpointLatency::new);
+    }
+
+    /**
+     * Start a registry that records every call from now until {@link #closeWindow} is called
+     */
+    public LatencyRegistry openWindow() {
+        LatencyRegistry window = new LatencyRegistry();
+        windows.add(window);
+        return window;
+    }
+
+    public void closeWindow(LatencyRegistry window) {
+        windows.remove(window);
+    }
+
+    /**
+     * Latency of one endpoint, or null if it was never called
+     */
+    public EndpointLatency get(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    public Set<String> getEndpoints() {
+        return new TreeSet<>(endpoints.keySet());
+    }
+
+    public boolean isEmpty() {
+        return endpoints.isEmpty();
+    }
+
+    /**
+     * Table of count and percentiles in milliseconds, one row per endpoint and status
+     */
+    public String formatSummary() {
+        StringBuilder table = new StringBuilder(String.format("%-22s %6s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "status", "count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (String endpoint : getEndpoints()) {
+            EndpointLatency latency = endpoints.get(endpoint);
+            for (int status : latency.getStatuses()) {
+                Histogram histogram = latency.getHistogram(status);
+                table.append(String.format("%-22s %6d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint, status,
+                        histogram.getTotalCount(), millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                        millis(histogram, 99.9), histogram.getMaxValue() / 1000.0));
+            }
+        }
+        return table.toString();
+    }
+
+    /**
+     * HdrHistogram percentile distribution of one endpoint in milliseconds, all statuses merged
+     */
+    public String formatDistribution(String endpoint) {
+        EndpointLatency latency = endpoints.get(endpoint);
+        if (latency == null) {
+            return "";
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(out, true, StandardCharsets.UTF_8);
+        latency.getHistogram().outputPercentileDistribution(printStream, 1000.0);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write one .hgrm file per endpoint, in milliseconds, for HdrHistogram's plotter
+     */
+    public void writeReports(File directory) {
+        directory.mkdirs();
+        for (String endpoint : getEndpoints()) {
+            String fileName = endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            File file = new File(directory, fileName);
+            try (PrintStream out = new PrintStream(file)) {
+                endpoints.get(endpoint).getHistogram().outputPercentileDistribution(out, 1000.0);
+            } catch (FileNotFoundException e) {
+                System.out.println("[LATENCY] Could not write " + file + ": " + e.getMessage());
+            }
+        }
+        System.out.println("[LATENCY] Histograms written to " + directory.getPath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,91 @@
+package bookstore.metrics;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * RestAssured filter that counts each call in {@link ApiMetrics} and emits an
+ * {@link ApiCallEvent} when Flight Recorder is recording. Response bytes come from the
+ * Content-Length header, so streamed bodies are never read here.
+ */
+public class MetricsFilter implements Filter {
+
+    private final ApiMetrics metrics;
+
+    public MetricsFilter(ApiMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        ApiCallEvent event = new ApiCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+            return response;
+        } finally {
+            // Without a response the call failed, whatever the client threw
+            record(requestSpec, event, response, System.nanoTime() - start);
+        }
+    }
+
+    private void record(FilterableRequestSpecification requestSpec, ApiCallEvent event, Response response, long nanos) {
+        String endpoint = LatencyRegistry.endpointLabel(requestSpec.getMethod(), requestSpec.getDerivedPath());
+        long requestBytes = bodyBytes(requestSpec);
+        int status = 0;
+        long responseBytes = 0;
+        if (response == null) {
+            metrics.recordError(endpoint, requestBytes, nanos);
+        } else {
+            status = response.getStatusCode();
+            responseBytes = contentLength(response.getHeader("Content-Length"));
+            metrics.recordCall(endpoint, status, requestBytes, responseBytes, nanos);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.method = requestSpec.getMethod();
+            event.path = requestSpec.getDerivedPath();
+            event.status = status;
+            event.requestBytes = requestBytes;
+            event.responseBytes = responseBytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Size of a request body: the Content-Length header when the request sets one, the
+     * length of a byte[] body, or the length of a text body as an ASCII estimate
+     */
+    private static long bodyBytes(FilterableRequestSpecification requestSpec) {
+        String header = requestSpec.getHeaders().getValue("Content-Length");
+        if (header != null) {
+            return contentLength(header);
+        }
+        Object body = requestSpec.getBody();
+        if (body instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (body instanceof CharSequence text) {
+            return text.length();
+        }
+        return 0;
+    }
+
+    private static long contentLength(String header) {
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package bookstore.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link ApiMetrics} during long runs, either as a /metrics endpoint for
+ * Prometheus to scrape or as a file rewritten every few seconds, e.g. for node_exporter's
+ * textfile collector. The file is replaced atomically and written once more on close.
+ */
+public class PrometheusExporter implements AutoCloseable {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final ApiMetrics metrics;
+    private final HttpServer server;
+    private final File file;
+    private final ScheduledExecutorService dumper;
+
+    private PrometheusExporter(ApiMetrics metrics, HttpServer server, File file, ScheduledExecutorService dumper) {
+        this.metrics = metrics;
+        this.server = server;
+        this.file = file;
+        this.dumper = dumper;
+    }
+
+    /**
+     * Serve GET /metrics on the given port; 0 picks a free port
+     */
+    public static PrometheusExporter serve(ApiMetrics metrics, int port) {
+        HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 16);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serve metrics on port " + port, e);
+        }
+        server.createContext("/metrics", exchange -> {
+            byte[] body = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        System.out.println("[METRICS] Serving Prometheus metrics on http://localhost:" + server.getAddress().getPort() + "/metrics");
+        return new PrometheusExporter(metrics, server, null, null);
+    }
+
+    /**
+     * Rewrite the file with the current metrics every periodSeconds
+     */
+    public static PrometheusExporter dumpTo(ApiMetrics metrics, File file, long periodSeconds) {
+        ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        PrometheusExporter exporter = new PrometheusExporter(metrics, null, file, dumper);
+        dumper.scheduleAtFixedRate(exporter::dump, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(exporter::close, "metrics-dump-shutdown"));
+        System.out.println("[METRICS] Writing Prometheus metrics to " + file + " every " + periodSeconds + " s");
+        return exporter;
+    }
+
+    /**
+     * Port of the /metrics endpoint, or -1 for a file exporter
+     */
+    public int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    /**
+     * Write the metrics file now
+     */
+    public synchronized void dump() {
+        File directory = file.getAbsoluteFile().getParentFile();
+        try {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Could not create " + directory);
+            }
+            File temporary = File.createTempFile("metrics-", ".tmp", directory);
+            Files.writeString(temporary.toPath(), metrics.scrape(), StandardCharsets.UTF_8);
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("[METRICS] Could not write " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (dumper != null && !dumper.isShutdown()) {
+            dumper.shutdownNow();
+            dump();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package bookstore.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a pooled user logging in again before its token expires
+ */
+@Name("bookstore.TokenRefresh")
+@Label("Token Refresh")
+@Category({"Bookstore", "Auth"})
+@Description("A token pool user re-authenticating through /login")
+@StackTrace(false)
+public class TokenRefreshEvent extends jdk.jfr.Event {
+
+    @Label("Email")
+    public String email;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    @Label("Failure")
+    @Description("Why the login failed, or null")
+    public String failure;
+}
@@ -0,0 +1,103 @@
+package bookstore.payload;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One pre-allocated body per concurrent sender, all laid out from the same
+ * {@link PayloadTemplate}. A sender patches and resends its own buffer, so the sweep
+ * allocates nothing per request.
+ */
+public class PayloadBuffers implements AutoCloseable {
+
+    /**
+     * Where the bodies live
+     */
+    public enum Kind {
+        /** Heap arrays, sent as they are */
+        HEAP,
+        /** Direct buffers, written to the socket without a copy into native memory */
+        DIRECT,
+        /** Memory-mapped temporary files, for bodies too large to keep off-heap per sender */
+        MAPPED
+    }
+
+    private final PayloadTemplate template;
+    private final Kind kind;
+    private final ByteBuffer[] buffers;
+    private final List<Path> files = new ArrayList<>();
+
+    private PayloadBuffers(PayloadTemplate template, Kind kind, int count) {
+        this.template = template;
+        this.kind = kind;
+        this.buffers = new ByteBuffer[count];
+    }
+
+    /**
+     * @param mappedDirectory where MAPPED bodies get their files; unused for the other kinds
+     */
+    public static PayloadBuffers allocate(PayloadTemplate template, Kind kind, int count, Path mappedDirectory)
+            throws IOException {
+        PayloadBuffers pool = new PayloadBuffers(template, kind, count);
+        try {
+            for (int i = 0; i < count; i++) {
+                ByteBuffer buffer = switch (kind) {
+                    case HEAP -> ByteBuffer.allocate(template.getSize());
+                    case DIRECT -> ByteBuffer.allocateDirect(template.getSize());
+                    case MAPPED -> pool.map(mappedDirectory);
+                };
+                template.writeTo(buffer);
+                pool.buffers[i] = buffer;
+            }
+        } catch (IOException | RuntimeException e) {
+            pool.close();
+            throw e;
+        }
+        return pool;
+    }
+
+    public PayloadTemplate getTemplate() {
+        return template;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * The body of one sender, spanning exactly the template's size
+     */
+    public ByteBuffer get(int sender) {
+        return buffers[sender];
+    }
+
+    /**
+     * Delete the files behind MAPPED bodies; the mappings themselves go when the buffers are collected
+     */
+    @Override
+    public void close() {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.out.println("[PAYLOAD] Could not delete " + file + ": " + e.getMessage());
+            }
+        }
+        files.clear();
+    }
+
+    private ByteBuffer map(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "payload-", ".json");
+        files.add(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, template.getSize());
+        }
+    }
+}
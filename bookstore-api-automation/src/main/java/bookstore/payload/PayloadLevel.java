@@ -0,0 +1,102 @@
+package bookstore.payload;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * One request size of a payload sweep and how the API handled it: a point on the
+ * throughput-vs-size curve.
+ */
+public class PayloadLevel {
+
+    private final int size;
+    private final PayloadBuffers.Kind kind;
+    private final long requests;
+    private final long failedRequests;
+    private final long elapsedNanos;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+    private final String firstFailure;
+
+    /**
+     * @param latency microseconds of every measured request, failed ones included
+     */
+    PayloadLevel(int size, PayloadBuffers.Kind kind, Histogram latency, long failedRequests, long elapsedNanos,
+                 String firstFailure) {
+        this.size = size;
+        this.kind = kind;
+        this.requests = latency.getTotalCount();
+        this.failedRequests = failedRequests;
+        this.elapsedNanos = elapsedNanos;
+        this.p50Millis = latency.getValueAtPercentile(50) / 1000.0;
+        this.p99Millis = latency.getValueAtPercentile(99) / 1000.0;
+        this.maxMillis = latency.getMaxValue() / 1000.0;
+        this.firstFailure = firstFailure;
+    }
+
+    /**
+     * Request body bytes
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public PayloadBuffers.Kind getKind() {
+        return kind;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getFailedRequests() {
+        return failedRequests;
+    }
+
+    public double getRequestsPerSecond() {
+        return elapsedNanos == 0 ? 0 : requests * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Request body megabytes (10^6 bytes) sent per second
+     */
+    public double getMegabytesPerSecond() {
+        return getRequestsPerSecond() * size / 1e6;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * Status or exception of the first failed request, or null when none failed
+     */
+    public String getFirstFailure() {
+        return firstFailure;
+    }
+
+    /**
+     * Size with a binary unit, e.g. "64 KB" or "1.5 MB"
+     */
+    public static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return trim(bytes / 1024.0) + " KB";
+        }
+        return trim(bytes / (1024.0 * 1024)) + " MB";
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.1f", value);
+    }
+}
@@ -0,0 +1,52 @@
+package bookstore.payload;
+
+import bookstore.auth.TokenPool;
+import bookstore.cleanup.BookReaper;
+import bookstore.config.APIConfig;
+import bookstore.config.BookstoreApi;
+import bookstore.stub.BookstoreStubServer;
+import bookstore.stub.StubConfig;
+
+import java.io.File;
+
+/**
+ * Command-line entry point for payload sweeps, configured via system properties:
+ * <pre>
+ * -Dpayload.sizes=100,1k,8k,64k,256k,1m,4m,8m   request body sizes, k and m in binary units
+ * -Dpayload.concurrency=8           senders, each updating its own book
+ * -Dpayload.bytes.per.size=256m     body bytes sent per size; sets its request count
+ * -Dpayload.min.requests=20         fewest measured requests per size
+ * -Dpayload.max.requests=2000       most measured requests per size
+ * -Dpayload.direct.threshold=64k    sizes from here are sent from direct buffers
+ * -Dpayload.mapped.threshold=4m     sizes from here are sent from memory-mapped files
+ * -Dpayload.mapped.dir=target/payload-buffers   where the mapped files go
+ * -Dapi.transport=http2             the default here, unlike the test suite: restassured copies direct
+ *                                   and mapped bodies onto the heap
+ * -Dcleanup.enabled=true            delete the sweep's books before exiting (see {@link BookReaper})
+ * </pre>
+ */
+public class PayloadRunner {
+
+    public static final String REPORT_DIRECTORY = "target/payload-reports";
+
+    public static void main(String[] args) {
+        // Must happen before APIConfig is read, so BookstoreApi is created over http2
+        if (System.getProperty("api.transport") == null) {
+            System.setProperty("api.transport", "http2");
+            System.out.println("[PAYLOAD] api.transport was not set, so the sweep uses http2 instead of the test suite's"
+                    + " restassured, which copies direct and mapped bodies");
+        }
+        if (StubConfig.ENABLED) {
+            BookstoreStubServer.start(StubConfig.fromSystemProperties(APIConfig.DEFAULT_PORT));
+        }
+        APIConfig.printEnvironmentInfo();
+        APIConfig.enableMetrics();
+
+        PayloadSweepResult result = PayloadSweep.fromSystemProperties()
+                .run(BookstoreApi.shared().getTransport(), TokenPool.shared()::nextToken);
+        result.printSummary();
+        result.writeReport(new File(REPORT_DIRECTORY));
+        BookReaper.shared().reapRun();
+        System.exit(result.getFailedRequests() == 0 ? 0 : 1);
+    }
+}
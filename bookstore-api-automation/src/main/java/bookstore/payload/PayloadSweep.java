@@ -0,0 +1,261 @@
+package bookstore.payload;
+
+import bookstore.cleanup.ResourceRegistry;
+import bookstore.config.APIConfig;
+import bookstore.config.JsonPayloads;
+import bookstore.config.ParsedResponse;
+import bookstore.transport.ApiResponse;
+import bookstore.transport.RestAssuredTransport;
+import bookstore.transport.Transport;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Measures how throughput and latency change with request size.
+ * <p>
+ * Each sender owns one book and replaces it with PUT /books/{id}, so the catalogue does not
+ * grow by megabytes per request. For every size the senders get one pre-built body each
+ * from {@link PayloadBuffers}: heap arrays for small sizes, direct buffers from the direct
+ * threshold and memory-mapped files from the mapped threshold. A request patches the title
+ * and year in place and sends the same buffer again. Each size runs a fixed byte budget,
+ * bounded by a minimum and maximum request count, after one unmeasured request per sender.
+ */
+public class PayloadSweep {
+
+    private final List<Integer> sizes;
+    private final int concurrency;
+    private final long bytesPerSize;
+    private final int minRequests;
+    private final int maxRequests;
+    private final int directThreshold;
+    private final int mappedThreshold;
+    private final Path mappedDirectory;
+
+    /**
+     * @param sizes           request body sizes in bytes, run in this order
+     * @param bytesPerSize    body bytes to send per size, which sets its request count
+     * @param directThreshold smallest size sent from a direct buffer
+     * @param mappedThreshold smallest size sent from a memory-mapped file
+     */
+    public PayloadSweep(List<Integer> sizes, int concurrency, long bytesPerSize, int minRequests, int maxRequests,
+                        int directThreshold, int mappedThreshold, Path mappedDirectory) {
+        if (sizes.isEmpty()) {
+            throw new IllegalArgumentException("No payload sizes given");
+        }
+        if (concurrency <= 0 || minRequests <= 0 || maxRequests < minRequests) {
+            throw new IllegalArgumentException("Need concurrency > 0 and 0 < min requests <= max requests: "
+                    + concurrency + ", " + minRequests + ", " + maxRequests);
+        }
+        List<Integer> floored = new ArrayList<>();
+        for (int size : sizes) {
+            if (size < PayloadTemplate.MINIMUM_SIZE) {
+                System.out.println("[PAYLOAD] " + size + " B is below the smallest valid book; sending "
+                        + PayloadTemplate.MINIMUM_SIZE + " B instead");
+            }
+            floored.add(Math.max(size, PayloadTemplate.MINIMUM_SIZE));
+        }
+        this.sizes = floored;
+        this.concurrency = concurrency;
+        this.bytesPerSize = bytesPerSize;
+        this.minRequests = minRequests;
+        this.maxRequests = maxRequests;
+        this.directThreshold = directThreshold;
+        this.mappedThreshold = mappedThreshold;
+        this.mappedDirectory = mappedDirectory;
+    }
+
+    /**
+     * Sweep configured from system properties; see {@link PayloadRunner} for the names
+     */
+    public static PayloadSweep fromSystemProperties() {
+        return new PayloadSweep(
+                parseSizes(System.getProperty("payload.sizes", "100,1k,8k,64k,256k,1m,4m,8m")),
+                Integer.parseInt(System.getProperty("payload.concurrency", "8")),
+                parseSize(System.getProperty("payload.bytes.per.size", "256m")),
+                Integer.parseInt(System.getProperty("payload.min.requests", "20")),
+                Integer.parseInt(System.getProperty("payload.max.requests", "2000")),
+                (int) parseSize(System.getProperty("payload.direct.threshold", "64k")),
+                (int) parseSize(System.getProperty("payload.mapped.threshold", "4m")),
+                Path.of(System.getProperty("payload.mapped.dir", "target/payload-buffers")));
+    }
+
+    /**
+     * Comma-separated sizes with an optional k or m suffix (binary units), e.g. "100,64k,8m"
+     */
+    public static List<Integer> parseSizes(String sizes) {
+        List<Integer> parsed = new ArrayList<>();
+        for (String size : sizes.split(",")) {
+            long bytes = parseSize(size);
+            if (bytes <= 0 || bytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Payload size out of range: " + size);
+            }
+            parsed.add((int) bytes);
+        }
+        return parsed;
+    }
+
+    /**
+     * One size such as "512", "64k" or "8m"
+     */
+    public static long parseSize(String size) {
+        String trimmed = size.trim().toLowerCase();
+        long unit = 1;
+        if (trimmed.endsWith("k")) {
+            unit = 1024;
+        } else if (trimmed.endsWith("m")) {
+            unit = 1024 * 1024;
+        }
+        if (unit > 1) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return Long.parseLong(trimmed) * unit;
+    }
+
+    /**
+     * Buffer kind a size is sent from
+     */
+    public PayloadBuffers.Kind kindOf(int size) {
+        if (size >= mappedThreshold) {
+            return PayloadBuffers.Kind.MAPPED;
+        }
+        return size >= directThreshold ? PayloadBuffers.Kind.DIRECT : PayloadBuffers.Kind.HEAP;
+    }
+
+    /**
+     * Measured requests for a size: the byte budget divided by the size, within the bounds
+     */
+    public int requestsFor(int size) {
+        return (int) Math.max(minRequests, Math.min(maxRequests, bytesPerSize / size));
+    }
+
+    /**
+     * Create one book per sender, then run every size in turn
+     */
+    public PayloadSweepResult run(Transport transport, Supplier<String> tokens) {
+        System.out.println("[PAYLOAD] Sweeping " + sizes.size() + " sizes over " + transport.getName() + " with "
+                + concurrency + " senders");
+        if (concurrency > transport.getMaxInFlight()) {
+            System.out.println("[PAYLOAD] Only " + transport.getMaxInFlight() + " of the " + concurrency
+                    + " senders can have a request in flight at once (http.pool.max.per.route); the rest wait for a permit");
+        }
+        if (transport instanceof RestAssuredTransport && sizes.stream().anyMatch(size -> size >= directThreshold)) {
+            System.out.println("[PAYLOAD] " + transport.getName() + " copies direct and mapped bodies onto the heap, so sizes from "
+                    + PayloadLevel.formatSize(directThreshold) + " are not sent zero-copy; use -Dapi.transport=http2 for that");
+        }
+        PayloadSweepResult result = new PayloadSweepResult(transport.getName(), createBooks(transport, tokens));
+        AtomicLong sequence = new AtomicLong();
+        for (int size : sizes) {
+            PayloadTemplate template = new PayloadTemplate(size);
+            try (PayloadBuffers buffers = PayloadBuffers.allocate(template, kindOf(size), concurrency, mappedDirectory)) {
+                PayloadLevel level = measure(transport, tokens, buffers, result.getBookIds(), sequence);
+                result.add(level);
+                System.out.printf("[PAYLOAD] %s (%s): %d requests, %.1f rps, %.2f MB/s, p50 %.2f ms, p99 %.2f ms, %d failed%n",
+                        PayloadLevel.formatSize(size), level.getKind(), level.getRequests(), level.getRequestsPerSecond(),
+                        level.getMegabytesPerSecond(), level.getP50Millis(), level.getP99Millis(), level.getFailedRequests());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not allocate " + PayloadLevel.formatSize(size) + " bodies", e);
+            }
+        }
+        return result;
+    }
+
+    private int[] createBooks(Transport transport, Supplier<String> tokens) {
+        int[] bookIds = new int[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            byte[] body = JsonPayloads.book(PayloadTemplate.title(i), "Payload Sweep", 1900, "")
+                    .getBytes(StandardCharsets.UTF_8);
+            ApiResponse response = transport.send("POST", APIConfig.BOOKS_ENDPOINT, tokens.get(), body);
+            if (response.getStatusCode() != 200) {
+                throw new IllegalStateException("Could not create a book for the payload sweep: "
+                        + response.getStatusCode() + " " + response.asString());
+            }
+            bookIds[i] = new ParsedResponse(response).getInt("id");
+            ResourceRegistry.run().registerBook(bookIds[i]);
+        }
+        return bookIds;
+    }
+
+    private PayloadLevel measure(Transport transport, Supplier<String> tokens, PayloadBuffers buffers, int[] bookIds,
+                                 AtomicLong sequence) {
+        LongAdder failed = new LongAdder();
+        AtomicReference<String> firstFailure = new AtomicReference<>();
+        Histogram[] latencies = new Histogram[concurrency];
+        AtomicLong remaining = new AtomicLong();
+
+        // Warm-up: one unmeasured request per sender, so connections and mappings are in place
+        remaining.set(concurrency);
+        runSenders(sender -> send(transport, tokens, buffers, bookIds, sender, sequence, remaining, null, failed, firstFailure));
+        failed.reset();
+        firstFailure.set(null);
+
+        remaining.set(requestsFor(buffers.getTemplate().getSize()));
+        long start = System.nanoTime();
+        runSenders(sender -> {
+            latencies[sender] = new Histogram(3);
+            send(transport, tokens, buffers, bookIds, sender, sequence, remaining, latencies[sender], failed, firstFailure);
+        });
+        long elapsed = System.nanoTime() - start;
+
+        Histogram latency = new Histogram(3);
+        for (Histogram sender : latencies) {
+            latency.add(sender);
+        }
+        return new PayloadLevel(buffers.getTemplate().getSize(), buffers.getKind(), latency, failed.sum(), elapsed,
+                firstFailure.get());
+    }
+
+    private void runSenders(IntConsumer task) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int sender = i;
+                executor.execute(() -> task.accept(sender));
+            }
+        }
+    }
+
+    /**
+     * Send from one sender's buffer until the level's requests are used up
+     *
+     * @param latency where to record microseconds, or null while warming up
+     */
+    private static void send(Transport transport, Supplier<String> tokens, PayloadBuffers buffers, int[] bookIds,
+                             int sender, AtomicLong sequence, AtomicLong remaining, Histogram latency, LongAdder failed,
+                             AtomicReference<String> firstFailure) {
+        ByteBuffer body = buffers.get(sender);
+        String path = APIConfig.BOOKS_ENDPOINT + bookIds[sender];
+        while (remaining.getAndDecrement() > 0) {
+            buffers.getTemplate().patch(body, sequence.getAndIncrement());
+            String failure = null;
+            long start = System.nanoTime();
+            try {
+                ApiResponse response = transport.sendBuffer("PUT", path, tokens.get(), body);
+                if (response.getStatusCode() != 200) {
+                    failure = "status " + response.getStatusCode();
+                }
+            } catch (UncheckedIOException e) {
+                failure = e.toString();
+            }
+            if (latency != null) {
+                latency.recordValue(Math.max(1, (System.nanoTime() - start) / 1000));
+            }
+            if (failure != null) {
+                failed.increment();
+                firstFailure.compareAndSet(null, failure);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package bookstore.payload;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of a payload sweep: one level per request size, smallest first, and the books
+ * the senders updated.
+ */
+public class PayloadSweepResult {
+
+    private final String transport;
+    private final int[] bookIds;
+    private final List<PayloadLevel> levels = new ArrayList<>();
+
+    PayloadSweepResult(String transport, int[] bookIds) {
+        this.transport = transport;
+        this.bookIds = bookIds;
+    }
+
+    void add(PayloadLevel level) {
+        levels.add(level);
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    /**
+     * One book per sender, holding the last body that sender sent
+     */
+    public int[] getBookIds() {
+        return bookIds.clone();
+    }
+
+    /**
+     * Levels in the order they were run
+     */
+    public List<PayloadLevel> getLevels() {
+        return Collections.unmodifiableList(levels);
+    }
+
+    /**
+     * The level of one request size, or null if the sweep did not include it
+     */
+    public PayloadLevel getLevel(int size) {
+        for (PayloadLevel level : levels) {
+            if (level.getSize() == size) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    public long getFailedRequests() {
+        long failed = 0;
+        for (PayloadLevel level : levels) {
+            failed += level.getFailedRequests();
+        }
+        return failed;
+    }
+
+    /**
+     * Print the throughput and latency against request size
+     */
+    public void printSummary() {
+        System.out.println("=== Payload Sweep Result (" + transport + ") ===");
+        System.out.println("      size | buffer | requests | failed |     rps |     MB/s |  p50 ms |  p99 ms |  max ms");
+        for (PayloadLevel level : levels) {
+            System.out.printf("%10s | %-6s | %8d | %6d | %7.1f | %8.2f | %7.2f | %7.2f | %7.2f%n",
+                    PayloadLevel.formatSize(level.getSize()), level.getKind(), level.getRequests(),
+                    level.getFailedRequests(), level.getRequestsPerSecond(), level.getMegabytesPerSecond(),
+                    level.getP50Millis(), level.getP99Millis(), level.getMaxMillis());
+            if (level.getFirstFailure() != null) {
+                System.out.println("           first failure: " + level.getFirstFailure());
+            }
+        }
+        System.out.println("=========================");
+    }
+
+    /**
+     * Write the curve as CSV, one row per request size
+     */
+    public void writeReport(File directory) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            System.err.println("Could not create payload report directory: " + directory);
+            return;
+        }
+        File file = new File(directory, "payload-sweep-" + transport + ".csv");
+        try (PrintStream out = new PrintStream(file)) {
+            out.println("size_bytes,buffer,requests,failed,rps,mb_per_s,p50_ms,p99_ms,max_ms");
+            for (PayloadLevel level : levels) {
+                out.printf(Locale.ROOT, "%d,%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f%n", level.getSize(), level.getKind(),
+                        level.getRequests(), level.getFailedRequests(), level.getRequestsPerSecond(),
+                        level.getMegabytesPerSecond(), level.getP50Millis(), level.getP99Millis(), level.getMaxMillis());
+            }
+        } catch (FileNotFoundException e) {
+            System.err.println("Could not write payload report: " + file);
+            e.printStackTrace();
+        }
+    }
+}
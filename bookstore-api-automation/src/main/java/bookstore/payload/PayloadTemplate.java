@@ -0,0 +1,92 @@
+package bookstore.payload;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A valid POST/PUT /books/ body of an exact size, laid out once so that a request only
+ * rewrites two fixed-width fields in place: a 10-digit sequence number in the title and
+ * the published year. The summary is padded with plain ASCII text to reach the size, so
+ * nothing needs escaping and the JSON stays valid whatever is patched.
+ * <pre>
+ * {"name":"Payload 0000000042","author":"Payload Sweep","published_year":1942,"book_summary":"..."}
+ * </pre>
+ */
+public class PayloadTemplate {
+
+    public static final String TITLE_PREFIX = "Payload ";
+
+    private static final int SEQUENCE_DIGITS = 10;
+    private static final byte[] HEAD = ("{\"name\":\"" + TITLE_PREFIX).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MIDDLE = "\",\"author\":\"Payload Sweep\",\"published_year\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SUMMARY = ",\"book_summary\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TAIL = "\"}".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FILLER = "The quick brown fox jumps over the lazy dog. ".getBytes(StandardCharsets.US_ASCII);
+    private static final int SEQUENCE_OFFSET = HEAD.length;
+    private static final int YEAR_OFFSET = SEQUENCE_OFFSET + SEQUENCE_DIGITS + MIDDLE.length;
+    private static final int SUMMARY_OFFSET = YEAR_OFFSET + 4 + SUMMARY.length;
+
+    /**
+     * Size of a body with an empty summary; nothing smaller is a valid book
+     */
+    public static final int MINIMUM_SIZE = SUMMARY_OFFSET + TAIL.length;
+
+    private final int size;
+
+    /**
+     * @param size body bytes; raised to {@link #MINIMUM_SIZE} if smaller
+     */
+    public PayloadTemplate(int size) {
+        this.size = Math.max(size, MINIMUM_SIZE);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Characters of padding in book_summary
+     */
+    public int getSummaryLength() {
+        return size - MINIMUM_SIZE;
+    }
+
+    /**
+     * Title of the body patched with this sequence number
+     */
+    public static String title(long sequence) {
+        return TITLE_PREFIX + String.format("%0" + SEQUENCE_DIGITS + "d", sequence % 10_000_000_000L);
+    }
+
+    /**
+     * Lay the whole body out from index 0 of a buffer of at least {@link #getSize()} bytes,
+     * with sequence 0; the buffer's position and limit are left alone
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.put(0, HEAD);
+        patch(buffer, 0);
+        buffer.put(SEQUENCE_OFFSET + SEQUENCE_DIGITS, MIDDLE);
+        buffer.put(YEAR_OFFSET + 4, SUMMARY);
+        int end = SUMMARY_OFFSET + getSummaryLength();
+        for (int i = SUMMARY_OFFSET; i < end; i += FILLER.length) {
+            buffer.put(i, FILLER, 0, Math.min(FILLER.length, end - i));
+        }
+        buffer.put(end, TAIL);
+    }
+
+    /**
+     * Rewrite the title's sequence number and the year in a buffer laid out by {@link #writeTo}
+     */
+    public void patch(ByteBuffer buffer, long sequence) {
+        long digits = sequence % 10_000_000_000L;
+        for (int i = SEQUENCE_OFFSET + SEQUENCE_DIGITS - 1; i >= SEQUENCE_OFFSET; i--) {
+            buffer.put(i, (byte) ('0' + digits % 10));
+            digits /= 10;
+        }
+        int year = 1900 + (int) (sequence % 125);
+        for (int i = YEAR_OFFSET + 3; i >= YEAR_OFFSET; i--) {
+            buffer.put(i, (byte) ('0' + year % 10));
+            year /= 10;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package bookstore.replay;
+
+import bookstore.capture.CaptureEvent;
+import bookstore.capture.CaptureReader;
+import bookstore.transport.ApiResponse;
+import bookstore.transport.Transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a capture against the configured target on the recorded schedule.
+ * <p>
+ * Each exchange is sent at its recorded offset from the first one, divided by the speed
+ * factor, so 10.0 plays ten minutes of production traffic in one minute with the same
+ * bursts and gaps. The capture is streamed through {@link CaptureReader} on the calling
+ * thread and each request runs on its own virtual thread; like the open-loop engine,
+ * latency is measured from the intended start. At most maxConcurrency requests are in
+ * flight at once.
+ * <p>
+ * Each recorded client sent its requests one after another, so sped-up replay keeps them
+ * in order: a request whose predecessor from the same client (see
+ * {@link ReplayMapper#client}) is still in flight waits for it, and that wait counts
+ * towards its latency. Different clients overlap freely.
+ * <p>
+ * Capture timestamps are taken when a request starts but lines are written when it
+ * completes, so the file is only roughly in start order. Events are held in a window of
+ * recorded time and released in start order; one that starts more than the window before
+ * an event already sent is sent at once and counted in
+ * {@link ReplayResult#getOutOfOrderRequests}.
+ * <p>
+ * Requests go through the {@link Transport} the engine was created with. They are replayed
+ * without response validation; requests without a body are streamed and their responses
+ * discarded unread, and only login and book creation responses are read, to remap
+ * identities through the {@link ReplayMapper}.
+ */
+public class ReplayEngine {
+
+    public static final long DEFAULT_REORDER_WINDOW_MILLIS = 10_000;
+
+    private final Transport transport;
+    private final double speed;
+    private final int maxConcurrency;
+    private final long reorderWindowMillis;
+
+    public ReplayEngine(Transport transport, double speed, int maxConcurrency) {
+        this(transport, speed, maxConcurrency, DEFAULT_REORDER_WINDOW_MILLIS);
+    }
+
+    /**
+     * @param reorderWindowMillis how far a request's recorded start may lag the latest one
+     *                            read so far and still be replayed in start order
+     */
+    public ReplayEngine(Transport transport, double speed, int maxConcurrency, long reorderWindowMillis) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+        }
+        if (reorderWindowMillis < 0) {
+            throw new IllegalArgumentException("Reorder window must not be negative: " + reorderWindowMillis);
+        }
+        this.transport = transport;
+        this.speed = speed;
+        this.maxConcurrency = maxConcurrency;
+        this.reorderWindowMillis = reorderWindowMillis;
+    }
+
+    /**
+     * Replay every exchange in the capture and wait for all of them to finish
+     */
+    public ReplayResult replay(Path capture, ReplayMapper mapper) {
+        ReplayResult result = new ReplayResult(speed);
+        Schedule schedule = new Schedule(mapper, result);
+        long malformed;
+
+        try (CaptureReader reader = new CaptureReader(capture)) {
+            System.out.println("[REPLAY] Replaying " + capture + " (" + reader.getSize() / 1024 + " KB) at " + speed
+                    + "x, max concurrency " + maxConcurrency + ", reorder window " + reorderWindowMillis + " ms");
+            PriorityQueue<Buffered> window = new PriorityQueue<>();
+            long newestTimestamp = Long.MIN_VALUE;
+            long sequence = 0;
+            CaptureEvent event;
+            while ((event = reader.next()) != null) {
+                // Register pending identities as soon as they are read, before anything that depends on them runs
+                mapper.expect(event);
+                window.add(new Buffered(event, sequence++));
+                newestTimestamp = Math.max(newestTimestamp, event.getTimestampMillis());
+                while (!window.isEmpty() && window.peek().event.getTimestampMillis() <= newestTimestamp - reorderWindowMillis) {
+                    schedule.add(window.poll().event);
+                }
+            }
+            while (!window.isEmpty()) {
+                schedule.add(window.poll().event);
+            }
+            malformed = reader.getMalformedLines();
+        } catch (IOException e) {
+            schedule.executor.shutdownNow();
+            throw new UncheckedIOException("Could not read capture " + capture, e);
+        } finally {
+            schedule.executor.shutdown();
+        }
+
+        try {
+            if (!schedule.executor.awaitTermination(5, TimeUnit.MINUTES)) {
+                System.err.println("[REPLAY] Timed out waiting for in-flight requests; abandoning them");
+                schedule.executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            schedule.executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (schedule.outOfOrder > 0) {
+            System.out.println("[REPLAY] " + schedule.outOfOrder + " requests started more than " + reorderWindowMillis
+                    + " ms before one already replayed; they were sent at once");
+        }
+        result.finish(schedule.firstTimestamp < 0 ? 0 : schedule.lastTimestamp - schedule.firstTimestamp,
+                System.nanoTime() - schedule.startNanos, malformed, schedule.outOfOrder);
+        return result;
+    }
+
+    /**
+     * A capture event with its position in the file, which breaks ties between equal timestamps
+     */
+    private record Buffered(CaptureEvent event, long sequence) implements Comparable<Buffered> {
+
+        @Override
+        public int compareTo(Buffered other) {
+            int byTimestamp = Long.compare(event.getTimestampMillis(), other.event.getTimestampMillis());
+            return byTimestamp != 0 ? byTimestamp : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Sends events at their offsets on the scaled recorded schedule, in the order they are added
+     */
+    private final class Schedule {
+
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final Semaphore inFlight = new Semaphore(maxConcurrency);
+        private final Map<String, CompletableFuture<Void>> clients = new ConcurrentHashMap<>();
+        private final ReplayMapper mapper;
+        private final ReplayResult result;
+        private long startNanos = System.nanoTime();
+        private long firstTimestamp = -1;
+        private long lastTimestamp = -1;
+        private long outOfOrder;
+
+        Schedule(ReplayMapper mapper, ReplayResult result) {
+            this.mapper = mapper;
+            this.result = result;
+        }
+
+        /**
+         * Wait for the event's intended start and send it; an event recorded earlier than
+         * one already sent is clamped to that one's offset and counted as out of order
+         */
+        void add(CaptureEvent event) {
+            if (firstTimestamp < 0) {
+                firstTimestamp = event.getTimestampMillis();
+                lastTimestamp = firstTimestamp;
+                startNanos = System.nanoTime();
+            }
+            if (event.getTimestampMillis() < lastTimestamp) {
+                outOfOrder++;
+            }
+            lastTimestamp = Math.max(lastTimestamp, event.getTimestampMillis());
+            long offsetNanos = TimeUnit.MILLISECONDS.toNanos(lastTimestamp - firstTimestamp);
+            long intendedStart = startNanos + (long) (offsetNanos / speed);
+            long waitNanos;
+            while ((waitNanos = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            String client = mapper.client(event);
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            CompletableFuture<Void> previous = client == null ? null : clients.put(client, done);
+            executor.execute(() -> {
+                try {
+                    if (previous != null) {
+                        previous.join();
+                    }
+                    execute(event, mapper, result, inFlight, intendedStart);
+                } finally {
+                    done.complete(null);
+                    if (client != null) {
+                        clients.remove(client, done);
+                    }
+                }
+            });
+        }
+    }
+
+    private void execute(CaptureEvent event, ReplayMapper mapper, ReplayResult result, Semaphore inFlight, long intendedStart) {
+        // Resolve identities first: waiting on a replayed login or create must not hold a connection permit
+        String token = mapper.token(event.getSession());
+        String path = mapper.path(event.getPath());
+        String body = mapper.body(event);
+
+        inFlight.acquireUninterruptibly();
+        long actualStart = System.nanoTime();
+        ApiResponse response = null;
+        try {
+            if (body != null || "POST".equals(event.getMethod())) {
+                response = transport.send(event.getMethod(), path, token,
+                        body == null ? null : body.getBytes(StandardCharsets.UTF_8));
+            } else {
+                response = transport.stream(event.getMethod(), path, token);
+                discard(response);
+            }
+            result.recordResponse(event.getStatus(), response.getStatusCode(), intendedStart, actualStart, System.nanoTime());
+        } catch (IOException | UncheckedIOException e) {
+            response = null;
+            result.recordError(intendedStart, actualStart, System.nanoTime());
+        } finally {
+            inFlight.release();
+            mapper.complete(event, response);
+        }
+    }
+
+    /**
+     * Read and drop the body so the connection goes back to the pool
+     */
+    private static void discard(ApiResponse response) throws IOException {
+        try (InputStream body = response.asInputStream()) {
+            if (body != null) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package bookstore.replay;
+
+import bookstore.auth.PooledUser;
+import bookstore.auth.TokenPool;
+import bookstore.capture.CaptureEvent;
+import bookstore.cleanup.ResourceRegistry;
+import bookstore.config.APIConfig;
+import bookstore.load.LoadSession;
+import bookstore.transport.ApiResponse;
+import bookstore.utils.FakerDataUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rewrites recorded identities into ones that are valid for the replay target.
+ * <p>
+ * Recorded sessions, emails and book ids belong to the recording run: the tokens have
+ * expired, the emails are already registered and the books may be gone. The capture is
+ * scanned in order, so when a POST /login or POST /books/ is read its recorded response
+ * says which session or book id later requests will use. {@link #expect} registers a
+ * pending value for it, the replayed response completes it, and requests that depend on
+ * it wait until then, which keeps causality even when the capture is sped up.
+ * <p>
+ * Sessions never seen logging in get a user from the {@link TokenPool}; book ids never
+ * seen being created map to books seeded for the replay, or stay as recorded when none
+ * were seeded.
+ */
+public class ReplayMapper {
+
+    private static final Duration DEPENDENCY_TIMEOUT = Duration.ofSeconds(30);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final TokenPool pool;
+    private final LoadSession seededBooks;
+    private final Map<String, CompletableFuture<String>> loginSessions = new ConcurrentHashMap<>();
+    private final Map<String, PooledUser> pooledSessions = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Long>> createdBooks = new ConcurrentHashMap<>();
+    private final Map<Long, Long> fallbackBooks = new ConcurrentHashMap<>();
+    private final Map<String, String> emails = new ConcurrentHashMap<>();
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+
+    /**
+     * @param seededBooks books to stand in for ids the capture never created, or null to keep those ids
+     */
+    public ReplayMapper(TokenPool pool, LoadSession seededBooks) {
+        this.pool = pool;
+        this.seededBooks = seededBooks;
+    }
+
+    /**
+     * Register the identity a recorded exchange created. Called in capture order, before the
+     * exchange or anything after it is dispatched.
+     */
+    public void expect(CaptureEvent event) {
+        if (event.getStatus() != 200 || event.getResponseBody() == null || !"POST".equals(event.getMethod())) {
+            return;
+        }
+        if (APIConfig.LOGIN_ENDPOINT.equals(event.getPath())) {
+            // The capture holds the session key of the token instead of the token
+            String session = field(event.getResponseBody(), "access_token");
+            if (session != null) {
+                loginSessions.putIfAbsent(session, new CompletableFuture<>());
+            }
+        } else if (APIConfig.BOOKS_ENDPOINT.equals(event.getPath())) {
+            String id = field(event.getResponseBody(), "id");
+            if (id != null) {
+                createdBooks.putIfAbsent(Long.parseLong(id), new CompletableFuture<>());
+            }
+        }
+    }
+
+    /**
+     * Record what the replayed exchange created, releasing requests waiting on it
+     *
+     * @param response the replayed response, or null when the request failed without one
+     */
+    public void complete(CaptureEvent event, ApiResponse response) {
+        if (!"POST".equals(event.getMethod()) || event.getResponseBody() == null) {
+            return;
+        }
+        boolean created = response != null && response.getStatusCode() == 200;
+        if (APIConfig.LOGIN_ENDPOINT.equals(event.getPath())) {
+            String session = field(event.getResponseBody(), "access_token");
+            CompletableFuture<String> pending = session == null ? null : loginSessions.get(session);
+            if (pending != null) {
+                String token = created ? field(response.asString(), "access_token") : null;
+                if (token != null) {
+                    pending.complete(token);
+                } else {
+                    pending.completeExceptionally(new IllegalStateException("Replayed login failed"));
+                }
+            }
+        } else if (APIConfig.BOOKS_ENDPOINT.equals(event.getPath())) {
+            String recorded = field(event.getResponseBody(), "id");
+            CompletableFuture<Long> pending = recorded == null ? null : createdBooks.get(Long.parseLong(recorded));
+            if (pending != null) {
+                String id = created ? field(response.asString(), "id") : null;
+                if (id != null) {
+                    // Replayed deletes usually remove it again; the reaper treats a 404 as done
+                    ResourceRegistry.run().registerBook(Integer.parseInt(id));
+                    pending.complete(Long.parseLong(id));
+                } else {
+                    pending.completeExceptionally(new IllegalStateException("Replayed book creation failed"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Access token to send for a recorded session, or null for an unauthenticated request
+     */
+    public String token(String session) {
+        if (session == null) {
+            return null;
+        }
+        CompletableFuture<String> login = loginSessions.get(session);
+        if (login != null) {
+            String token = await(login);
+            if (token != null) {
+                return token;
+            }
+        }
+        return pooledSessions.computeIfAbsent(session, recorded -> pool.acquire()).getAccessToken();
+    }
+
+    /**
+     * Recorded path with its book id, if any, replaced by the replay's id for that book
+     */
+    public String path(String recordedPath) {
+        if (!recordedPath.startsWith(APIConfig.BOOKS_ENDPOINT) || recordedPath.length() == APIConfig.BOOKS_ENDPOINT.length()) {
+            return recordedPath;
+        }
+        long recordedId;
+        try {
+            recordedId = Long.parseLong(recordedPath.substring(APIConfig.BOOKS_ENDPOINT.length()));
+        } catch (NumberFormatException e) {
+            return recordedPath;
+        }
+        CompletableFuture<Long> created = createdBooks.get(recordedId);
+        Long id = created == null ? null : await(created);
+        if (id == null && seededBooks != null) {
+            id = fallbackBooks.computeIfAbsent(recordedId, recorded -> (long) seededBooks.nextBookId());
+        }
+        return id == null ? recordedPath : APIConfig.BOOKS_ENDPOINT + id;
+    }
+
+    /**
+     * Recorded request body with signup and login emails replaced by fresh ones, so
+     * recorded signups do not collide with users that already exist, and the redacted
+     * password replaced by one fresh password per recorded email
+     */
+    public String body(CaptureEvent event) {
+        String body = event.getRequestBody();
+        if (body == null || !"POST".equals(event.getMethod())
+                || !(APIConfig.SIGNUP_ENDPOINT.equals(event.getPath()) || APIConfig.LOGIN_ENDPOINT.equals(event.getPath()))) {
+            return body;
+        }
+        try {
+            JsonNode json = MAPPER.readTree(body);
+            if (json instanceof ObjectNode credentials && credentials.hasNonNull("email")) {
+                String email = credentials.get("email").asText();
+                if (credentials.has("password")) {
+                    credentials.put("password", passwords.computeIfAbsent(email,
+                            recorded -> FakerDataUtils.generateRandomPassword()));
+                }
+                credentials.put("email", emails.computeIfAbsent(email, recorded -> {
+                    String fresh = FakerDataUtils.generateRandomEmail();
+                    ResourceRegistry.run().registerUser(fresh);
+                    return fresh;
+                }));
+                return MAPPER.writeValueAsString(credentials);
+            }
+        } catch (Exception e) {
+            // Not JSON: replay the body as recorded
+        }
+        return body;
+    }
+
+    /**
+     * Key of the recorded client an exchange belongs to: its session, or for the
+     * unauthenticated signup and login calls the email they are for. Null when the exchange
+     * does not belong to any client, e.g. GET /health.
+     */
+    public String client(CaptureEvent event) {
+        if (event.getSession() != null) {
+            return event.getSession();
+        }
+        if (event.getRequestBody() != null
+                && (APIConfig.SIGNUP_ENDPOINT.equals(event.getPath()) || APIConfig.LOGIN_ENDPOINT.equals(event.getPath()))) {
+            String email = field(event.getRequestBody(), "email");
+            return email == null ? null : "email:" + email;
+        }
+        return null;
+    }
+
+    private static <T> T await(CompletableFuture<T> pending) {
+        try {
+            return pending.get(DEPENDENCY_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String field(String json, String name) {
+        try {
+            JsonNode value = MAPPER.readTree(json).get(name);
+            return value == null || value.isNull() ? null : value.asText();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
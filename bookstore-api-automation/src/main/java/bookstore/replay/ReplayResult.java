@@ -0,0 +1,189 @@
+package bookstore.replay;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of replaying a capture: latency, replayed statuses and how closely the replay
+ * kept the recorded schedule.
+ * <p>
+ * As in {@link bookstore.load.LoadResult}, response time is measured from each request's
+ * intended start on the (scaled) recorded schedule, so a slow target shows up as queueing
+ * rather than as a quietly stretched replay. A status mismatch is a replayed response
+ * whose status differs from the recorded one.
+ */
+public class ReplayResult {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final double speed;
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder mismatches = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicLong maxStartLagNanos = new AtomicLong();
+    private volatile long recordedSpanMillis;
+    private volatile long elapsedNanos;
+    private volatile long malformedLines;
+    private volatile long outOfOrderRequests;
+
+    public ReplayResult(double speed) {
+        this.speed = speed;
+    }
+
+    void recordResponse(int recordedStatus, int status, long intendedStartNanos, long actualStartNanos, long endNanos) {
+        statusCounts.computeIfAbsent(status, code -> new LongAdder()).increment();
+        if (status != recordedStatus) {
+            mismatches.increment();
+        }
+        record(intendedStartNanos, actualStartNanos, endNanos);
+    }
+
+    void recordError(long intendedStartNanos, long actualStartNanos, long endNanos) {
+        errors.increment();
+        mismatches.increment();
+        record(intendedStartNanos, actualStartNanos, endNanos);
+    }
+
+    private void record(long intendedStartNanos, long actualStartNanos, long endNanos) {
+        responseTime.recordValue(toMicros(endNanos - intendedStartNanos));
+        serviceTime.recordValue(toMicros(endNanos - actualStartNanos));
+        maxStartLagNanos.accumulateAndGet(actualStartNanos - intendedStartNanos, Math::max);
+    }
+
+    void finish(long recordedSpanMillis, long elapsedNanos, long malformedLines, long outOfOrderRequests) {
+        this.recordedSpanMillis = recordedSpanMillis;
+        this.elapsedNanos = elapsedNanos;
+        this.malformedLines = malformedLines;
+        this.outOfOrderRequests = outOfOrderRequests;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public long getTotalRequests() {
+        return responseTime.getTotalCount();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Replayed requests whose status differed from the recorded one, including errors
+     */
+    public long getStatusMismatches() {
+        return mismatches.sum();
+    }
+
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Latest a request was sent after its intended start, in milliseconds
+     */
+    public double getMaxStartLagMillis() {
+        return maxStartLagNanos.get() / 1e6;
+    }
+
+    /**
+     * Time between the first and last recorded request
+     */
+    public long getRecordedSpanMillis() {
+        return recordedSpanMillis;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getMalformedLines() {
+        return malformedLines;
+    }
+
+    /**
+     * Requests recorded as starting before one already replayed, beyond the reorder
+     * window, and sent at once instead of at their recorded offset
+     */
+    public long getOutOfOrderRequests() {
+        return outOfOrderRequests;
+    }
+
+    /**
+     * Latency from intended start, in microseconds
+     */
+    public Histogram getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Response-time percentile in milliseconds, e.g. 99.0 for p99
+     */
+    public double getResponseTimePercentileMillis(double percentile) {
+        return responseTime.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Print a one-block summary of the replay
+     */
+    public void printSummary() {
+        System.out.println("=== Capture Replay Result (" + speed + "x) ===");
+        System.out.printf("Recorded span: %.1f s, replayed in %.1f s (target %.1f s)%n", recordedSpanMillis / 1000.0,
+                elapsedNanos / 1e9, recordedSpanMillis / 1000.0 / speed);
+        System.out.println("Requests: " + getTotalRequests() + ", status mismatches: " + getStatusMismatches()
+                + ", errors: " + getErrorCount() + ", malformed capture lines: " + malformedLines
+                + ", out of order: " + outOfOrderRequests);
+        System.out.println("Status counts: " + getStatusCounts());
+        System.out.printf("Max start lag: %.2f ms%n", getMaxStartLagMillis());
+        System.out.printf("Response time (from intended start) ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                getResponseTimePercentileMillis(50), getResponseTimePercentileMillis(90),
+                getResponseTimePercentileMillis(99), getResponseTimePercentileMillis(99.9),
+                responseTime.getMaxValue() / 1000.0);
+        System.out.printf("Service time (from actual send) ms:     p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                serviceTime.getValueAtPercentile(50) / 1000.0, serviceTime.getValueAtPercentile(90) / 1000.0,
+                serviceTime.getValueAtPercentile(99) / 1000.0, serviceTime.getValueAtPercentile(99.9) / 1000.0,
+                serviceTime.getMaxValue() / 1000.0);
+        System.out.println("=========================");
+    }
+
+    /**
+     * Write both latency distributions in HdrHistogram's .hgrm text format, scaled to milliseconds
+     */
+    public void writeReport(File directory) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            System.err.println("Could not create replay report directory: " + directory);
+            return;
+        }
+        String baseName = "replay-" + System.currentTimeMillis();
+        writeHistogram(new File(directory, baseName + "-response-time.hgrm"), responseTime);
+        writeHistogram(new File(directory, baseName + "-service-time.hgrm"), serviceTime);
+    }
+
+    private static void writeHistogram(File file, Histogram histogram) {
+        try (PrintStream out = new PrintStream(file)) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        } catch (FileNotFoundException e) {
+            System.err.println("Could not write replay report: " + file);
+            e.printStackTrace();
+        }
+    }
+}
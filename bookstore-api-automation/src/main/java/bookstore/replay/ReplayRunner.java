@@ -0,0 +1,54 @@
+package bookstore.replay;
+
+import bookstore.auth.TokenPool;
+import bookstore.cleanup.BookReaper;
+import bookstore.config.APIConfig;
+import bookstore.config.ApiClient;
+import bookstore.config.BookstoreApi;
+import bookstore.load.LoadSession;
+import bookstore.stub.BookstoreStubServer;
+import bookstore.stub.StubConfig;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * Command-line entry point for replaying a capture, configured via system properties:
+ * <pre>
+ * -Dreplay.file=target/bookstore_api_capture.ndjson   capture written by CaptureWriter
+ * -Dreplay.speed=1.0              time compression, e.g. 10 plays the capture ten times faster
+ * -Dreplay.concurrency=200        max requests in flight; the transport holds them to http.pool.max.per.route
+ * -Dreplay.reorder.window.ms=10000   how late a request's start may appear in the capture and still replay in start order
+ * -Dreplay.seed.books=20          books standing in for ids the capture never created (0 keeps them)
+ * -Dstub.enabled=true             run against an in-JVM stub server (see {@link StubConfig})
+ * -Dcleanup.enabled=true          delete the books the run created before exiting (see {@link BookReaper})
+ * </pre>
+ * Record with -Dcapture.sample.success=1.0 and capture.bodies=true so that every exchange,
+ * and the responses needed to remap tokens and book ids, are in the file.
+ */
+public class ReplayRunner {
+
+    public static final String REPORT_DIRECTORY = "target/replay-reports";
+
+    public static void main(String[] args) {
+        Path file = Path.of(System.getProperty("replay.file", APIConfig.CAPTURE_FILE));
+        double speed = Double.parseDouble(System.getProperty("replay.speed", "1.0"));
+        int concurrency = Integer.parseInt(System.getProperty("replay.concurrency", "200"));
+        long reorderWindowMillis = Long.parseLong(System.getProperty("replay.reorder.window.ms",
+                String.valueOf(ReplayEngine.DEFAULT_REORDER_WINDOW_MILLIS)));
+        int seedBooks = Integer.parseInt(System.getProperty("replay.seed.books", "20"));
+
+        if (StubConfig.ENABLED) {
+            BookstoreStubServer.start(StubConfig.fromSystemProperties(APIConfig.DEFAULT_PORT));
+        }
+        APIConfig.printEnvironmentInfo();
+        APIConfig.enableMetrics();
+        ReplayMapper mapper = new ReplayMapper(TokenPool.shared(), seedBooks > 0 ? LoadSession.open(seedBooks) : null);
+        ReplayResult result = new ReplayEngine(BookstoreApi.shared().getTransport(), speed, concurrency, reorderWindowMillis).replay(file, mapper);
+        result.printSummary();
+        ApiClient.printPoolStats();
+        result.writeReport(new File(REPORT_DIRECTORY));
+        BookReaper.shared().reapRun();
+        System.exit(result.getErrorCount() == 0 ? 0 : 1);
+    }
+}
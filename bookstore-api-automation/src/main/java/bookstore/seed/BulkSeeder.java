@@ -0,0 +1,274 @@
+package bookstore.seed;
+
+import bookstore.auth.TokenPool;
+import bookstore.config.APIConfig;
+import bookstore.config.ApiClient;
+import bookstore.config.BookstoreApi;
+import bookstore.config.JsonPayloads;
+import bookstore.config.ParsedResponse;
+import bookstore.transport.ApiResponse;
+import bookstore.utils.FakerDataUtils;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Loads a large dataset into the Bookstore API through /signup and POST /books/.
+ * <p>
+ * Requests run on virtual threads over the shared connection pool, with at most
+ * window requests in flight: the producer blocks for a permit before issuing the next
+ * request, so a slow server throttles the seeder instead of piling up work. 429, 503 and
+ * requests that never left the client (connect or pool timeouts) are retried with
+ * exponential backoff, since the server rejected them before doing any work. Any other
+ * error, including a 500 or 502 after which the book may exist, or a success response
+ * that cannot be read, counts as a failure. Bodies are written straight
+ * to JSON text by {@link JsonPayloads}.
+ * <p>
+ * Progress is checkpointed to target/seed/&lt;dataset&gt;.properties, so running again with
+ * a larger target only creates the difference. Seed users have deterministic emails,
+ * which makes their signups idempotent. The checkpoint is discarded if the target has
+ * lost the data since (e.g. a restarted stub). Configured via system properties:
+ * <pre>
+ * -Dseed.books=1000000     books the dataset should hold
+ * -Dseed.users=5000        users the dataset should hold
+ * -Dseed.dataset=default   name of the dataset and its checkpoint file
+ * -Dseed.window=200        max requests in flight; the transport holds them to http.pool.max.per.route
+ * -Dseed.attempts=5        attempts per request before it counts as failed
+ * </pre>
+ */
+public class BulkSeeder {
+
+    public static final File STATE_DIRECTORY = new File(System.getProperty("seed.state.dir", "target/seed"));
+    public static final String SEED_PASSWORD = "SeedPass123!";
+    private static final long PROGRESS_INTERVAL_SECONDS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+
+    private final String dataset;
+    private final int window;
+    private final int maxAttempts;
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public BulkSeeder(String dataset, int window, int maxAttempts) {
+        if (window <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("Window and attempts must be positive: " + window + ", " + maxAttempts);
+        }
+        this.dataset = dataset.replaceAll("[^A-Za-z0-9_-]", "_");
+        this.window = window;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public static void main(String[] args) {
+        BulkSeeder seeder = new BulkSeeder(System.getProperty("seed.dataset", "default"),
+                Integer.parseInt(System.getProperty("seed.window", "200")),
+                Integer.parseInt(System.getProperty("seed.attempts", "5")));
+        APIConfig.printEnvironmentInfo();
+        APIConfig.enableMetrics();
+        SeedReport report = seeder.seed(Long.parseLong(System.getProperty("seed.users", "5000")),
+                Long.parseLong(System.getProperty("seed.books", "1000000")));
+        report.printSummary();
+        ApiClient.printPoolStats();
+        System.exit(report.getFailures() == 0 ? 0 : 1);
+    }
+
+    /**
+     * Email of the i-th seed user of this dataset
+     */
+    public String userEmail(long index) {
+        return "seed-" + dataset + "-" + index + "@bookstore.test";
+    }
+
+    /**
+     * Bring the dataset up to the target counts and return what this run did
+     */
+    public SeedReport seed(long targetUsers, long targetBooks) {
+        SeedManifest manifest = SeedManifest.load(new File(STATE_DIRECTORY, dataset + ".properties"),
+                APIConfig.BASE_URI + ":" + APIConfig.DEFAULT_PORT + APIConfig.BASE_PATH);
+        verify(manifest);
+        // Users complete out of order, so a checkpoint taken mid-run may have gaps in its last
+        // window; signups are idempotent, so go back one window and let repeats answer 400
+        long usersBefore = manifest.usersContiguous ? manifest.usersCreated : Math.max(0, manifest.usersCreated - window);
+        long booksBefore = manifest.booksCreated;
+
+        long userStart = System.nanoTime();
+        AtomicLong usersCreated = new AtomicLong();
+        long userCount = Math.max(0, targetUsers - usersBefore);
+        long failuresBefore = failures.sum();
+        manifest.usersContiguous = userCount == 0;
+        run("users", userCount, i -> BookstoreApi.shared().signup(userEmail(usersBefore + i), SEED_PASSWORD),
+                response -> {
+                    // 400 means an earlier, interrupted run already created this user
+                    if (response.getStatusCode() == 200 || response.getStatusCode() == 400) {
+                        manifest.usersCreated = usersBefore + usersCreated.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }, manifest);
+        manifest.usersContiguous = failures.sum() == failuresBefore;
+        long userNanos = System.nanoTime() - userStart;
+
+        long bookStart = System.nanoTime();
+        AtomicLong booksCreated = new AtomicLong();
+        LongAccumulator maxId = new LongAccumulator(Math::max, manifest.booksMaxId);
+        long bookCount = Math.max(0, targetBooks - booksBefore);
+        TokenPool tokens = bookCount > 0 ? TokenPool.shared() : null;
+        run("books", bookCount, i -> BookstoreApi.shared().createBook(tokens.nextToken(), JsonPayloads.book(
+                        FakerDataUtils.generateRandomBookTitle(), FakerDataUtils.generateRandomAuthor(),
+                        FakerDataUtils.generateRandomYear(), FakerDataUtils.generateRandomSentence())),
+                response -> {
+                    if (response.getStatusCode() != 200) {
+                        return false;
+                    }
+                    maxId.accumulate(new ParsedResponse(response).getInt("id"));
+                    synchronized (manifest) {
+                        manifest.booksCreated = booksBefore + booksCreated.incrementAndGet();
+                        manifest.booksMaxId = maxId.get();
+                    }
+                    return true;
+                }, manifest);
+        long bookNanos = System.nanoTime() - bookStart;
+
+        manifest.save();
+        return new SeedReport(usersCreated.get(), manifest.usersCreated, userNanos, booksCreated.get(),
+                manifest.booksCreated, bookNanos, retries.sum(), failures.sum());
+    }
+
+    /**
+     * Drop checkpointed progress the target no longer has, e.g. after a database reset
+     */
+    private void verify(SeedManifest manifest) {
+        if (manifest.booksMaxId > 0 && BookstoreApi.shared().getBook(TokenPool.shared().nextToken(),
+                (int) manifest.booksMaxId).getStatusCode() != 200) {
+            System.out.println("[SEED] Book " + manifest.booksMaxId + " from the checkpoint is gone; reseeding books");
+            manifest.booksCreated = 0;
+            manifest.booksMaxId = 0;
+        }
+        if (manifest.usersCreated > 0
+                && BookstoreApi.shared().login(userEmail(manifest.usersCreated - 1), SEED_PASSWORD).getStatusCode() != 200) {
+            System.out.println("[SEED] Seed users from the checkpoint are gone; reseeding users");
+            manifest.usersCreated = 0;
+        }
+        if (manifest.usersCreated > 0 || manifest.booksCreated > 0) {
+            System.out.println("[SEED] Resuming dataset '" + dataset + "' with " + manifest.usersCreated + " users and "
+                    + manifest.booksCreated + " books");
+        }
+    }
+
+    private void run(String kind, long count, LongFunction<ApiResponse> request, ResponseCheck check, SeedManifest manifest) {
+        if (count == 0) {
+            return;
+        }
+        System.out.println("[SEED] Creating " + count + " " + kind + " with " + window + " requests in flight");
+        AtomicLong completed = new AtomicLong();
+        long start = System.nanoTime();
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seed-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> {
+            long done = completed.get();
+            double rate = done * 1e9 / (System.nanoTime() - start);
+            System.out.printf("[SEED] %s: %d/%d (%.1f/s), retries %d, failures %d%n", kind, done, count, rate,
+                    retries.sum(), failures.sum());
+            manifest.save();
+        }, PROGRESS_INTERVAL_SECONDS, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        Semaphore inFlight = new Semaphore(window);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < count; i++) {
+                inFlight.acquireUninterruptibly();
+                long index = i;
+                executor.execute(() -> {
+                    try {
+                        send(request, check, index);
+                    } finally {
+                        completed.incrementAndGet();
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            progress.shutdownNow();
+        }
+    }
+
+    private void send(LongFunction<ApiResponse> request, ResponseCheck check, long index) {
+        for (int attempt = 1; ; attempt++) {
+            ApiResponse response;
+            try {
+                response = request.apply(index);
+            } catch (UncheckedIOException e) {
+                response = null;
+                if (!notSent(e)) {
+                    failures.increment();
+                    return;
+                }
+            }
+            if (response != null) {
+                try {
+                    if (check.accept(response)) {
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    // The request went through, e.g. a 200 without an id; resending could create a duplicate
+                    failures.increment();
+                    return;
+                }
+            }
+            if (!(response == null || rejected(response)) || attempt >= maxAttempts) {
+                failures.increment();
+                return;
+            }
+            retries.increment();
+            long backoff = Math.min(MAX_BACKOFF_MILLIS, 50L << (attempt - 1));
+            try {
+                Thread.sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * True if the server turned the request away without processing it: throttled or unavailable
+     */
+    private static boolean rejected(ApiResponse response) {
+        return response.getStatusCode() == 429 || response.getStatusCode() == 503;
+    }
+
+    /**
+     * True if the request failed before any of it reached the server: no connection could
+     * be made, or none was free in the pool. Anything later may have been processed.
+     */
+    private static boolean notSent(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException
+                    || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface ResponseCheck {
+        /** True if the response completes the request */
+        boolean accept(ApiResponse response);
+    }
+}
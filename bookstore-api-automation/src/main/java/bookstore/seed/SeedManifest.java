@@ -0,0 +1,80 @@
+package bookstore.seed;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Progress of one seeded dataset against one target, kept in a small properties file so
+ * a later run can top the dataset up instead of rebuilding it. Written with a temporary
+ * file and an atomic move, so a crash leaves either the old or the new checkpoint.
+ */
+class SeedManifest {
+
+    final File file;
+    final String target;
+    long usersCreated;
+    /** False while a users phase is running, when completions can leave gaps below usersCreated */
+    boolean usersContiguous = true;
+    long booksCreated;
+    long booksMaxId;
+
+    private SeedManifest(File file, String target) {
+        this.file = file;
+        this.target = target;
+    }
+
+    /**
+     * Read the manifest, or start an empty one if there is none or it was for another target
+     */
+    static SeedManifest load(File file, String target) {
+        SeedManifest manifest = new SeedManifest(file, target);
+        if (!file.isFile()) {
+            return manifest;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            System.err.println("[SEED] Could not read " + file + ", starting over: " + e.getMessage());
+            return manifest;
+        }
+        if (!target.equals(properties.getProperty("target"))) {
+            System.out.println("[SEED] " + file + " was written for " + properties.getProperty("target") + ", starting over");
+            return manifest;
+        }
+        manifest.usersCreated = Long.parseLong(properties.getProperty("users.created", "0"));
+        manifest.usersContiguous = Boolean.parseBoolean(properties.getProperty("users.contiguous", "true"));
+        manifest.booksCreated = Long.parseLong(properties.getProperty("books.created", "0"));
+        manifest.booksMaxId = Long.parseLong(properties.getProperty("books.max.id", "0"));
+        return manifest;
+    }
+
+    synchronized void save() {
+        Properties properties = new Properties();
+        properties.setProperty("target", target);
+        properties.setProperty("users.created", Long.toString(usersCreated));
+        properties.setProperty("users.contiguous", Boolean.toString(usersContiguous));
+        properties.setProperty("books.created", Long.toString(booksCreated));
+        properties.setProperty("books.max.id", Long.toString(booksMaxId));
+        File directory = file.getAbsoluteFile().getParentFile();
+        try {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Could not create " + directory);
+            }
+            File temporary = File.createTempFile("seed-", ".tmp", directory);
+            try (OutputStream out = new FileOutputStream(temporary)) {
+                properties.store(out, "Bulk seeding progress");
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("[SEED] Could not write checkpoint " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package bookstore.seed;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What one seeding run created, how often it had to retry and how fast it went
+ */
+public class SeedReport {
+
+    private final long usersCreated;
+    private final long usersTotal;
+    private final long userNanos;
+    private final long booksCreated;
+    private final long booksTotal;
+    private final long bookNanos;
+    private final long retries;
+    private final long failures;
+
+    SeedReport(long usersCreated, long usersTotal, long userNanos, long booksCreated, long booksTotal, long bookNanos,
+               long retries, long failures) {
+        this.usersCreated = usersCreated;
+        this.usersTotal = usersTotal;
+        this.userNanos = userNanos;
+        this.booksCreated = booksCreated;
+        this.booksTotal = booksTotal;
+        this.bookNanos = bookNanos;
+        this.retries = retries;
+        this.failures = failures;
+    }
+
+    public long getUsersCreated() {
+        return usersCreated;
+    }
+
+    public long getBooksCreated() {
+        return booksCreated;
+    }
+
+    /**
+     * Books in the dataset after this run, including those from earlier runs
+     */
+    public long getBooksTotal() {
+        return booksTotal;
+    }
+
+    public long getUsersTotal() {
+        return usersTotal;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * Requests that still failed after all retries, or failed with a non-retryable status
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    public double getUsersPerSecond() {
+        return rate(usersCreated, userNanos);
+    }
+
+    public double getBooksPerSecond() {
+        return rate(booksCreated, bookNanos);
+    }
+
+    public void printSummary() {
+        System.out.println("=== Seeding Result ===");
+        System.out.printf("Users: %d created (%d in dataset) at %.1f/s in %ds%n", usersCreated, usersTotal,
+                getUsersPerSecond(), TimeUnit.NANOSECONDS.toSeconds(userNanos));
+        System.out.printf("Books: %d created (%d in dataset) at %.1f/s in %ds%n", booksCreated, booksTotal,
+                getBooksPerSecond(), TimeUnit.NANOSECONDS.toSeconds(bookNanos));
+        System.out.println("Retries: " + retries + ", failures: " + failures);
+        System.out.println("======================");
+    }
+
+    private static double rate(long count, long nanos) {
+        return nanos == 0 ? 0 : count * 1e9 / nanos;
+    }
+}
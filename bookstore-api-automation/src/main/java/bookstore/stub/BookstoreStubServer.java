@@ -0,0 +1,375 @@
+package bookstore.stub;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-JVM stand-in for the Bookstore API, built on the JDK HTTP server.
+ * <p>
+ * Serves /health, /signup, /login and /books/ CRUD with the status codes and JSON bodies
+ * of the FastAPI service, so bookstore.feature passes against it unchanged. State lives
+ * in concurrent in-memory maps. Exchanges run on platform threads rather than virtual
+ * threads so the stub never competes with the load engine's virtual threads for carriers.
+ * Latency, errors and password-hashing cost are set through {@link StubConfig}.
+ * <pre>
+ * mvn exec:java -Dexec.mainClass=bookstore.stub.BookstoreStubServer -Dport=8000
+ * </pre>
+ */
+public class BookstoreStubServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] BOOK_FIELDS = {"name", "author", "published_year", "book_summary"};
+    private static final byte[] HEALTH_BODY = "{\"status\":\"up\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_BODY = "Internal Server Error".getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // The JDK server writes headers and body separately; without TCP_NODELAY the body
+        // waits on the client's delayed ACK and every response gains tens of milliseconds
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final StubConfig config;
+    private final StubAuth auth;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(new StubThreadFactory());
+    private final ConcurrentNavigableMap<Integer, ObjectNode> books = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextBookId = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+
+    private BookstoreStubServer(StubConfig config) throws IOException {
+        this.config = config;
+        this.auth = new StubAuth(config.getHashIterations());
+        this.server = HttpServer.create(new InetSocketAddress(config.getHost(), config.getPort()), 4096);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    /**
+     * Bind and start serving; the server is ready when this returns
+     */
+    public static BookstoreStubServer start(StubConfig config) {
+        try {
+            BookstoreStubServer stub = new BookstoreStubServer(config);
+            stub.server.start();
+            System.out.println("[STUB] Bookstore stub listening on " + stub.getBaseUri() + ":" + stub.getPort()
+                    + " (" + config + ")");
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start stub server on port " + config.getPort(), e);
+        }
+    }
+
+    public static void main(String[] args) {
+        start(StubConfig.fromSystemProperties(Integer.parseInt(System.getProperty("port", "8000"))));
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUri() {
+        return "http://" + config.getHost();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public int getBookCount() {
+        return books.size();
+    }
+
+    public int getUserCount() {
+        return auth.userCount();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        System.out.println("[STUB] Stopped after " + getRequestCount() + " requests, " + getUserCount()
+                + " users, " + getBookCount() + " books");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+
+            long latencyNanos = config.sampleLatencyNanos();
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            if (path.equals("/health")) {
+                route(exchange, method, "GET");
+                if ("GET".equals(method)) {
+                    send(exchange, 200, HEALTH_BODY);
+                }
+                return;
+            }
+            if (config.injectError()) {
+                exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(500, ERROR_BODY.length);
+                exchange.getResponseBody().write(ERROR_BODY);
+                return;
+            }
+
+            if (path.equals("/signup")) {
+                if (route(exchange, method, "POST")) {
+                    signup(exchange, body);
+                }
+            } else if (path.equals("/login")) {
+                if (route(exchange, method, "POST")) {
+                    login(exchange, body);
+                }
+            } else if (path.equals("/books/")) {
+                if (route(exchange, method, "GET", "POST") && authorized(exchange)) {
+                    if ("POST".equals(method)) {
+                        createBook(exchange, body);
+                    } else {
+                        listBooks(exchange);
+                    }
+                }
+            } else if (path.startsWith("/books/") && path.indexOf('/', 7) < 0) {
+                if (route(exchange, method, "GET", "PUT", "DELETE") && authorized(exchange)) {
+                    Integer bookId = bookId(exchange, path.substring(7));
+                    if (bookId == null) {
+                        return;
+                    }
+                    switch (method) {
+                        case "GET":
+                            getBook(exchange, bookId);
+                            break;
+                        case "PUT":
+                            updateBook(exchange, bookId, body);
+                            break;
+                        default:
+                            deleteBook(exchange, bookId);
+                    }
+                }
+            } else {
+                sendDetail(exchange, 404, "Not Found");
+            }
+        }
+    }
+
+    private void signup(HttpExchange exchange, byte[] body) throws IOException {
+        JsonNode credentials = parseObject(exchange, body, "email", "password");
+        if (credentials == null) {
+            return;
+        }
+        if (!auth.signup(credentials.get("email").asText(), credentials.get("password").asText())) {
+            sendDetail(exchange, 400, "Email already registered");
+            return;
+        }
+        sendJson(exchange, 200, Map.of("message", "User created successfully"));
+    }
+
+    private void login(HttpExchange exchange, byte[] body) throws IOException {
+        JsonNode credentials = parseObject(exchange, body, "email", "password");
+        if (credentials == null) {
+            return;
+        }
+        String token = auth.login(credentials.get("email").asText(), credentials.get("password").asText());
+        if (token == null) {
+            sendDetail(exchange, 400, "Incorrect email or password");
+            return;
+        }
+        sendJson(exchange, 200, Map.of("access_token", token, "token_type", "bearer"));
+    }
+
+    private void createBook(HttpExchange exchange, byte[] body) throws IOException {
+        JsonNode fields = parseObject(exchange, body, BOOK_FIELDS);
+        if (fields == null || !validYear(exchange, fields)) {
+            return;
+        }
+        int id = nextBookId.incrementAndGet();
+        ObjectNode book = MAPPER.createObjectNode().put("id", id);
+        for (String field : BOOK_FIELDS) {
+            book.set(field, fields.get(field));
+        }
+        books.put(id, book);
+        sendJson(exchange, 200, book);
+    }
+
+    private void getBook(HttpExchange exchange, int bookId) throws IOException {
+        ObjectNode book = books.get(bookId);
+        if (book == null) {
+            sendDetail(exchange, 404, "Book not found");
+            return;
+        }
+        sendJson(exchange, 200, book);
+    }
+
+    private void updateBook(HttpExchange exchange, int bookId, byte[] body) throws IOException {
+        JsonNode fields = parseObject(exchange, body);
+        if (fields == null || (fields.has("published_year") && !validYear(exchange, fields))) {
+            return;
+        }
+        // Books are replaced, never mutated, so concurrent readers always see a whole book
+        ObjectNode updated = books.computeIfPresent(bookId, (id, book) -> {
+            ObjectNode copy = book.deepCopy();
+            for (String field : BOOK_FIELDS) {
+                if (fields.has(field)) {
+                    copy.set(field, fields.get(field));
+                }
+            }
+            return copy;
+        });
+        if (updated == null) {
+            sendDetail(exchange, 404, "Book not found");
+            return;
+        }
+        sendJson(exchange, 200, updated);
+    }
+
+    private void deleteBook(HttpExchange exchange, int bookId) throws IOException {
+        if (books.remove(bookId) == null) {
+            sendDetail(exchange, 404, "Book not found");
+            return;
+        }
+        sendJson(exchange, 200, Map.of("message", "Book deleted successfully"));
+    }
+
+    /**
+     * Stream the whole catalogue as a chunked JSON array, never holding it as one buffer
+     */
+    private void listBooks(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody();
+             JsonGenerator generator = MAPPER.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (ObjectNode book : books.values()) {
+                MAPPER.writeTree(generator, book);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Send 405 unless the method is one of the allowed ones
+     */
+    private boolean route(HttpExchange exchange, String method, String... allowed) throws IOException {
+        for (String candidate : allowed) {
+            if (candidate.equals(method)) {
+                return true;
+            }
+        }
+        exchange.getResponseHeaders().add("Allow", String.join(", ", allowed));
+        sendDetail(exchange, 405, "Method Not Allowed");
+        return false;
+    }
+
+    private boolean authorized(HttpExchange exchange) throws IOException {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7) || header.length() == 7) {
+            sendDetail(exchange, 403, "Not authenticated");
+            return false;
+        }
+        if (!auth.verify(header.substring(7).trim())) {
+            sendDetail(exchange, 403, "Invalid token or expired token");
+            return false;
+        }
+        return true;
+    }
+
+    private Integer bookId(HttpExchange exchange, String segment) throws IOException {
+        try {
+            return Integer.valueOf(segment);
+        } catch (NumberFormatException e) {
+            sendValidationError(exchange, "int_parsing", List.of("path", "book_id"),
+                    "Input should be a valid integer, unable to parse string as an integer");
+            return null;
+        }
+    }
+
+    /**
+     * Parse a JSON object body and check that the required fields are present, sending
+     * FastAPI's 422 shape and returning null otherwise
+     */
+    private JsonNode parseObject(HttpExchange exchange, byte[] body, String... required) throws IOException {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(body);
+        } catch (IOException e) {
+            sendValidationError(exchange, "json_invalid", List.of("body", 0), "JSON decode error");
+            return null;
+        }
+        if (node == null || !node.isObject()) {
+            sendValidationError(exchange, "model_attributes_type", List.of("body"), "Input should be a valid dictionary");
+            return null;
+        }
+        for (String field : required) {
+            if (!node.hasNonNull(field)) {
+                sendValidationError(exchange, "missing", List.of("body", field), "Field required");
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private boolean validYear(HttpExchange exchange, JsonNode fields) throws IOException {
+        JsonNode year = fields.get("published_year");
+        if (year.canConvertToInt() || (year.isTextual() && year.asText().matches("-?\\d+"))) {
+            return true;
+        }
+        sendValidationError(exchange, "int_parsing", List.of("body", "published_year"),
+                "Input should be a valid integer");
+        return false;
+    }
+
+    private void sendValidationError(HttpExchange exchange, String type, List<Object> location, String message)
+            throws IOException {
+        sendJson(exchange, 422, Map.of("detail", List.of(Map.of("type", type, "loc", location, "msg", message))));
+    }
+
+    private void sendDetail(HttpExchange exchange, int status, String detail) throws IOException {
+        sendJson(exchange, status, Map.of("detail", detail));
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        send(exchange, status, MAPPER.writeValueAsBytes(body));
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+
+    private static class StubThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "stub-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package bookstore.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users and tokens of the stub. Passwords are salted and stretched with PBKDF2 so signup
+ * and login cost real CPU like the API's bcrypt; tokens are HS256 JWTs with a 30-minute
+ * "exp" claim, signed with the API's default secret.
+ */
+class StubAuth {
+
+    private static final String SECRET = "4e9350f4-76c9-4c2d-9eaf-dd68ed7ac31a";
+    private static final long TOKEN_LIFETIME_SECONDS = TimeUnit.MINUTES.toSeconds(30);
+    private static final String JWT_HEADER = base64Url("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, byte[][]> users = new ConcurrentHashMap<>();
+    private final int hashIterations;
+
+    StubAuth(int hashIterations) {
+        this.hashIterations = hashIterations;
+    }
+
+    /**
+     * Register a user; false if the email is already taken
+     */
+    boolean signup(String email, String password) {
+        if (users.containsKey(email)) {
+            return false;
+        }
+        byte[] salt = new byte[16];
+        ThreadLocalRandom.current().nextBytes(salt);
+        return users.putIfAbsent(email, new byte[][]{salt, hash(password, salt)}) == null;
+    }
+
+    /**
+     * Check credentials and issue a token; null if they do not match
+     */
+    String login(String email, String password) {
+        byte[][] stored = users.get(email);
+        if (stored == null || !MessageDigest.isEqual(stored[1], hash(password, stored[0]))) {
+            return null;
+        }
+        long expires = System.currentTimeMillis() / 1000 + TOKEN_LIFETIME_SECONDS;
+        String payload = base64Url(("{\"sub\":" + quote(email) + ",\"exp\":" + expires + "}").getBytes(StandardCharsets.UTF_8));
+        String unsigned = JWT_HEADER + "." + payload;
+        return unsigned + "." + base64Url(sign(unsigned));
+    }
+
+    /**
+     * True if the token carries a valid signature and has not expired
+     */
+    boolean verify(String token) {
+        int lastDot = token.lastIndexOf('.');
+        int firstDot = token.indexOf('.');
+        if (firstDot < 0 || lastDot == firstDot) {
+            return false;
+        }
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(signature, sign(token.substring(0, lastDot)))) {
+                return false;
+            }
+            JsonNode claims = MAPPER.readTree(Base64.getUrlDecoder().decode(token.substring(firstDot + 1, lastDot)));
+            return claims.path("exp").asLong() > System.currentTimeMillis() / 1000;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    int userCount() {
+        return users.size();
+    }
+
+    private byte[] hash(String password, byte[] salt) {
+        try {
+            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+            return factory.generateSecret(new PBEKeySpec(password.toCharArray(), salt, hashIterations, 256)).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 unavailable", e);
+        }
+    }
+
+    private static byte[] sign(String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static String quote(String value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
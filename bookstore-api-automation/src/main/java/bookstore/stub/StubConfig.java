@@ -0,0 +1,123 @@
+package bookstore.stub;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Behaviour of the {@link BookstoreStubServer}, read from system properties:
+ * <pre>
+ * -Dstub.enabled=true             start the stub in-JVM for test runs (see Hooks)
+ * -Dstub.host=localhost           bind address; 0.0.0.0 to accept remote load workers
+ * -Dstub.latency=exponential      none, fixed, uniform or exponential
+ * -Dstub.latency.mean.ms=5        mean added latency
+ * -Dstub.latency.max.ms=1000      cap on sampled latency
+ * -Dstub.error.rate=0.0           fraction of non-health requests answered with 500
+ * -Dstub.hash.iterations=10000    PBKDF2 rounds per signup/login, standing in for bcrypt
+ * </pre>
+ */
+public class StubConfig {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("stub.enabled", "false"));
+
+    /**
+     * Shape of the latency added before each response
+     */
+    public enum LatencyDistribution {
+        NONE,
+        /** Always the mean */
+        FIXED,
+        /** Uniform between zero and twice the mean */
+        UNIFORM,
+        /** Exponential with the given mean; a long tail like a loaded server */
+        EXPONENTIAL
+    }
+
+    private final String host;
+    private final int port;
+    private final LatencyDistribution latencyDistribution;
+    private final double latencyMeanMillis;
+    private final double latencyMaxMillis;
+    private final double errorRate;
+    private final int hashIterations;
+
+    public StubConfig(String host, int port, LatencyDistribution latencyDistribution, double latencyMeanMillis,
+                      double latencyMaxMillis, double errorRate, int hashIterations) {
+        this.host = host;
+        this.port = port;
+        this.latencyDistribution = latencyDistribution;
+        this.latencyMeanMillis = latencyMeanMillis;
+        this.latencyMaxMillis = latencyMaxMillis;
+        this.errorRate = errorRate;
+        this.hashIterations = Math.max(1, hashIterations);
+    }
+
+    /**
+     * Configuration from system properties, listening on the given port (0 picks a free one)
+     */
+    public static StubConfig fromSystemProperties(int port) {
+        return new StubConfig(
+                System.getProperty("stub.host", "localhost"),
+                port,
+                LatencyDistribution.valueOf(System.getProperty("stub.latency", "none").toUpperCase()),
+                Double.parseDouble(System.getProperty("stub.latency.mean.ms", "5")),
+                Double.parseDouble(System.getProperty("stub.latency.max.ms", "1000")),
+                Double.parseDouble(System.getProperty("stub.error.rate", "0.0")),
+                Integer.parseInt(System.getProperty("stub.hash.iterations", "10000")));
+    }
+
+    /**
+     * Draw the latency to add to one response, in nanoseconds
+     */
+    long sampleLatencyNanos() {
+        double millis;
+        switch (latencyDistribution) {
+            case FIXED:
+                millis = latencyMeanMillis;
+                break;
+            case UNIFORM:
+                millis = ThreadLocalRandom.current().nextDouble() * 2 * latencyMeanMillis;
+                break;
+            case EXPONENTIAL:
+                millis = -latencyMeanMillis * Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+                break;
+            default:
+                return 0;
+        }
+        return (long) (Math.min(millis, latencyMaxMillis) * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    boolean injectError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public LatencyDistribution getLatencyDistribution() {
+        return latencyDistribution;
+    }
+
+    public double getLatencyMeanMillis() {
+        return latencyMeanMillis;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public int getHashIterations() {
+        return hashIterations;
+    }
+
+    @Override
+    public String toString() {
+        return "latency=" + latencyDistribution + (latencyDistribution == LatencyDistribution.NONE ? "" : " mean "
+                + latencyMeanMillis + "ms max " + latencyMaxMillis + "ms") + ", error rate=" + errorRate
+                + ", hash iterations=" + hashIterations;
+    }
+}
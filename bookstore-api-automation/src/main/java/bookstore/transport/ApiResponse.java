@@ -0,0 +1,33 @@
+package bookstore.transport;
+
+import java.io.InputStream;
+
+/**
+ * A response as the step definitions and load engines see it, whichever {@link Transport}
+ * carried the request.
+ */
+public interface ApiResponse {
+
+    int getStatusCode();
+
+    /**
+     * First value of a response header, or null when absent
+     */
+    String getHeader(String name);
+
+    /**
+     * Whole body; read once and kept, so repeated calls are cheap
+     */
+    byte[] asByteArray();
+
+    /**
+     * Whole body as UTF-8 text
+     */
+    String asString();
+
+    /**
+     * Body as a stream. For responses from {@link Transport#stream} this is the connection
+     * itself and must be closed to release it.
+     */
+    InputStream asInputStream();
+}
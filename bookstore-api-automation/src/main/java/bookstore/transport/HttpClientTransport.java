@@ -0,0 +1,388 @@
+package bookstore.transport;
+
+import bookstore.config.APIConfig;
+import bookstore.metrics.ApiCallEvent;
+import bookstore.metrics.ApiMetrics;
+import bookstore.metrics.LatencyRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+/**
+ * Transport on the JDK's java.net.http.HttpClient. Bodies go out as the byte arrays or
+ * buffers they were serialized to, async sends complete on the client's own threads without a thread
+ * parked per request, and HTTP/2 is negotiated where the server offers it (ALPN over TLS,
+ * an h2c upgrade over plain HTTP) so concurrent requests share one connection. Servers that
+ * only speak HTTP/1.1, like the stub, get pooled keep-alive connections instead. Blocking
+ * calls are held to {@link #getMaxInFlight()} at once, so HTTP/1.1 servers do not get a new
+ * connection for every extra caller; async sends park no thread and are not limited.
+ * <p>
+ * RestAssured filters do not apply here. Latency and metrics recording, once enabled through
+ * {@link APIConfig}, are done by the transport itself; console logging and capture stay
+ * RestAssured-only.
+ */
+public class HttpClientTransport implements Transport {
+
+    static final String NAME = "http2";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(APIConfig.SOCKET_TIMEOUT);
+
+    private static volatile HttpClientTransport shared;
+    private static volatile LatencyRegistry latencyRegistry;
+    private static volatile ApiMetrics apiMetrics;
+
+    private final HttpClient client;
+    private final String baseUri;
+    private final InFlightLimit limit = new InFlightLimit(APIConfig.MAX_CONNECTIONS_PER_ROUTE);
+
+    /**
+     * @param baseUri scheme, host, port and base path that request paths are appended to
+     */
+    public HttpClientTransport(String baseUri) {
+        this(newClient(), baseUri);
+    }
+
+    public HttpClientTransport(HttpClient client, String baseUri) {
+        this.client = client;
+        this.baseUri = baseUri;
+    }
+
+    private static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(APIConfig.CONNECTION_TIMEOUT))
+                .build();
+    }
+
+    /**
+     * One client for the configured base URI, port and base path, created on first use
+     */
+    public static HttpClientTransport shared() {
+        if (shared == null) {
+            synchronized (HttpClientTransport.class) {
+                if (shared == null) {
+                    URI uri = URI.create(APIConfig.BASE_URI);
+                    shared = new HttpClientTransport(uri.getScheme() + "://" + uri.getHost() + ":"
+                            + APIConfig.DEFAULT_PORT + APIConfig.BASE_PATH);
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Record every call's latency into a registry, as {@link bookstore.metrics.LatencyFilter} does for RestAssured
+     */
+    public static void recordLatency(LatencyRegistry registry) {
+        latencyRegistry = registry;
+    }
+
+    /**
+     * Count every call and emit JFR events, as {@link bookstore.metrics.MetricsFilter} does for RestAssured
+     */
+    public static void recordMetrics(ApiMetrics metrics) {
+        apiMetrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getMaxInFlight() {
+        return limit.getMax();
+    }
+
+    @Override
+    public int takePeakInFlight() {
+        return limit.takePeak();
+    }
+
+    @Override
+    public ApiResponse send(String method, String path, String accessToken, byte[] jsonBody) {
+        HttpResponse<byte[]> response = exchange(method, path, accessToken,
+                jsonBody == null ? null : HttpRequest.BodyPublishers.ofByteArray(jsonBody),
+                jsonBody == null ? 0 : jsonBody.length, HttpResponse.BodyHandlers.ofByteArray());
+        return new HttpClientResponse(response.statusCode(), response.headers(), response.body(), null);
+    }
+
+    /**
+     * Heap buffers go out as their backing array; direct and mapped buffers are handed to the
+     * client in slices of the buffer itself, which the socket writes from without a copy
+     */
+    @Override
+    public ApiResponse sendBuffer(String method, String path, String accessToken, ByteBuffer jsonBody) {
+        int length = jsonBody.remaining();
+        HttpRequest.BodyPublisher body = jsonBody.hasArray()
+                ? HttpRequest.BodyPublishers.ofByteArray(jsonBody.array(), jsonBody.arrayOffset() + jsonBody.position(), length)
+                : HttpRequest.BodyPublishers.fromPublisher(new BufferPublisher(jsonBody), length);
+        HttpResponse<byte[]> response = exchange(method, path, accessToken, body, length,
+                HttpResponse.BodyHandlers.ofByteArray());
+        return new HttpClientResponse(response.statusCode(), response.headers(), response.body(), null);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> sendAsync(String method, String path, String accessToken, byte[] jsonBody) {
+        HttpRequest request = request(method, path, accessToken,
+                jsonBody == null ? null : HttpRequest.BodyPublishers.ofByteArray(jsonBody));
+        Call call = Call.start(method, path, jsonBody == null ? 0 : jsonBody.length);
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).handle((response, failure) -> {
+            Call.end(call, response);
+            if (failure != null) {
+                throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+            }
+            return new HttpClientResponse(response.statusCode(), response.headers(), response.body(), null);
+        });
+    }
+
+    @Override
+    public ApiResponse stream(String method, String path, String accessToken) {
+        HttpResponse<InputStream> response = exchange(method, path, accessToken, null, 0,
+                HttpResponse.BodyHandlers.ofInputStream());
+        return new HttpClientResponse(response.statusCode(), response.headers(), null, response.body());
+    }
+
+    private <T> HttpResponse<T> exchange(String method, String path, String accessToken, HttpRequest.BodyPublisher body,
+                                         long requestBytes, HttpResponse.BodyHandler<T> handler) {
+        return limit.call(() -> exchangeNow(method, path, accessToken, body, requestBytes, handler));
+    }
+
+    private <T> HttpResponse<T> exchangeNow(String method, String path, String accessToken, HttpRequest.BodyPublisher body,
+                                            long requestBytes, HttpResponse.BodyHandler<T> handler) {
+        HttpRequest request = request(method, path, accessToken, body);
+        Call call = Call.start(method, path, requestBytes);
+        try {
+            HttpResponse<T> response = client.send(request, handler);
+            Call.end(call, response);
+            return response;
+        } catch (IOException e) {
+            Call.end(call, null);
+            throw new UncheckedIOException(method + " " + path + " failed", e);
+        } catch (InterruptedException e) {
+            Call.end(call, null);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(method + " " + path + " interrupted", e);
+        }
+    }
+
+    /**
+     * @param body sent as application/json, or null for no body
+     */
+    private HttpRequest request(String method, String path, String accessToken, HttpRequest.BodyPublisher body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUri + path)).timeout(REQUEST_TIMEOUT);
+        if (accessToken != null) {
+            builder.header(APIConfig.AUTHORIZATION_HEADER, APIConfig.getBearerToken(accessToken));
+        }
+        if (body == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", APIConfig.CONTENT_TYPE_JSON).method(method, body).build();
+    }
+
+    /**
+     * Publishes a buffer as read-only slices of at most {@link #SLICE_BYTES}, as the client
+     * asks for them. Every subscription starts from the buffer's position again, so a
+     * retried request resends the same bytes.
+     */
+    private static final class BufferPublisher implements Flow.Publisher<ByteBuffer> {
+
+        private static final int SLICE_BYTES = 1 << 20;
+
+        private final ByteBuffer body;
+
+        BufferPublisher(ByteBuffer body) {
+            this.body = body.asReadOnlyBuffer();
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private final ByteBuffer remaining = body.duplicate();
+                private long demand;
+                private boolean emitting;
+                private boolean done;
+
+                @Override
+                public void request(long n) {
+                    if (n <= 0) {
+                        cancel();
+                        subscriber.onError(new IllegalArgumentException("Demand must be positive: " + n));
+                        return;
+                    }
+                    synchronized (this) {
+                        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                        if (emitting) {
+                            // onNext asked for more; the loop below picks it up
+                            return;
+                        }
+                        emitting = true;
+                    }
+                    while (true) {
+                        ByteBuffer slice;
+                        synchronized (this) {
+                            if (done || demand == 0) {
+                                emitting = false;
+                                return;
+                            }
+                            if (!remaining.hasRemaining()) {
+                                done = true;
+                                emitting = false;
+                                break;
+                            }
+                            int length = Math.min(SLICE_BYTES, remaining.remaining());
+                            slice = remaining.slice(remaining.position(), length);
+                            remaining.position(remaining.position() + length);
+                            demand--;
+                        }
+                        subscriber.onNext(slice);
+                    }
+                    subscriber.onComplete();
+                }
+
+                @Override
+                public synchronized void cancel() {
+                    done = true;
+                }
+            });
+        }
+    }
+
+    /**
+     * Timing of one call while latency or metrics recording is on; null otherwise, so an
+     * unobserved call costs nothing extra
+     */
+    private static final class Call {
+
+        private final LatencyRegistry latency;
+        private final ApiMetrics metrics;
+        private final ApiCallEvent event;
+        private final String method;
+        private final String path;
+        private final long requestBytes;
+        private final long start;
+
+        private Call(LatencyRegistry latency, ApiMetrics metrics, String method, String path, long requestBytes) {
+            this.latency = latency;
+            this.metrics = metrics;
+            this.method = method;
+            this.path = path;
+            this.requestBytes = requestBytes;
+            if (metrics != null) {
+                event = new ApiCallEvent();
+                event.begin();
+            } else {
+                event = null;
+            }
+            start = System.nanoTime();
+        }
+
+        static Call start(String method, String path, long requestBytes) {
+            LatencyRegistry latency = latencyRegistry;
+            ApiMetrics metrics = apiMetrics;
+            if (latency == null && metrics == null) {
+                return null;
+            }
+            return new Call(latency, metrics, method, path, requestBytes);
+        }
+
+        /**
+         * @param response null when no response arrived
+         */
+        static void end(Call call, HttpResponse<?> response) {
+            if (call == null) {
+                return;
+            }
+            long nanos = System.nanoTime() - call.start;
+            String endpoint = LatencyRegistry.endpointLabel(call.method, call.path);
+            int status = response == null ? 0 : response.statusCode();
+            long responseBytes = response == null ? 0 : response.headers().firstValueAsLong("Content-Length").orElse(0);
+            if (call.latency != null && response != null) {
+                call.latency.record(endpoint, status, nanos);
+            }
+            if (call.metrics == null) {
+                return;
+            }
+            if (response == null) {
+                call.metrics.recordError(endpoint, call.requestBytes, nanos);
+            } else {
+                call.metrics.recordCall(endpoint, status, call.requestBytes, responseBytes, nanos);
+            }
+            ApiCallEvent event = call.event;
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = endpoint;
+                event.method = call.method;
+                event.path = call.path;
+                event.status = status;
+                event.requestBytes = call.requestBytes;
+                event.responseBytes = responseBytes;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Either a body read into memory or, for {@link #stream}, the body still on the connection
+     */
+    private static final class HttpClientResponse implements ApiResponse {
+
+        private final int status;
+        private final HttpHeaders headers;
+        private byte[] body;
+        private InputStream stream;
+
+        HttpClientResponse(int status, HttpHeaders headers, byte[] body, InputStream stream) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.stream = stream;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return headers.firstValue(name).orElse(null);
+        }
+
+        @Override
+        public byte[] asByteArray() {
+            if (body == null) {
+                try (InputStream in = stream) {
+                    body = in.readAllBytes();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read the response body", e);
+                }
+                stream = null;
+            }
+            return body;
+        }
+
+        @Override
+        public String asString() {
+            return new String(asByteArray(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public InputStream asInputStream() {
+            return stream != null ? stream : new ByteArrayInputStream(asByteArray());
+        }
+    }
+}
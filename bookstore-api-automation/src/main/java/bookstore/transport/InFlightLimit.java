@@ -0,0 +1,52 @@
+package bookstore.transport;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many requests a transport has on the wire at once. Callers past the cap wait
+ * for a permit here instead of inside the client: HttpClient 4's pool waits in a
+ * synchronized block, which pins a virtual thread's carrier, and the JDK client would open
+ * another HTTP/1.1 connection for every extra request.
+ */
+final class InFlightLimit {
+
+    private final Semaphore permits;
+    private final int max;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    InFlightLimit(int max) {
+        if (max <= 0) {
+            throw new IllegalArgumentException("In-flight limit must be positive: " + max);
+        }
+        this.permits = new Semaphore(max);
+        this.max = max;
+    }
+
+    /**
+     * Run a request once a permit is free, and free it again when the request returns
+     */
+    <T> T call(Supplier<T> request) {
+        permits.acquireUninterruptibly();
+        peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+        try {
+            return request.get();
+        } finally {
+            inUse.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Most permits held at once since the previous call
+     */
+    int takePeak() {
+        return peak.getAndSet(inUse.get());
+    }
+
+    int getMax() {
+        return max;
+    }
+}
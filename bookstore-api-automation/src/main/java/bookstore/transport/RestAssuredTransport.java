@@ -0,0 +1,186 @@
+package bookstore.transport;
+
+import bookstore.config.APIConfig;
+import bookstore.config.ApiClient;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * The default transport: RestAssured over the pooled HttpClient 4 of {@link ApiClient}, so
+ * every filter added there (logging, capture, latency, metrics) sees each request. Bodies
+ * are handed over as text, which is what the logging and capture filters print and record.
+ * RestAssured only blocks, so async sends run on virtual threads. Every transport over
+ * ApiClient's pool shares one {@link #getMaxInFlight() in-flight limit}, the pool's
+ * per-route size, so no request waits for a connection inside the pool.
+ */
+public class RestAssuredTransport implements Transport {
+
+    static final String NAME = "restassured";
+
+    private static final InFlightLimit POOL_LIMIT = new InFlightLimit(APIConfig.MAX_CONNECTIONS_PER_ROUTE);
+    private static final RestAssuredTransport SHARED =
+            new RestAssuredTransport(ApiClient::request, ApiClient::streamingRequest, POOL_LIMIT);
+    private static final RestAssuredTransport UNFILTERED =
+            new RestAssuredTransport(ApiClient::unfilteredRequest, ApiClient::unfilteredRequest, POOL_LIMIT);
+    private static final ExecutorService ASYNC = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Supplier<RequestSpecification> requests;
+    private final Supplier<RequestSpecification> streamingRequests;
+    private final InFlightLimit limit;
+
+    /**
+     * Requests built from a specification of the caller's, e.g. one pointing at a benchmark server
+     */
+    public RestAssuredTransport(RequestSpecification baseSpec) {
+        this(() -> RestAssured.given(baseSpec), () -> RestAssured.given(baseSpec),
+                new InFlightLimit(APIConfig.MAX_CONNECTIONS_PER_ROUTE));
+    }
+
+    private RestAssuredTransport(Supplier<RequestSpecification> requests, Supplier<RequestSpecification> streamingRequests,
+                                 InFlightLimit limit) {
+        this.requests = requests;
+        this.streamingRequests = streamingRequests;
+        this.limit = limit;
+    }
+
+    /**
+     * The transport over {@link ApiClient}'s shared specification
+     */
+    public static RestAssuredTransport shared() {
+        return SHARED;
+    }
+
+    /**
+     * The transport over {@link ApiClient#unfilteredRequest()}, for housekeeping calls that
+     * must stay out of latency windows, metrics and captures
+     */
+    public static RestAssuredTransport unfiltered() {
+        return UNFILTERED;
+    }
+
+    /**
+     * View a RestAssured response as an {@link ApiResponse}, for code that calls RestAssured directly
+     */
+    public static ApiResponse wrap(Response response) {
+        return new RestAssuredResponse(response);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getMaxInFlight() {
+        return limit.getMax();
+    }
+
+    @Override
+    public int takePeakInFlight() {
+        return limit.takePeak();
+    }
+
+    @Override
+    public ApiResponse send(String method, String path, String accessToken, byte[] jsonBody) {
+        return limit.call(() -> {
+            RequestSpecification request = authorized(requests.get(), accessToken);
+            if (jsonBody != null) {
+                request.contentType(APIConfig.CONTENT_TYPE_JSON).body(new String(jsonBody, StandardCharsets.UTF_8));
+            }
+            return wrap(execute(request, method, path));
+        });
+    }
+
+    /**
+     * RestAssured only takes heap bodies, so a direct or mapped buffer is copied first
+     */
+    @Override
+    public ApiResponse sendBuffer(String method, String path, String accessToken, ByteBuffer jsonBody) {
+        byte[] body = new byte[jsonBody.remaining()];
+        jsonBody.get(jsonBody.position(), body);
+        return send(method, path, accessToken, body);
+    }
+
+    @Override
+    public CompletableFuture<ApiResponse> sendAsync(String method, String path, String accessToken, byte[] jsonBody) {
+        return CompletableFuture.supplyAsync(() -> send(method, path, accessToken, jsonBody), ASYNC);
+    }
+
+    /**
+     * The permit is held until the headers have arrived; the body left on the connection is
+     * not counted against the limit
+     */
+    @Override
+    public ApiResponse stream(String method, String path, String accessToken) {
+        return limit.call(() -> wrap(execute(authorized(streamingRequests.get(), accessToken), method, path)));
+    }
+
+    /**
+     * RestAssured rethrows the client's checked exceptions, such as a connection pool
+     * timeout, without declaring them; they leave the transport unchecked, as from the JDK client
+     */
+    private static Response execute(RequestSpecification request, String method, String path) {
+        try {
+            return request.request(method, path);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof IOException io) {
+                throw new UncheckedIOException(method + " " + path + " failed", io);
+            }
+            throw new IllegalStateException(method + " " + path + " failed", e);
+        }
+    }
+
+    private static RequestSpecification authorized(RequestSpecification request, String accessToken) {
+        if (accessToken != null) {
+            request.header(APIConfig.AUTHORIZATION_HEADER, APIConfig.getBearerToken(accessToken));
+        }
+        return request;
+    }
+
+    private static final class RestAssuredResponse implements ApiResponse {
+
+        private final Response response;
+
+        RestAssuredResponse(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return response.getHeader(name);
+        }
+
+        @Override
+        public byte[] asByteArray() {
+            return response.asByteArray();
+        }
+
+        @Override
+        public String asString() {
+            return response.asString();
+        }
+
+        @Override
+        public InputStream asInputStream() {
+            return response.asInputStream();
+        }
+    }
+}
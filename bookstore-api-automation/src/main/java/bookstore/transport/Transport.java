@@ -0,0 +1,67 @@
+package bookstore.transport;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * HTTP engine underneath {@link bookstore.config.BookstoreApi}. Paths are relative to the
+ * configured base URI and bodies arrive already serialized to JSON, so an engine only moves
+ * bytes; the same step definitions and load engines run on either implementation.
+ */
+public interface Transport {
+
+    /**
+     * Name as given to -Dapi.transport
+     */
+    String getName();
+
+    /**
+     * Most blocking requests this engine has on the wire at once, from
+     * -Dhttp.pool.max.per.route; callers past it wait for one to finish. I/O failures of
+     * any engine surface as {@link java.io.UncheckedIOException}.
+     */
+    int getMaxInFlight();
+
+    /**
+     * Most blocking requests this engine had on the wire at once since the previous call,
+     * e.g. to report how much of a run's concurrency reached the server
+     */
+    int takePeakInFlight();
+
+    /**
+     * Send one request and read the whole response
+     *
+     * @param accessToken bearer token, or null to omit the Authorization header
+     * @param jsonBody    request body sent as application/json, or null for none
+     */
+    ApiResponse send(String method, String path, String accessToken, byte[] jsonBody);
+
+    /**
+     * Like {@link #send}, with the body taken from a buffer's position to its limit. The
+     * buffer is not consumed and must not change until the response has arrived.
+     */
+    ApiResponse sendBuffer(String method, String path, String accessToken, ByteBuffer jsonBody);
+
+    /**
+     * Like {@link #send}, but completes on the engine's own threads instead of blocking the caller
+     */
+    CompletableFuture<ApiResponse> sendAsync(String method, String path, String accessToken, byte[] jsonBody);
+
+    /**
+     * Send a request without a body and return once the headers have arrived; the body is
+     * left on the connection for {@link ApiResponse#asInputStream()}
+     */
+    ApiResponse stream(String method, String path, String accessToken);
+
+    /**
+     * "restassured" (default) or "http2"; see -Dapi.transport
+     */
+    static Transport create(String name) {
+        return switch (name.toLowerCase()) {
+            case RestAssuredTransport.NAME -> RestAssuredTransport.shared();
+            case HttpClientTransport.NAME -> HttpClientTransport.shared();
+            default -> throw new IllegalArgumentException("Unknown transport '" + name + "'; expected "
+                    + RestAssuredTransport.NAME + " or " + HttpClientTransport.NAME);
+        };
+    }
+}
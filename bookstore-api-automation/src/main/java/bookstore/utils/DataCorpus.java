@@ -0,0 +1,235 @@
+package bookstore.utils;
+
+import com.github.javafaker.Faker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeded, pre-generated test data.
+ * <p>
+ * The corpus is generated once with a seeded Faker, or read back from a cache file written
+ * by an earlier run with the same seed and size. Threads then draw from plain arrays at the
+ * next index of one shared counter, so the hot path takes no lock and allocates nothing, even
+ * for the short-lived virtual threads the load engines start per arrival or user.
+ * <p>
+ * Emails embed a run id and a worker id next to a per-run sequence number, so they stay
+ * unique across threads, across worker processes and across runs against the same
+ * database. Pin -Ddata.run.id to reproduce a run's emails exactly (for example against
+ * a freshly started server).
+ */
+public class DataCorpus {
+
+    public static final long SEED = Long.parseLong(System.getProperty("data.seed", "20240101"));
+    public static final int SIZE = Integer.parseInt(System.getProperty("data.corpus.size", "10000"));
+    public static final String RUN_ID = System.getProperty("data.run.id", Long.toString(System.currentTimeMillis(), 36));
+    public static final String WORKER_ID = System.getProperty("data.worker.id", "w0");
+    public static final File CACHE_DIRECTORY = new File(System.getProperty("data.corpus.cache", "target/data-corpus"));
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int MIN_YEAR = 1900;
+    private static final int MAX_YEAR = 2024;
+
+    private final String[] emailLocalParts;
+    private final String[] emailDomains;
+    private final String[] emails;
+    private final String[] passwords;
+    private final String[] titles;
+    private final String[] authors;
+    private final String[] sentences;
+    private final int[] years;
+    private final int size;
+    private final String emailTag;
+
+    private final AtomicLong emailSequence = new AtomicLong();
+    private final AtomicLong nextIndex = new AtomicLong();
+
+    private static final class Holder {
+        static final DataCorpus INSTANCE = load(SEED, SIZE, RUN_ID, WORKER_ID, CACHE_DIRECTORY);
+    }
+
+    private DataCorpus(String[] emailLocalParts, String[] emailDomains, String[] passwords, String[] titles,
+                       String[] authors, String[] sentences, int[] years, String runId, String workerId) {
+        this.size = titles.length;
+        this.emailLocalParts = emailLocalParts;
+        this.emailDomains = emailDomains;
+        this.passwords = passwords;
+        this.titles = titles;
+        this.authors = authors;
+        this.sentences = sentences;
+        this.years = years;
+        this.emailTag = "+" + runId + "-" + workerId + "-";
+        this.emails = new String[size];
+        for (int i = 0; i < size; i++) {
+            emails[i] = emailLocalParts[i] + emailTag + i + "@" + emailDomains[i];
+        }
+    }
+
+    /**
+     * The process-wide corpus, loaded or generated on first use from the data.* system properties
+     */
+    public static DataCorpus get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Read the corpus for this seed and size from the cache directory, generating and
+     * caching it first if needed
+     */
+    public static DataCorpus load(long seed, int size, String runId, String workerId, File cacheDirectory) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Corpus size must be positive: " + size);
+        }
+        long start = System.nanoTime();
+        File cacheFile = new File(cacheDirectory, "corpus-" + seed + "-" + size + ".bin");
+        DataCorpus corpus = cacheFile.isFile() ? readCache(cacheFile, size, runId, workerId) : null;
+        String source = "cache " + cacheFile;
+        if (corpus == null) {
+            corpus = generate(seed, size, runId, workerId);
+            writeCache(corpus, cacheFile);
+            source = "seed " + seed;
+        }
+        System.out.println("[DATA] Corpus of " + size + " records loaded from " + source + " in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms (run id " + runId + ")");
+        return corpus;
+    }
+
+    /**
+     * A unique email; allocates only after every pre-built email has been handed out once
+     */
+    public String nextEmail() {
+        long sequence = emailSequence.getAndIncrement();
+        int index = (int) (sequence % size);
+        long cycle = sequence / size;
+        if (cycle == 0) {
+            return emails[index];
+        }
+        return emailLocalParts[index] + emailTag + index + "c" + cycle + "@" + emailDomains[index];
+    }
+
+    public String nextPassword() {
+        return passwords[nextIndex()];
+    }
+
+    public String nextTitle() {
+        return titles[nextIndex()];
+    }
+
+    public String nextAuthor() {
+        return authors[nextIndex()];
+    }
+
+    public String nextSentence() {
+        return sentences[nextIndex()];
+    }
+
+    public int nextYear() {
+        return years[nextIndex()];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int nextIndex() {
+        return (int) (nextIndex.getAndIncrement() % size);
+    }
+
+    private static DataCorpus generate(long seed, int size, String runId, String workerId) {
+        Faker faker = new Faker(new Random(seed));
+        String[] localParts = new String[size];
+        String[] domains = new String[size];
+        String[] passwords = new String[size];
+        String[] titles = new String[size];
+        String[] authors = new String[size];
+        String[] sentences = new String[size];
+        int[] years = new int[size];
+        for (int i = 0; i < size; i++) {
+            String email = faker.internet().emailAddress();
+            int at = email.indexOf('@');
+            localParts[i] = email.substring(0, at);
+            domains[i] = email.substring(at + 1);
+            passwords[i] = faker.internet().password(8, 16);
+            titles[i] = faker.book().title();
+            authors[i] = faker.book().author();
+            sentences[i] = faker.lorem().sentence();
+            years[i] = faker.number().numberBetween(MIN_YEAR, MAX_YEAR);
+        }
+        return new DataCorpus(localParts, domains, passwords, titles, authors, sentences, years, runId, workerId);
+    }
+
+    private static DataCorpus readCache(File cacheFile, int size, String runId, String workerId) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != FORMAT_VERSION || in.readInt() != size) {
+                return null;
+            }
+            String[] localParts = readStrings(in, size);
+            String[] domains = readStrings(in, size);
+            String[] passwords = readStrings(in, size);
+            String[] titles = readStrings(in, size);
+            String[] authors = readStrings(in, size);
+            String[] sentences = readStrings(in, size);
+            int[] years = new int[size];
+            for (int i = 0; i < size; i++) {
+                years[i] = in.readInt();
+            }
+            return new DataCorpus(localParts, domains, passwords, titles, authors, sentences, years, runId, workerId);
+        } catch (IOException e) {
+            System.err.println("Could not read data corpus cache " + cacheFile + ", regenerating: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeCache(DataCorpus corpus, File cacheFile) {
+        File directory = cacheFile.getAbsoluteFile().getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            System.err.println("Could not create data corpus cache directory: " + directory);
+            return;
+        }
+        try {
+            // Write to a temporary file first so concurrent workers never read a partial cache
+            File temporary = File.createTempFile("corpus-", ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(corpus.size);
+                writeStrings(out, corpus.emailLocalParts);
+                writeStrings(out, corpus.emailDomains);
+                writeStrings(out, corpus.passwords);
+                writeStrings(out, corpus.titles);
+                writeStrings(out, corpus.authors);
+                writeStrings(out, corpus.sentences);
+                for (int year : corpus.years) {
+                    out.writeInt(year);
+                }
+            }
+            Files.move(temporary.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write data corpus cache " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in, int size) throws IOException {
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+}
@@ -1,36 +1,37 @@
 package bookstore.utils;
 
-import com.github.javafaker.Faker;
-
+/**
+ * Test data for steps and load operations, drawn from the seeded {@link DataCorpus}
+ * rather than a shared Faker instance: Faker is not thread-safe and its providers are
+ * too slow to call per request under load.
+ */
 public class FakerDataUtils {
 
-    private static final Faker faker = new Faker();
-
     // User-related data generation
     public static String generateRandomEmail() {
-        return faker.internet().emailAddress();
+        return DataCorpus.get().nextEmail();
     }
 
     public static String generateRandomPassword() {
-        return faker.internet().password(8, 16);
+        return DataCorpus.get().nextPassword();
     }
 
     // Book-related data generation
     public static String generateRandomBookTitle() {
-        return faker.book().title();
+        return DataCorpus.get().nextTitle();
     }
 
     public static String generateRandomAuthor() {
-        return faker.book().author();
+        return DataCorpus.get().nextAuthor();
     }
 
     public static int generateRandomYear() {
-        return faker.number().numberBetween(1900, 2024);
+        return DataCorpus.get().nextYear();
     }
 
     // Text generation
     public static String generateRandomSentence() {
-        return faker.lorem().sentence();
+        return DataCorpus.get().nextSentence();
     }
 
-}
\ No newline at end of file
+}
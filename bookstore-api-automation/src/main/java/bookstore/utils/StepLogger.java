@@ -0,0 +1,16 @@
+package bookstore.utils;
+
+/**
+ * Console output for step definitions; disable with -Dstep.logging=false for load runs
+ * where thousands of threads would otherwise serialize on System.out.
+ */
+public class StepLogger {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("step.logging", "true"));
+
+    public static void log(String message) {
+        if (ENABLED) {
+            System.out.println(message);
+        }
+    }
+}
@@ -1,30 +1,42 @@
 package bookstore.hooks;
 
+import bookstore.cleanup.BookReaper;
+import bookstore.config.APIConfig;
+import bookstore.stub.BookstoreStubServer;
+import bookstore.stub.StubConfig;
 import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
 import io.cucumber.java.Scenario;
-import io.restassured.RestAssured;
-import io.restassured.config.RestAssuredConfig;
-import io.restassured.config.LogConfig;
 
 public class Hooks {
 
+    private static BookstoreStubServer stubServer;
+
+    @BeforeAll
+    public static void startStubServer() {
+        // -Pstub runs the suite against the in-JVM stub on the configured port instead of a live API
+        if (StubConfig.ENABLED) {
+            stubServer = BookstoreStubServer.start(StubConfig.fromSystemProperties(APIConfig.DEFAULT_PORT));
+        }
+    }
+
+    @AfterAll
+    public static void stopStubServer() {
+        // Reap what the run left behind while the API is still up
+        BookReaper.shared().reapRun();
+        if (stubServer != null) {
+            stubServer.close();
+        }
+    }
+
     @Before
     public void setUp(Scenario scenario) {
         System.out.println("==================================================");
         System.out.println("STARTING SCENARIO: " + scenario.getName());
         System.out.println("==================================================");
-
-        // Configure RestAssured
-        RestAssured.baseURI = "http://localhost:8000";
-        RestAssured.config = RestAssuredConfig.config()
-                .logConfig(LogConfig.logConfig()
-                        .enableLoggingOfRequestAndResponseIfValidationFails()
-                        .enablePrettyPrinting(true));
-
-        // Reset RestAssured filters and settings for each scenario
-        RestAssured.reset();
-        RestAssured.baseURI = "http://localhost:8000";
+        // RestAssured is configured once in ApiClient; no global state to reset per scenario
     }
 
     @After
@@ -41,9 +53,6 @@ public class Hooks {
         }
 
         System.out.println("==================================================");
-
-        // Clean up RestAssured
-        RestAssured.reset();
     }
 
     @Before("@database")
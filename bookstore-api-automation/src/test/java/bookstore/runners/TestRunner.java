@@ -7,7 +7,7 @@ import org.junit.runner.RunWith;
 @RunWith(Cucumber.class)
 @CucumberOptions(
         features = "src/test/resources/features",
-        glue = {"bookstore.stepdefs"},
+        glue = {"bookstore.stepdefs", "bookstore.hooks"},
         plugin = {
                 "pretty",
                 "html:target/cucumber-reports/Cucumber.html",
@@ -0,0 +1,95 @@
+package bookstore.stepdefs;
+
+import bookstore.auth.TokenPool;
+import bookstore.cleanup.ResourceRegistry;
+import bookstore.config.BookListReader;
+import bookstore.config.BookListResult;
+import bookstore.config.JsonPayloads;
+import bookstore.config.ParsedResponse;
+import bookstore.transport.ApiResponse;
+import bookstore.utils.FakerDataUtils;
+import bookstore.utils.StepLogger;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.lang.management.ManagementFactory;
+
+public class BookListSteps {
+
+    private int createdBookId = -1;
+    private BookListResult listResult;
+    private long allocatedBytes;
+
+    @Given("I have created a book to look for in the list")
+    public void i_have_created_a_book_to_look_for_in_the_list() {
+        ApiResponse response = ScenarioApi.get().createBook(TokenPool.shared().nextToken(), JsonPayloads.book(
+                FakerDataUtils.generateRandomBookTitle(), FakerDataUtils.generateRandomAuthor(),
+                FakerDataUtils.generateRandomYear(), FakerDataUtils.generateRandomSentence()));
+        Assert.assertEquals("Book creation failed: " + response.asString(), 200, response.getStatusCode());
+        createdBookId = new ParsedResponse(response).getInt("id");
+        ResourceRegistry.run().registerBook(createdBookId);
+        StepLogger.log("[STEP] Created book " + createdBookId + " to look for in the list");
+    }
+
+    @When("I stream the list of all books")
+    public void i_stream_the_list_of_all_books() {
+        stream(TokenPool.shared().nextToken());
+    }
+
+    @When("I stream the list of all books {int} times")
+    public void i_stream_the_list_of_all_books_times(int times) {
+        // The first read in a JVM also pays for class loading; keep the cheapest read's allocation
+        long fewestBytes = Long.MAX_VALUE;
+        for (int i = 0; i < times; i++) {
+            stream(TokenPool.shared().nextToken());
+            fewestBytes = Math.min(fewestBytes, allocatedBytes);
+        }
+        allocatedBytes = fewestBytes;
+    }
+
+    @When("I stream the list of all books without authentication")
+    public void i_stream_the_list_of_all_books_without_authentication() {
+        stream(null);
+    }
+
+    @Then("the book list response code should be {int}")
+    public void the_book_list_response_code_should_be(int code) {
+        Assert.assertEquals("GET /books/ status", code, listResult.getStatusCode());
+    }
+
+    @Then("every listed book should be valid")
+    public void every_listed_book_should_be_valid() {
+        if (listResult.getInvalidBooks() > 0) {
+            Assert.fail(listResult.getInvalidBooks() + " of " + listResult.getBooks() + " listed books are malformed, first "
+                    + listResult.getFirstInvalid());
+        }
+    }
+
+    @Then("the list should contain the created book")
+    public void the_list_should_contain_the_created_book() {
+        Assert.assertTrue("Book " + createdBookId + " is missing from GET /books/", listResult.isWatchedBookSeen());
+    }
+
+    @Then("the list should contain at least {int} books")
+    public void the_list_should_contain_at_least_books(int books) {
+        Assert.assertTrue("Expected at least " + books + " books but the list held " + listResult.getBooks(),
+                listResult.getBooks() >= books);
+    }
+
+    @Then("streaming the list should have allocated less than {int} bytes per book")
+    public void streaming_the_list_should_have_allocated_less_than_bytes_per_book(int bytesPerBook) {
+        long perBook = allocatedBytes / Math.max(1, listResult.getBooks());
+        StepLogger.log("[STEP] Allocated " + allocatedBytes / 1024 + " KB for " + listResult.getBooks() + " books ("
+                + perBook + " bytes per book, " + listResult.getBytes() / Math.max(1, listResult.getBooks()) + " bytes on the wire)");
+        Assert.assertTrue("Streaming allocated " + perBook + " bytes per book; the body is probably being buffered",
+                perBook < bytesPerBook);
+    }
+
+    private void stream(String accessToken) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        listResult = new BookListReader(createdBookId).read(ScenarioApi.get(), accessToken);
+        allocatedBytes = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        StepLogger.log("[STEP] GET /books/ returned " + listResult.getStatusCode() + ": " + listResult.format());
+    }
+}
@@ -1,62 +1,95 @@
 package bookstore.stepdefs;
 
+import bookstore.auth.PooledUser;
+import bookstore.auth.TokenPool;
+import bookstore.cleanup.BookReaper;
+import bookstore.cleanup.ResourceRegistry;
 import bookstore.config.APIConfig;
+import bookstore.config.BookstoreApi;
+import bookstore.config.ParsedResponse;
+import bookstore.transport.ApiResponse;
 import bookstore.utils.FakerDataUtils;
+import bookstore.utils.StepLogger;
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.*;
-import io.restassured.RestAssured;
-import io.restassured.response.Response;
 import org.junit.Assert;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class BookstoreApiSteps {
-    private Response response;
+    private static final boolean TOKEN_POOL_ENABLED = Boolean.parseBoolean(System.getProperty("token.pool.enabled", "true"));
+
+    private ApiResponse response;
+    private ParsedResponse parsedResponse;
     private String accessToken;
     private int createdBookId;
+    private final ResourceRegistry createdResources = new ResourceRegistry();
     private String currentEmail;
     private String currentPassword;
     private Map<String, String> userCredentials = new HashMap<>();
     private long operationStartTime;
     private long operationEndTime;
+    private boolean authScenario;
 
     static {
-        APIConfig.resetRestAssured();
-        APIConfig.enableConsoleLogging(); // Enable console logging for requests and responses
-        APIConfig.enableFileLogging("target/bookstore_api_test.log"); // Enable file logging for requests and responses
+        if (APIConfig.CONSOLE_LOGGING) {
+            APIConfig.enableConsoleLogging(); // Enable console logging for requests and responses
+        }
+        APIConfig.enableCapture(APIConfig.CAPTURE_FILE); // Capture sampled requests and responses asynchronously
+        APIConfig.enableLatencyRecording(); // Per-endpoint latency histograms for the SLO steps
+        APIConfig.enableMetrics(); // Prometheus counters and JFR events for every call
         APIConfig.printEnvironmentInfo(); // Print environment information
     }
 
+    @Before
+    public void detectAuthScenario(Scenario scenario) {
+        // Scenarios tagged @auth measure signup/login themselves; everything else borrows a pooled token
+        authScenario = scenario.getSourceTagNames().contains("@auth");
+    }
+
+    @After
+    public void reapCreatedBooks() {
+        // Books the scenario did not delete itself are removed in the background while the next scenario runs
+        BookReaper.shared().submit(createdResources);
+    }
+
     @When("I send a GET request to Health Endpoint")
     public void iSendAGETRequestToHealthEndpoint() {
-        System.out.println("[STEP] Sending GET request to: " + APIConfig.HEALTH_ENDPOINT);
-        response = RestAssured.get(APIConfig.HEALTH_ENDPOINT);
+        StepLogger.log("[STEP] Sending GET request to: " + APIConfig.HEALTH_ENDPOINT);
+        response = ScenarioApi.get().health();
     }
 
     @Then("the response code should be {int}")
     public void the_response_code_should_be(int code) {
-        System.out.println("[STEP] Asserting response code: expected=" + code + ", actual=" + response.getStatusCode());
-        if (response.getStatusCode() != code) {
-            System.out.println("[ERROR] Response body: " + response.asString());
+        int actual = response.getStatusCode();
+        StepLogger.log("[STEP] Asserting response code: expected=" + code + ", actual=" + actual);
+        if (actual != code) {
+            String body = response.asString();
+            StepLogger.log("[ERROR] Response body: " + body);
+            Assert.fail("Expected status code " + code + " but got " + actual + ". Response: " + body);
         }
-        Assert.assertEquals("Expected status code " + code + " but got " + response.getStatusCode() + ". Response: " + response.asString(),
-                code, response.getStatusCode());
     }
 
     @And("the response should contain {string} with value {string}")
     public void the_response_should_contain_with_value(String key, String value) {
-        System.out.println("[STEP] Asserting response contains key '" + key + "' with value '" + value + "'");
-        String actual = response.jsonPath().getString(key);
+        StepLogger.log("[STEP] Asserting response contains key '" + key + "' with value '" + value + "'");
+        String actual = parsedResponse().getString(key);
         if (!value.equals(actual)) {
-            System.out.println("[ERROR] Response body: " + response.asString());
+            String body = response.asString();
+            StepLogger.log("[ERROR] Response body: " + body);
+            Assert.fail("Expected key '" + key + "' to have value '" + value + "' but got '" + actual + "'. Response: " + body);
         }
-        Assert.assertEquals("Expected key '" + key + "' to have value '" + value + "' but got '" + actual + "'. Response: " + response.asString(),
-                value, actual);
     }
 
     @Then("the response should contain {string}")
     public void the_response_should_contain(String key) {
-        System.out.println("[STEP] Asserting response contains key '" + key + "'");
-        Assert.assertNotNull("Response does not contain key: " + key, response.jsonPath().getString(key));
+        StepLogger.log("[STEP] Asserting response contains key '" + key + "'");
+        if (!parsedResponse().contains(key)) {
+            Assert.fail("Response does not contain key: " + key);
+        }
     }
 
     @When("I sign up with a random email and password {string}")
@@ -64,16 +97,8 @@ public class BookstoreApiSteps {
         currentEmail = FakerDataUtils.generateRandomEmail();
         currentPassword = password;
 
-        Map<String, String> body = new HashMap<>();
-        body.put("email", currentEmail);
-        body.put("password", currentPassword);
-
-        System.out.println("[STEP] Signing up with random email: " + currentEmail);
-        System.out.println("[REQUEST BODY] " + body);
-        response = RestAssured.given()
-                .contentType(APIConfig.CONTENT_TYPE_JSON)
-                .body(body)
-                .post(APIConfig.SIGNUP_ENDPOINT);
+        StepLogger.log("[STEP] Signing up with random email: " + currentEmail);
+        response = signup(currentEmail, currentPassword);
 
         // Store credentials for later use
         userCredentials.put("email", currentEmail);
@@ -94,16 +119,8 @@ public class BookstoreApiSteps {
             currentPassword = password;
         }
 
-        Map<String, String> body = new HashMap<>();
-        body.put("email", email);
-        body.put("password", password);
-
-        System.out.println("[STEP] Signing up with email: " + email);
-        System.out.println("[REQUEST BODY] " + body);
-        response = RestAssured.given()
-                .contentType(APIConfig.CONTENT_TYPE_JSON)
-                .body(body)
-                .post(APIConfig.SIGNUP_ENDPOINT);
+        StepLogger.log("[STEP] Signing up with email: " + email);
+        response = signup(email, password);
 
         // Store credentials for later use
         userCredentials.put("email", email);
@@ -112,16 +129,8 @@ public class BookstoreApiSteps {
 
     @When("I sign up with same registered email and password {string}")
     public void iSignUpWithSameRegisteredEmailAndPassword(String password) {
-        Map<String, String> body = new HashMap<>();
-        body.put("email", currentEmail);
-        body.put("password", password);
-
-        System.out.println("[STEP] Signing up with email: " + currentEmail);
-        System.out.println("[REQUEST BODY] " + body);
-        response = RestAssured.given()
-                .contentType(APIConfig.CONTENT_TYPE_JSON)
-                .body(body)
-                .post(APIConfig.SIGNUP_ENDPOINT);
+        StepLogger.log("[STEP] Signing up with email: " + currentEmail);
+        response = signup(currentEmail, password);
 
         // Store credentials for later use
         userCredentials.put("email", currentEmail);
@@ -140,20 +149,12 @@ public class BookstoreApiSteps {
             password = userCredentials.getOrDefault("password", FakerDataUtils.generateRandomPassword());
         }
 
-        Map<String, String> body = new HashMap<>();
-        body.put("email", email);
-        body.put("password", password);
-
-        System.out.println("[STEP] Logging in with email: " + email);
-        System.out.println("[REQUEST BODY] " + body);
-        response = RestAssured.given()
-                .contentType(APIConfig.CONTENT_TYPE_JSON)
-                .body(body)
-                .post(APIConfig.LOGIN_ENDPOINT);
+        StepLogger.log("[STEP] Logging in with email: " + email);
+        response = ScenarioApi.get().login(email, password);
 
         if (response.getStatusCode() == 200) {
-            accessToken = response.jsonPath().getString("access_token");
-            System.out.println("[STEP] Received access token: " + accessToken);
+            accessToken = parsedResponse().getString("access_token");
+            StepLogger.log("[STEP] Received access token: " + accessToken);
         }
     }
 
@@ -167,7 +168,11 @@ public class BookstoreApiSteps {
 
     @Given("I am logged in with random credentials")
     public void i_am_logged_in_with_random_credentials() {
-        operationStartTime = System.currentTimeMillis(); // Start timing
+        operationStartTime = System.nanoTime(); // Start timing
+        if (usePooledCredentials()) {
+            return;
+        }
+
         // Generate random credentials
         String email = FakerDataUtils.generateRandomEmail();
         String password = FakerDataUtils.generateRandomPassword();
@@ -183,15 +188,19 @@ public class BookstoreApiSteps {
 
     @Then("all operations should complete within acceptable time limits")
     public void all_operations_should_complete_within_acceptable_time_limits() {
-        operationEndTime = System.currentTimeMillis();
-        long elapsedMillis = operationEndTime - operationStartTime;
-        System.out.println("[PERFORMANCE] Total elapsed time: " + elapsedMillis + " ms");
+        operationEndTime = System.nanoTime();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(operationEndTime - operationStartTime);
+        StepLogger.log("[PERFORMANCE] Total elapsed time: " + elapsedMillis + " ms");
         // Acceptable time limit: 2000 ms (2 seconds)
         Assert.assertTrue("Operations took too long: " + elapsedMillis + " ms", elapsedMillis <= 2000);
     }
 
     @Given("I am logged in as {string} with password {string}")
     public void i_am_logged_in_as_with_password(String email, String password) {
+        if ("RANDOM_EMAIL".equals(email) && "RANDOM_PASSWORD".equals(password) && usePooledCredentials()) {
+            return;
+        }
+
         // Handle placeholders
         if ("RANDOM_EMAIL".equals(email)) {
             email = FakerDataUtils.generateRandomEmail();
@@ -201,17 +210,10 @@ public class BookstoreApiSteps {
         }
 
         // Always sign up the user before login to ensure the user exists
-        Map<String, String> body = new HashMap<>();
-        body.put("email", email);
-        body.put("password", password);
+        StepLogger.log("[STEP] (Auto) Signing up with email: " + email);
+        signup(email, password);
 
-        System.out.println("[STEP] (Auto) Signing up with email: " + email);
-        RestAssured.given()
-                .contentType(APIConfig.CONTENT_TYPE_JSON)
-                .body(body)
-                .post(APIConfig.SIGNUP_ENDPOINT);
-
-        System.out.println("[STEP] Logging in as: " + email);
+        StepLogger.log("[STEP] Logging in as: " + email);
         i_login_with_email_and_password(email, password);
         Assert.assertNotNull(accessToken);
     }
@@ -227,25 +229,18 @@ public class BookstoreApiSteps {
         }
 
         // Create complete book payload matching the working API structure
-        Map<String, Object> body = new HashMap<>();
-        body.put("name", title); // Using "name" instead of "title" to match working API
-        body.put("author", author);
-        body.put("published_year", FakerDataUtils.generateRandomYear());
-        body.put("book_summary", FakerDataUtils.generateRandomSentence());
-
-        System.out.println("[STEP] Creating book with name: " + title + ", author: " + author);
-        System.out.println("[REQUEST BODY] " + body);
-        response = RestAssured.given()
-                .header(APIConfig.AUTHORIZATION_HEADER, APIConfig.getBearerToken(accessToken))
-                .contentType(APIConfig.CONTENT_TYPE_JSON)
-                .body(body)
-                .post(APIConfig.BOOKS_ENDPOINT);
+        Map<String, Object> body = BookstoreApi.bookBody(title, author);
+
+        StepLogger.log("[STEP] Creating book with name: " + title + ", author: " + author);
+        StepLogger.log("[REQUEST BODY] " + body);
+        response = ScenarioApi.get().createBook(accessToken, body);
 
         if (response.getStatusCode() == 200) {
-            createdBookId = response.jsonPath().getInt("id");
-            System.out.println("[STEP] Created book with id: " + createdBookId);
+            createdBookId = parsedResponse().getInt("id");
+            createdResources.registerBook(createdBookId);
+            StepLogger.log("[STEP] Created book with id: " + createdBookId);
         } else {
-            System.out.println("[ERROR] Failed to create book. Response: " + response.asString());
+            StepLogger.log("[ERROR] Failed to create book. Response: " + response.asString());
         }
     }
 
@@ -259,10 +254,8 @@ public class BookstoreApiSteps {
 
     @When("I get the created book by id")
     public void i_get_the_created_book_by_id() {
-        System.out.println("[STEP] Getting book by id: " + createdBookId);
-        response = RestAssured.given()
-                .header(APIConfig.AUTHORIZATION_HEADER, APIConfig.getBearerToken(accessToken))
-                .get(APIConfig.BOOKS_ENDPOINT + createdBookId);
+        StepLogger.log("[STEP] Getting book by id: " + createdBookId);
+        response = ScenarioApi.get().getBook(accessToken, createdBookId);
     }
 
     @When("I update the book title to {string}")
@@ -271,16 +264,11 @@ public class BookstoreApiSteps {
             newTitle = FakerDataUtils.generateRandomBookTitle();
         }
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("name", newTitle); // Using "name" instead of "title"
+        Map<String, Object> body = BookstoreApi.titleBody(newTitle);
 
-        System.out.println("[STEP] Updating book id " + createdBookId + " name to: " + newTitle);
-        System.out.println("[REQUEST BODY] " + body);
-        response = RestAssured.given()
-                .header(APIConfig.AUTHORIZATION_HEADER, APIConfig.getBearerToken(accessToken))
-                .contentType(APIConfig.CONTENT_TYPE_JSON)
-                .body(body)
-                .put(APIConfig.BOOKS_ENDPOINT + createdBookId);
+        StepLogger.log("[STEP] Updating book id " + createdBookId + " name to: " + newTitle);
+        StepLogger.log("[REQUEST BODY] " + body);
+        response = ScenarioApi.get().updateBook(accessToken, createdBookId, body);
     }
 
     @When("I update the book with random title")
@@ -291,15 +279,16 @@ public class BookstoreApiSteps {
 
     @When("I delete the book")
     public void i_delete_the_book() {
-        System.out.println("[STEP] Deleting book id: " + createdBookId);
-        response = RestAssured.given()
-                .header(APIConfig.AUTHORIZATION_HEADER, APIConfig.getBearerToken(accessToken))
-                .delete(APIConfig.BOOKS_ENDPOINT + createdBookId);
+        StepLogger.log("[STEP] Deleting book id: " + createdBookId);
+        response = ScenarioApi.get().deleteBook(accessToken, createdBookId);
+        if (response.getStatusCode() == 200) {
+            createdResources.unregisterBook(createdBookId);
+        }
     }
 
     @When("I get the deleted book by id")
     public void i_get_the_deleted_book_by_id() {
-        System.out.println("[STEP] Getting (deleted) book by id: " + createdBookId);
+        StepLogger.log("[STEP] Getting (deleted) book by id: " + createdBookId);
         i_get_the_created_book_by_id();
     }
 
@@ -308,18 +297,47 @@ public class BookstoreApiSteps {
         String title = FakerDataUtils.generateRandomBookTitle();
         String author = FakerDataUtils.generateRandomAuthor();
 
-        Map<String, Object> body = new HashMap<>();
-        body.put("name", title);
-        body.put("author", author);
-        body.put("published_year", FakerDataUtils.generateRandomYear());
-        body.put("book_summary", FakerDataUtils.generateRandomSentence());
-
-        System.out.println("[STEP] Creating book without auth - name: " + title + ", author: " + author);
-        System.out.println("[REQUEST BODY] " + body);
-        response = RestAssured.given()
-                .contentType(APIConfig.CONTENT_TYPE_JSON)
-                .body(body)
-                .post(APIConfig.BOOKS_ENDPOINT);
+        Map<String, Object> body = BookstoreApi.bookBody(title, author);
+
+        StepLogger.log("[STEP] Creating book without auth - name: " + title + ", author: " + author);
+        StepLogger.log("[REQUEST BODY] " + body);
+        response = ScenarioApi.get().createBook(null, body);
+    }
+
+    /**
+     * Body of the current response, parsed once however many fields the next steps read
+     */
+    private ParsedResponse parsedResponse() {
+        if (parsedResponse == null || parsedResponse.getResponse() != response) {
+            parsedResponse = new ParsedResponse(response);
+        }
+        return parsedResponse;
+    }
+
+    /**
+     * POST /signup, counting the user for the end-of-run cleanup report
+     */
+    private ApiResponse signup(String email, String password) {
+        ResourceRegistry.run().registerUser(email);
+        return ScenarioApi.get().signup(email, password);
+    }
+
+    /**
+     * Take a pre-registered user from the shared token pool instead of paying for signup and
+     * login; returns false when the pool is disabled or the scenario is an @auth scenario
+     */
+    private boolean usePooledCredentials() {
+        if (!TOKEN_POOL_ENABLED || authScenario) {
+            return false;
+        }
+        PooledUser user = TokenPool.shared().acquire();
+        currentEmail = user.getEmail();
+        currentPassword = user.getPassword();
+        userCredentials.put("email", currentEmail);
+        userCredentials.put("password", currentPassword);
+        accessToken = user.getAccessToken();
+        StepLogger.log("[STEP] Using pooled credentials: " + currentEmail);
+        return true;
     }
 
     // Method to get stored credentials (for debugging)
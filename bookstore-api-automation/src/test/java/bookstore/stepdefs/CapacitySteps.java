@@ -0,0 +1,53 @@
+package bookstore.stepdefs;
+
+import bookstore.load.CapacityLevel;
+import bookstore.load.CapacityResult;
+import bookstore.load.CapacityRunner;
+import bookstore.load.CapacitySearch;
+import bookstore.load.CapacitySlo;
+import bookstore.load.LoadOperation;
+import bookstore.load.LoadSession;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.io.File;
+
+public class CapacitySteps {
+
+    private LoadSession loadSession;
+    private CapacityResult capacityResult;
+
+    @Given("a capacity session with {int} seeded books")
+    public void a_capacity_session_with_seeded_books(int seedBooks) {
+        System.out.println("[STEP] Opening capacity session with " + seedBooks + " seeded books");
+        loadSession = LoadSession.open(seedBooks);
+    }
+
+    @When("I search for the capacity of {string} with a p99 objective of {int} ms and at most {double}% errors")
+    public void i_search_for_the_capacity_of(String operation, int p99Millis, double errorPercent) {
+        CapacitySearch search = CapacitySearch.fromSystemProperties().withSlo(new CapacitySlo(p99Millis, errorPercent / 100));
+        capacityResult = search.run(LoadOperation.fromLabel(operation), loadSession);
+        capacityResult.printSummary();
+        capacityResult.writeReport(new File(CapacityRunner.REPORT_DIRECTORY));
+    }
+
+    @Then("the maximum sustainable rate should be at least {int} requests per second")
+    public void the_maximum_sustainable_rate_should_be_at_least(int minimumRate) {
+        double rate = capacityResult.getMaxSustainableRate();
+        System.out.println("[PERFORMANCE] " + capacityResult.getOperation().getLabel() + " max sustainable rate: " + rate + " rps");
+        Assert.assertTrue("Max sustainable rate " + rate + " rps is below " + minimumRate + " rps", rate >= minimumRate);
+    }
+
+    @Then("every capacity level within the objective should have met it")
+    public void every_capacity_level_within_the_objective_should_have_met_it() {
+        CapacitySlo slo = capacityResult.getSlo();
+        for (CapacityLevel level : capacityResult.getLevels()) {
+            if (level.isWithinSlo()) {
+                Assert.assertTrue("Level " + level.getOfferedRate() + " rps p99 " + level.getP99Millis() + " ms",
+                        level.getP99Millis() <= slo.getP99Millis());
+                Assert.assertTrue("Level " + level.getOfferedRate() + " rps error rate " + level.getErrorRate(),
+                        level.getErrorRate() <= slo.getMaxErrorRate());
+            }
+        }
+    }
+}
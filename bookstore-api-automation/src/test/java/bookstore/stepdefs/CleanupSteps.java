@@ -0,0 +1,62 @@
+package bookstore.stepdefs;
+
+import bookstore.auth.TokenPool;
+import bookstore.cleanup.BookReaper;
+import bookstore.cleanup.CleanupResult;
+import bookstore.cleanup.ResourceRegistry;
+import bookstore.config.BookstoreApi;
+import bookstore.config.ParsedResponse;
+import bookstore.transport.ApiResponse;
+import bookstore.utils.FakerDataUtils;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+public class CleanupSteps {
+
+    private final ResourceRegistry registry = new ResourceRegistry();
+    private int[] bookIds;
+    private CleanupResult cleanupResult;
+
+    @Given("{int} books registered for cleanup")
+    public void books_registered_for_cleanup(int books) {
+        String token = TokenPool.shared().nextToken();
+        bookIds = new int[books];
+        for (int i = 0; i < books; i++) {
+            ApiResponse response = ScenarioApi.get().createBook(token, BookstoreApi.bookBody(
+                    FakerDataUtils.generateRandomBookTitle(), FakerDataUtils.generateRandomAuthor()));
+            Assert.assertEquals("Book creation failed: " + response.asString(), 200, response.getStatusCode());
+            bookIds[i] = new ParsedResponse(response).getInt("id");
+            registry.registerBook(bookIds[i]);
+        }
+    }
+
+    @Given("{int} of the registered books have already been deleted")
+    public void of_the_registered_books_have_already_been_deleted(int books) {
+        String token = TokenPool.shared().nextToken();
+        for (int i = 0; i < books; i++) {
+            Assert.assertEquals(200, ScenarioApi.get().deleteBook(token, bookIds[i]).getStatusCode());
+        }
+    }
+
+    @When("the reaper deletes them with {int} in flight in batches of {int}")
+    public void the_reaper_deletes_them_with_in_flight_in_batches_of(int concurrency, int batchSize) {
+        cleanupResult = new BookReaper(concurrency, batchSize, () -> TokenPool.shared().nextToken()).reap(registry);
+        cleanupResult.printSummary();
+        Assert.assertEquals("Books still registered after the reap", 0, registry.getBookCount());
+    }
+
+    @Then("{int} books should have been deleted and {int} already gone")
+    public void books_should_have_been_deleted_and_already_gone(int deleted, int alreadyGone) {
+        Assert.assertEquals("Failed deletes, first: " + cleanupResult.getFirstFailure(), 0, cleanupResult.getFailed());
+        Assert.assertEquals("Deleted books", deleted, cleanupResult.getDeleted());
+        Assert.assertEquals("Books already gone", alreadyGone, cleanupResult.getAlreadyGone());
+    }
+
+    @Then("none of the registered books should exist any more")
+    public void none_of_the_registered_books_should_exist_any_more() {
+        String token = TokenPool.shared().nextToken();
+        for (int bookId : bookIds) {
+            Assert.assertEquals("GET /books/" + bookId + " status", 404, ScenarioApi.get().getBook(token, bookId).getStatusCode());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package bookstore.stepdefs;
+
+import bookstore.distributed.DistributedLoadResult;
+import bookstore.distributed.LoadCoordinator;
+import bookstore.distributed.LocalWorkerLauncher;
+import bookstore.load.LoadOperation;
+import bookstore.load.LoadRunner;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+public class DistributedLoadSteps {
+    private static final int MAX_CONCURRENCY = Integer.parseInt(System.getProperty("load.concurrency", "1000"));
+
+    private int workerCount;
+    private int seedBooks;
+    private DistributedLoadResult result;
+
+    @Given("a load coordinator with {int} local workers and {int} seeded books each")
+    public void a_load_coordinator_with_local_workers(int workers, int books) {
+        workerCount = workers;
+        seedBooks = books;
+    }
+
+    @When("the workers offer {string} at {int} requests per second for {int} seconds")
+    public void the_workers_offer_at_requests_per_second_for_seconds(String operation, int rps, int seconds) throws IOException {
+        the_workers_offer_after_warm_up(operation, rps, seconds, 0);
+    }
+
+    @When("the workers offer {string} at {int} requests per second for {int} seconds after a {int} second warm-up")
+    public void the_workers_offer_after_warm_up(String operation, int rps, int seconds, int warmupSeconds) throws IOException {
+        System.out.println("[STEP] Distributing " + operation + " at " + rps + " rps across " + workerCount + " worker JVMs");
+        List<Process> workers = List.of();
+        try (LoadCoordinator coordinator = new LoadCoordinator(0, workerCount, LoadOperation.fromLabel(operation), rps,
+                Duration.ofSeconds(seconds), Duration.ofSeconds(warmupSeconds), MAX_CONCURRENCY, seedBooks)) {
+            workers = LocalWorkerLauncher.launch(workerCount, coordinator.getPort(), new File(LoadRunner.REPORT_DIRECTORY));
+            result = coordinator.run();
+        } finally {
+            LocalWorkerLauncher.awaitExit(workers, Duration.ofSeconds(30));
+        }
+        result.printSummary();
+        result.writeReport(new File(LoadRunner.REPORT_DIRECTORY));
+    }
+
+    @Then("every worker should have reported back")
+    public void every_worker_should_have_reported_back() {
+        Assert.assertTrue("Workers failed: " + result.getFailedWorkers(), result.getFailedWorkers().isEmpty());
+        Assert.assertEquals("Workers that sent a summary: " + result.getRequestsByWorker().keySet(),
+                workerCount, result.getRequestsByWorker().size());
+    }
+
+    @Then("the merged load run should have no failed requests")
+    public void the_merged_load_run_should_have_no_failed_requests() {
+        System.out.println("[STEP] Asserting merged load run had no failures: " + result.getStatusCounts());
+        Assert.assertEquals("Failed requests across workers. Status counts: " + result.getStatusCounts(),
+                0, result.getFailedRequests());
+    }
+
+    @Then("the merged load run p{double} response time should be below {int} ms")
+    public void the_merged_load_run_response_time_should_be_below_ms(double percentile, int limitMillis) {
+        double actual = result.getResponseTimePercentileMillis(percentile);
+        System.out.println("[PERFORMANCE] Merged p" + percentile + " response time from intended start: " + actual + " ms");
+        Assert.assertTrue("Merged p" + percentile + " response time " + actual + " ms exceeds " + limitMillis + " ms",
+                actual <= limitMillis);
+    }
+}
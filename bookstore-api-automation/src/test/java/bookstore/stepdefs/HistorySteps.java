@@ -0,0 +1,126 @@
+package bookstore.stepdefs;
+
+import bookstore.history.EndpointSeries;
+import bookstore.history.RegressionCheck;
+import bookstore.history.RegressionDetector;
+import bookstore.history.RunHistory;
+import bookstore.history.RunRecord;
+import bookstore.metrics.LatencyRegistry;
+import io.cucumber.java.en.*;
+import org.HdrHistogram.Histogram;
+import org.junit.Assert;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class HistorySteps {
+
+    private static final String LABEL = "history.feature";
+    private static final int CALLS_PER_RUN = 2000;
+    // Spread of the synthetic latencies: log-normal with this sigma, roughly what a healthy endpoint shows
+    private static final double SIGMA = 0.3;
+
+    private Path historyFile;
+    private long startedAtMillis = System.currentTimeMillis();
+    private final Random random = new Random(42);
+
+    @Given("a run history of {int} runs where {string} takes about {int} ms")
+    public void a_run_history_of_runs_where_takes_about_ms(int runs, String endpoint, int medianMillis) throws IOException {
+        historyFile = Path.of("target", "history", "history-" + System.nanoTime() + ".hist");
+        Files.deleteIfExists(historyFile);
+        for (int i = 0; i < runs; i++) {
+            appendSyntheticRun(endpoint, medianMillis);
+        }
+    }
+
+    @When("a run where {string} takes about {int} ms is appended")
+    public void a_run_where_takes_about_ms_is_appended(String endpoint, int medianMillis) throws IOException {
+        appendSyntheticRun(endpoint, medianMillis);
+    }
+
+    @Then("{string} should be flagged as a regression against the last {int} runs")
+    public void should_be_flagged_as_a_regression_against_the_last_runs(String endpoint, int baselineRuns) throws IOException {
+        RegressionCheck check = checkLatestRun(endpoint, baselineRuns);
+        Assert.assertTrue("Expected a regression, effect " + check.getEffect() + ", p " + check.getPValue(), check.isRegression());
+    }
+
+    @Then("{string} should not be flagged against the last {int} runs")
+    public void should_not_be_flagged_against_the_last_runs(String endpoint, int baselineRuns) throws IOException {
+        RegressionCheck check = checkLatestRun(endpoint, baselineRuns);
+        Assert.assertFalse("Unexpected regression, effect " + check.getEffect() + ", p " + check.getPValue(), check.isRegression());
+    }
+
+    @Then("indexing the history and reading the p99 trend of {string} should take less than {int} ms")
+    public void indexing_the_history_and_reading_the_p99_trend_should_take_less_than_ms(String endpoint, int limitMillis)
+            throws IOException {
+        // The first open in a JVM also pays for class loading; keep the fastest of a few
+        long fastestNanos = Long.MAX_VALUE;
+        int runs = 0;
+        for (int attempt = 0; attempt < 5; attempt++) {
+            long start = System.nanoTime();
+            try (RunHistory history = RunHistory.open(historyFile)) {
+                long[] p99 = history.getSeries(endpoint).getPercentileColumn(99);
+                runs = p99.length;
+            }
+            fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+        }
+        double millis = fastestNanos / 1e6;
+        System.out.printf("[PERFORMANCE] Indexed %d runs (%d KB) and read a p99 trend in %.2f ms%n", runs,
+                Files.size(historyFile) / 1024, millis);
+        Assert.assertTrue("History query took " + millis + " ms", millis < limitMillis);
+    }
+
+    @When("I call the health endpoint {int} times and append the calls to the history as a run")
+    public void i_call_the_health_endpoint_times_and_append_the_calls_to_the_history_as_a_run(int calls) throws IOException {
+        historyFile = Path.of("target", "history", "health-" + System.nanoTime() + ".hist");
+        LatencyRegistry window = LatencyRegistry.shared().openWindow();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < calls; i++) {
+                Assert.assertEquals(200, ScenarioApi.get().health().getStatusCode());
+            }
+        } finally {
+            LatencyRegistry.shared().closeWindow(window);
+        }
+        RunHistory.append(historyFile, RunRecord.fromLatency(window, LABEL, System.currentTimeMillis(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    @Then("the latest run in the history should hold {int} {string} calls")
+    public void the_latest_run_in_the_history_should_hold_calls(int calls, String endpoint) throws IOException {
+        try (RunHistory history = RunHistory.open(historyFile)) {
+            Assert.assertEquals(1, history.getRunCount());
+            Assert.assertEquals(LABEL, history.getLabel(0));
+            EndpointSeries series = history.getSeries(endpoint);
+            Assert.assertNotNull("No " + endpoint + " in the history, only " + history.getEndpoints(), series);
+            Assert.assertEquals(calls, series.getCount(0));
+            Assert.assertEquals(calls, series.getHistogram(0).getTotalCount());
+            Assert.assertTrue("Throughput not recorded", series.getThroughput(0) > 0);
+            Assert.assertTrue("p99 below p50", series.getPercentile(99, 0) >= series.getPercentile(50, 0));
+        }
+    }
+
+    private void appendSyntheticRun(String endpoint, int medianMillis) throws IOException {
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < CALLS_PER_RUN; i++) {
+            histogram.recordValue((long) (medianMillis * 1000 * Math.exp(SIGMA * random.nextGaussian())));
+        }
+        startedAtMillis += 60_000;
+        RunHistory.append(historyFile, new RunRecord(LABEL, startedAtMillis, 30_000)
+                .addEndpoint(endpoint, histogram, CALLS_PER_RUN / 30.0));
+    }
+
+    private RegressionCheck checkLatestRun(String endpoint, int baselineRuns) throws IOException {
+        try (RunHistory history = RunHistory.open(historyFile)) {
+            List<RegressionCheck> checks = new RegressionDetector(baselineRuns, 0.01, 0.56)
+                    .compare(history, history.getRunCount() - 1);
+            RegressionCheck.printTable(checks);
+            return checks.stream().filter(check -> check.getEndpoint().equals(endpoint)).findFirst()
+                    .orElseThrow(() -> new AssertionError("No check for " + endpoint));
+        }
+    }
+}
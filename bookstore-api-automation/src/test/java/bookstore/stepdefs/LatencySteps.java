@@ -0,0 +1,115 @@
+package bookstore.stepdefs;
+
+import bookstore.config.APIConfig;
+import bookstore.history.RegressionCheck;
+import bookstore.history.RegressionDetector;
+import bookstore.history.RunHistory;
+import bookstore.history.RunRecord;
+import bookstore.metrics.EndpointLatency;
+import bookstore.metrics.LatencyRegistry;
+import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.Before;
+import io.cucumber.java.BeforeAll;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.en.*;
+import org.HdrHistogram.Histogram;
+import org.junit.Assert;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+public class LatencySteps {
+
+    private static long runStartedAtMillis;
+
+    private LatencyRegistry scenarioLatency;
+    private Scenario scenario;
+
+    static {
+        APIConfig.enableLatencyRecording();
+    }
+
+    @BeforeAll
+    public static void markRunStart() {
+        runStartedAtMillis = System.currentTimeMillis();
+    }
+
+    @Before
+    public void openLatencyWindow(Scenario scenario) {
+        this.scenario = scenario;
+        scenarioLatency = LatencyRegistry.shared().openWindow();
+    }
+
+    @After
+    public void attachLatency(Scenario scenario) {
+        LatencyRegistry.shared().closeWindow(scenarioLatency);
+        if (!scenarioLatency.isEmpty()) {
+            scenario.attach(scenarioLatency.formatSummary().getBytes(StandardCharsets.UTF_8), "text/plain", "Latency percentiles");
+        }
+    }
+
+    @AfterAll
+    public static void writeLatencyReports() {
+        LatencyRegistry registry = LatencyRegistry.shared();
+        if (!registry.isEmpty()) {
+            System.out.println("=== Run Latency (ms) ===");
+            System.out.print(registry.formatSummary());
+            registry.writeReports(new File(APIConfig.LATENCY_REPORT_DIRECTORY));
+            if (APIConfig.HISTORY_ENABLED) {
+                appendToHistory(registry);
+            }
+        }
+    }
+
+    /**
+     * Keep this run in the run history and print how it compares with earlier runs of the same
+     * label. Regressions are only reported: every scenario has finished by now.
+     */
+    private static void appendToHistory(LatencyRegistry registry) {
+        Path file = Path.of(APIConfig.HISTORY_FILE);
+        long now = System.currentTimeMillis();
+        try {
+            RunHistory.append(file, RunRecord.fromLatency(registry, RunRecord.defaultLabel(), runStartedAtMillis,
+                    now - runStartedAtMillis));
+            try (RunHistory history = RunHistory.open(file)) {
+                int latest = history.getRunCount() - 1;
+                System.out.println("=== Run " + latest + " in " + file + " against its baseline ===");
+                RegressionCheck.printTable(RegressionDetector.fromSystemProperties().compare(history, latest));
+            }
+        } catch (IOException e) {
+            System.out.println("[HISTORY] Could not update " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Then("the p{double} latency of {string} should be below {int} ms")
+    public void the_latency_of_should_be_below_ms(double percentile, String endpoint, int limitMillis) {
+        EndpointLatency latency = scenarioLatency.get(endpoint);
+        Assert.assertNotNull("No calls to " + endpoint + " were recorded in this scenario. Recorded: "
+                + scenarioLatency.getEndpoints(), latency);
+        assertPercentile(endpoint, endpoint, latency.getHistogram(), percentile, limitMillis);
+    }
+
+    @Then("the p{double} latency of {string} with status {int} should be below {int} ms")
+    public void the_latency_of_with_status_should_be_below_ms(double percentile, String endpoint, int status, int limitMillis) {
+        EndpointLatency latency = scenarioLatency.get(endpoint);
+        Histogram histogram = latency == null ? null : latency.getHistogram(status);
+        Assert.assertNotNull("No " + status + " responses from " + endpoint + " were recorded in this scenario", histogram);
+        assertPercentile(endpoint, endpoint + " [" + status + "]", histogram, percentile, limitMillis);
+    }
+
+    private void assertPercentile(String endpoint, String label, Histogram histogram, double percentile, int limitMillis) {
+        double actual = histogram.getValueAtPercentile(percentile) / 1000.0;
+        System.out.println("[PERFORMANCE] p" + percentile + " latency of " + label + ": " + actual + " ms over "
+                + histogram.getTotalCount() + " calls");
+        if (actual > limitMillis) {
+            scenario.attach(scenarioLatency.formatDistribution(endpoint).getBytes(StandardCharsets.UTF_8), "text/plain",
+                    "Latency distribution " + endpoint);
+            Assert.fail(String.format("p%s latency of %s is %.2f ms, above the %d ms SLO (%d calls, p50=%.2f ms, max=%.2f ms)",
+                    percentile, label, actual, limitMillis, histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getMaxValue() / 1000.0));
+        }
+    }
+}
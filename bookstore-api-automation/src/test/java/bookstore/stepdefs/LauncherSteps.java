@@ -0,0 +1,37 @@
+package bookstore.stepdefs;
+
+import bookstore.launcher.FastLauncher;
+import bookstore.launcher.StartupTimer;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LauncherSteps {
+
+    private StartupTimer timer;
+    private final List<String> failures = new ArrayList<>();
+
+    @When("the launcher sends its first request and runs its smoke pass")
+    public void the_launcher_sends_its_first_request_and_runs_its_smoke_pass() {
+        // The suite's JVM started long ago, so there is no process-start phase to report
+        timer = new StartupTimer(-1);
+        failures.addAll(FastLauncher.firstRequest(timer));
+        failures.addAll(FastLauncher.smoke(timer));
+        timer.printSummary();
+    }
+
+    @Then("the launcher should have reported no failures")
+    public void the_launcher_should_have_reported_no_failures() {
+        Assert.assertEquals("Launcher failures: " + failures, 0, failures.size());
+    }
+
+    @Then("the launcher should have timed the {string} and {string} phases")
+    public void the_launcher_should_have_timed_the_phases(String first, String second) {
+        Assert.assertEquals(List.of(first, second), timer.getPhases());
+        Assert.assertTrue(timer.getMillis(first) > 0);
+        Assert.assertTrue(timer.getMillis(second) > 0);
+        Assert.assertEquals(timer.getMillis(first) + timer.getMillis(second), timer.getTotalMillis(), 0.001);
+    }
+}
@@ -0,0 +1,54 @@
+package bookstore.stepdefs;
+
+import bookstore.config.ApiClient;
+import bookstore.load.LoadOperation;
+import bookstore.load.LoadResult;
+import bookstore.load.LoadRunner;
+import bookstore.load.LoadSession;
+import bookstore.load.OpenLoopLoadEngine;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.io.File;
+import java.time.Duration;
+
+public class LoadSteps {
+    private static final int MAX_CONCURRENCY = Integer.parseInt(System.getProperty("load.concurrency", "1000"));
+
+    private LoadSession loadSession;
+    private LoadResult loadResult;
+
+    @Given("a load session with {int} seeded books")
+    public void a_load_session_with_seeded_books(int seedBooks) {
+        System.out.println("[STEP] Opening load session with " + seedBooks + " seeded books");
+        loadSession = LoadSession.open(seedBooks);
+    }
+
+    @When("I offer {string} at {int} requests per second for {int} seconds")
+    public void i_offer_at_requests_per_second_for_seconds(String operation, int rps, int seconds) {
+        if (loadSession == null) {
+            loadSession = LoadSession.open(0);
+        }
+        OpenLoopLoadEngine engine = new OpenLoopLoadEngine(LoadOperation.fromLabel(operation), rps,
+                Duration.ofSeconds(seconds), MAX_CONCURRENCY);
+        loadResult = engine.run(loadSession);
+        loadResult.printSummary();
+        ApiClient.printPoolStats();
+        loadResult.writeReport(new File(LoadRunner.REPORT_DIRECTORY));
+    }
+
+    @Then("the load run should have no failed requests")
+    public void the_load_run_should_have_no_failed_requests() {
+        System.out.println("[STEP] Asserting load run had no failures: " + loadResult.getStatusCounts());
+        Assert.assertEquals("Failed requests during load run. Status counts: " + loadResult.getStatusCounts()
+                + ", errors: " + loadResult.getErrorCount(), 0, loadResult.getFailedRequests());
+    }
+
+    @Then("the load run p{double} response time should be below {int} ms")
+    public void the_load_run_response_time_should_be_below_ms(double percentile, int limitMillis) {
+        double actual = loadResult.getResponseTimePercentileMillis(percentile);
+        System.out.println("[PERFORMANCE] p" + percentile + " response time from intended start: " + actual + " ms");
+        Assert.assertTrue("p" + percentile + " response time " + actual + " ms exceeds " + limitMillis + " ms",
+                actual <= limitMillis);
+    }
+}
@@ -0,0 +1,121 @@
+package bookstore.stepdefs;
+
+import bookstore.config.APIConfig;
+import bookstore.metrics.PrometheusExporter;
+import io.cucumber.java.After;
+import io.cucumber.java.en.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MetricsSteps {
+
+    private static PrometheusExporter exporter;
+
+    private String scrape;
+    private Recording recording;
+
+    static {
+        APIConfig.enableMetrics();
+    }
+
+    @Given("the Prometheus metrics endpoint is running")
+    public void the_prometheus_metrics_endpoint_is_running() {
+        synchronized (MetricsSteps.class) {
+            if (exporter == null) {
+                exporter = PrometheusExporter.serve(APIConfig.enableMetrics(), 0);
+            }
+        }
+    }
+
+    @When("I scrape the Prometheus metrics endpoint")
+    public void i_scrape_the_prometheus_metrics_endpoint() throws IOException, InterruptedException {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + exporter.getPort() + "/metrics")).build(), HttpResponse.BodyHandlers.ofString());
+        Assert.assertEquals("Metrics endpoint status", 200, response.statusCode());
+        Assert.assertEquals(PrometheusExporter.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(null));
+        scrape = response.body();
+    }
+
+    @Then("the metrics should count at least {int} {string} response(s) with status {int}")
+    public void the_metrics_should_count_responses_with_status(int minimum, String endpoint, int status) {
+        String prefix = "bookstore_api_requests_total{" + labels(endpoint) + ",status=\"" + status + "\"} ";
+        long count = sample(prefix);
+        Assert.assertTrue("Expected at least " + minimum + " " + endpoint + " " + status + " responses but the metrics show "
+                + count + ":\n" + scrape, count >= minimum);
+    }
+
+    @Then("the metrics should include a latency histogram for {string}")
+    public void the_metrics_should_include_a_latency_histogram_for(String endpoint) {
+        long count = sample("bookstore_api_request_duration_seconds_count{" + labels(endpoint) + "} ");
+        long infinite = sample("bookstore_api_request_duration_seconds_bucket{" + labels(endpoint) + ",le=\"+Inf\"} ");
+        Assert.assertTrue("No latency observations for " + endpoint + ":\n" + scrape, count > 0);
+        Assert.assertEquals("The +Inf bucket must hold every observation", count, infinite);
+    }
+
+    @Given("a flight recording of Bookstore events is running")
+    public void a_flight_recording_of_bookstore_events_is_running() {
+        recording = new Recording();
+        recording.setName("bookstore-scenario");
+        recording.enable("bookstore.ApiCall");
+        recording.enable("bookstore.TokenRefresh");
+        recording.enable("bookstore.CaptureDrop");
+        recording.start();
+    }
+
+    @Then("the flight recording should contain an API call event for {string} with status {int}")
+    public void the_flight_recording_should_contain_an_api_call_event(String endpoint, int status) throws IOException {
+        recording.stop();
+        Path file = Files.createTempFile("bookstore-scenario", ".jfr");
+        try {
+            recording.dump(file);
+            int calls = 0;
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals("bookstore.ApiCall")) {
+                    calls++;
+                    if (endpoint.equals(event.getString("endpoint")) && event.getInt("status") == status) {
+                        Assert.assertFalse("API call event without a duration", event.getDuration().isNegative());
+                        return;
+                    }
+                }
+            }
+            Assert.fail("No bookstore.ApiCall event for " + endpoint + " with status " + status + " among " + calls + " recorded calls");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @After
+    public void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static String labels(String endpoint) {
+        int space = endpoint.indexOf(' ');
+        return "method=\"" + endpoint.substring(0, space) + "\",endpoint=\"" + endpoint.substring(space + 1) + "\"";
+    }
+
+    /**
+     * Value of the sample line starting with prefix, or 0 when there is none
+     */
+    private long sample(String prefix) {
+        for (String line : scrape.split("\n")) {
+            if (line.startsWith(prefix)) {
+                return Long.parseLong(line.substring(prefix.length()).trim());
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,80 @@
+package bookstore.stepdefs;
+
+import bookstore.auth.TokenPool;
+import bookstore.config.ParsedResponse;
+import bookstore.payload.PayloadBuffers;
+import bookstore.payload.PayloadLevel;
+import bookstore.payload.PayloadSweep;
+import bookstore.payload.PayloadSweepResult;
+import bookstore.payload.PayloadTemplate;
+import bookstore.transport.ApiResponse;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class PayloadSteps {
+
+    private PayloadSweepResult result;
+
+    @When("I sweep request bodies of {string} with {int} senders, direct buffers from {string} and mapped files from {string}")
+    public void i_sweep_request_bodies(String sizes, int senders, String directThreshold, String mappedThreshold) {
+        PayloadSweep sweep = new PayloadSweep(PayloadSweep.parseSizes(sizes), senders, 8L << 20, 10, 200,
+                (int) PayloadSweep.parseSize(directThreshold), (int) PayloadSweep.parseSize(mappedThreshold),
+                Path.of("target/payload-buffers"));
+        result = sweep.run(ScenarioApi.get().getTransport(), TokenPool.shared()::nextToken);
+        result.printSummary();
+    }
+
+    @Then("every payload size should have completed without errors")
+    public void every_payload_size_should_have_completed_without_errors() {
+        for (PayloadLevel level : result.getLevels()) {
+            Assert.assertEquals(PayloadLevel.formatSize(level.getSize()) + " failed: " + level.getFirstFailure(),
+                    0, level.getFailedRequests());
+            Assert.assertTrue(level.getRequests() > 0);
+        }
+    }
+
+    @Then("the {string} bodies should have been sent from a {word} buffer")
+    public void the_bodies_should_have_been_sent_from_a_buffer(String size, String kind) {
+        Assert.assertEquals(PayloadBuffers.Kind.valueOf(kind), level(size).getKind());
+    }
+
+    @Then("megabytes per second should grow from the smallest to the largest size")
+    public void megabytes_per_second_should_grow_from_the_smallest_to_the_largest_size() {
+        List<PayloadLevel> levels = result.getLevels();
+        PayloadLevel smallest = levels.get(0);
+        PayloadLevel largest = levels.get(levels.size() - 1);
+        Assert.assertTrue(String.format("%.2f MB/s at %s is not above %.2f MB/s at %s", largest.getMegabytesPerSecond(),
+                        PayloadLevel.formatSize(largest.getSize()), smallest.getMegabytesPerSecond(),
+                        PayloadLevel.formatSize(smallest.getSize())),
+                largest.getMegabytesPerSecond() > smallest.getMegabytesPerSecond());
+    }
+
+    @Then("every sweep book should hold the last {string} body sent to it")
+    public void every_sweep_book_should_hold_the_last_body_sent_to_it(String size) {
+        PayloadTemplate template = new PayloadTemplate((int) PayloadSweep.parseSize(size));
+        String token = TokenPool.shared().nextToken();
+        for (int bookId : result.getBookIds()) {
+            ApiResponse response = ScenarioApi.get().getBook(token, bookId);
+            Assert.assertEquals(200, response.getStatusCode());
+            ParsedResponse book = new ParsedResponse(response);
+            Assert.assertTrue("Unexpected title: " + book.getString("name"),
+                    book.getString("name").matches(PayloadTemplate.TITLE_PREFIX + "\\d{10}"));
+            Assert.assertEquals(template.getSummaryLength(), book.getString("book_summary").length());
+        }
+    }
+
+    @Then("the sweep should have sent the smallest valid book instead of {int} byte(s)")
+    public void the_sweep_should_have_sent_the_smallest_valid_book_instead_of_bytes(int bytes) {
+        Assert.assertNull(result.getLevel(bytes));
+        Assert.assertNotNull(result.getLevel(PayloadTemplate.MINIMUM_SIZE));
+    }
+
+    private PayloadLevel level(String size) {
+        PayloadLevel level = result.getLevel((int) PayloadSweep.parseSize(size));
+        Assert.assertNotNull("The sweep did not include " + size, level);
+        return level;
+    }
+}
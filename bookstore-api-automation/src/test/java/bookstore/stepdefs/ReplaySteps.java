@@ -0,0 +1,107 @@
+package bookstore.stepdefs;
+
+import bookstore.auth.TokenPool;
+import bookstore.capture.CaptureFilter;
+import bookstore.capture.CaptureWriter;
+import bookstore.cleanup.ResourceRegistry;
+import bookstore.config.ApiClient;
+import bookstore.config.BookstoreApi;
+import bookstore.config.ParsedResponse;
+import bookstore.replay.ReplayEngine;
+import bookstore.replay.ReplayMapper;
+import bookstore.replay.ReplayResult;
+import bookstore.replay.ReplayRunner;
+import bookstore.transport.ApiResponse;
+import bookstore.transport.RestAssuredTransport;
+import bookstore.utils.FakerDataUtils;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ReplaySteps {
+
+    private Path captureFile;
+    private long recordedRequests;
+    private ReplayResult replayResult;
+
+    @Given("a capture of {int} book lifecycles recorded {int} ms apart")
+    public void a_capture_of_book_lifecycles_recorded_ms_apart(int lifecycles, int gapMillis) throws IOException, InterruptedException {
+        captureFile = Path.of("target", "replay", "lifecycles-" + System.currentTimeMillis() + ".ndjson");
+        Files.createDirectories(captureFile.getParent());
+        Files.deleteIfExists(captureFile);
+        System.out.println("[STEP] Recording " + lifecycles + " book lifecycles into " + captureFile);
+
+        CaptureWriter writer = new CaptureWriter(captureFile.toFile(), 1024, CaptureWriter.OverflowPolicy.BLOCK);
+        CaptureFilter filter = new CaptureFilter(writer, 1.0, 1.0, true);
+        ApiClient.addFilters(filter);
+        // Capture is a RestAssured filter; the replay itself runs on the scenario's transport
+        BookstoreApi recorder = new BookstoreApi(RestAssuredTransport.shared());
+        try {
+            for (int i = 0; i < lifecycles; i++) {
+                String email = FakerDataUtils.generateRandomEmail();
+                String password = FakerDataUtils.generateRandomPassword();
+                ResourceRegistry.run().registerUser(email);
+                recorder.signup(email, password);
+                Thread.sleep(gapMillis);
+                String token = new ParsedResponse(recorder.login(email, password)).getString("access_token");
+                Thread.sleep(gapMillis);
+                ApiResponse created = recorder.createBook(token, BookstoreApi.bookBody(
+                        FakerDataUtils.generateRandomBookTitle(), FakerDataUtils.generateRandomAuthor()));
+                int bookId = new ParsedResponse(created).getInt("id");
+                Thread.sleep(gapMillis);
+                recorder.getBook(token, bookId);
+                Thread.sleep(gapMillis);
+                recorder.updateBook(token, bookId, BookstoreApi.titleBody(FakerDataUtils.generateRandomBookTitle()));
+                Thread.sleep(gapMillis);
+                recorder.deleteBook(token, bookId);
+                Thread.sleep(gapMillis);
+                recorder.getBook(token, bookId);
+                Thread.sleep(gapMillis);
+            }
+        } finally {
+            ApiClient.removeFilters(filter);
+            writer.close();
+        }
+        recordedRequests = writer.getWrittenCount();
+        System.out.println("[STEP] Captured " + recordedRequests + " requests");
+    }
+
+    @When("I replay the capture at {double} times speed")
+    public void i_replay_the_capture_at_times_speed(double speed) {
+        ReplayMapper mapper = new ReplayMapper(TokenPool.shared(), null);
+        replayResult = new ReplayEngine(ScenarioApi.get().getTransport(), speed, 64).replay(captureFile, mapper);
+        replayResult.printSummary();
+        replayResult.writeReport(new File(ReplayRunner.REPORT_DIRECTORY));
+    }
+
+    @Then("every captured request should have been replayed")
+    public void every_captured_request_should_have_been_replayed() {
+        Assert.assertEquals("Malformed capture lines", 0, replayResult.getMalformedLines());
+        Assert.assertEquals("Replayed requests", recordedRequests, replayResult.getTotalRequests());
+    }
+
+    @Then("every replayed request should have returned the recorded status")
+    public void every_replayed_request_should_have_returned_the_recorded_status() {
+        Assert.assertEquals("Replayed requests whose status differed from the capture; replayed statuses: "
+                + replayResult.getStatusCounts(), 0, replayResult.getStatusMismatches());
+    }
+
+    @Then("the replay should have kept the recorded pacing within {int} ms")
+    public void the_replay_should_have_kept_the_recorded_pacing_within_ms(int toleranceMillis) {
+        double targetMillis = replayResult.getRecordedSpanMillis() / replayResult.getSpeed();
+        double actualMillis = replayResult.getElapsedNanos() / 1e6;
+        System.out.printf("[PERFORMANCE] Replay took %.1f ms for a %.1f ms target, max start lag %.2f ms%n",
+                actualMillis, targetMillis, replayResult.getMaxStartLagMillis());
+        Assert.assertTrue("Replay finished before the scaled recorded span: " + actualMillis + " < " + targetMillis,
+                actualMillis >= targetMillis);
+        Assert.assertTrue("Replay took " + actualMillis + " ms for a " + targetMillis + " ms target",
+                actualMillis <= targetMillis + toleranceMillis);
+        Assert.assertTrue("A request started " + replayResult.getMaxStartLagMillis() + " ms after its intended time",
+                replayResult.getMaxStartLagMillis() <= toleranceMillis);
+        Assert.assertEquals("Requests sent out of their recorded start order", 0, replayResult.getOutOfOrderRequests());
+    }
+}
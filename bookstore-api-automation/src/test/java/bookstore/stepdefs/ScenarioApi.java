@@ -0,0 +1,32 @@
+package bookstore.stepdefs;
+
+import bookstore.config.BookstoreApi;
+
+/**
+ * The {@link BookstoreApi} the current scenario's steps call. Cucumber runs each scenario
+ * on one thread, so a scenario that picks another transport only changes its own calls;
+ * other scenarios and background work such as the book reaper and token pool stay on
+ * {@link BookstoreApi#shared()}.
+ */
+final class ScenarioApi {
+
+    private static final ThreadLocal<BookstoreApi> CURRENT = ThreadLocal.withInitial(BookstoreApi::shared);
+
+    private ScenarioApi() {
+    }
+
+    static BookstoreApi get() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Send this scenario's calls through another API until {@link #reset()}
+     */
+    static void use(BookstoreApi api) {
+        CURRENT.set(api);
+    }
+
+    static void reset() {
+        CURRENT.remove();
+    }
+}
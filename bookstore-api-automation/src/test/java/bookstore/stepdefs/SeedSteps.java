@@ -0,0 +1,41 @@
+package bookstore.stepdefs;
+
+import bookstore.seed.BulkSeeder;
+import bookstore.seed.SeedReport;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+public class SeedSteps {
+    private static final int SEED_WINDOW = Integer.parseInt(System.getProperty("seed.window", "200"));
+
+    private SeedReport seedReport;
+
+    @Given("the catalogue holds at least {int} books")
+    public void the_catalogue_holds_at_least_books(int books) {
+        System.out.println("[STEP] Seeding catalogue up to " + books + " books");
+        seedReport = new BulkSeeder("catalogue", SEED_WINDOW, 5).seed(0, books);
+        seedReport.printSummary();
+    }
+
+    @Given("the seeded dataset {string} holds {int} users and {int} books")
+    public void the_seeded_dataset_holds_users_and_books(String dataset, int users, int books) {
+        System.out.println("[STEP] Seeding dataset '" + dataset + "' up to " + users + " users and " + books + " books");
+        seedReport = new BulkSeeder(dataset, SEED_WINDOW, 5).seed(users, books);
+        seedReport.printSummary();
+    }
+
+    @Then("seeding should have had no failures")
+    public void seeding_should_have_had_no_failures() {
+        Assert.assertEquals("Seeding requests failed after retries (" + seedReport.getRetries() + " retries)",
+                0, seedReport.getFailures());
+    }
+
+    @Then("a second seeding run of {string} up to {int} users and {int} books should create nothing")
+    public void a_second_seeding_run_should_create_nothing(String dataset, int users, int books) {
+        SeedReport again = new BulkSeeder(dataset, SEED_WINDOW, 5).seed(users, books);
+        again.printSummary();
+        Assert.assertEquals("Users created by the repeated run", 0, again.getUsersCreated());
+        Assert.assertEquals("Books created by the repeated run", 0, again.getBooksCreated());
+        Assert.assertEquals("Books in the dataset", books, again.getBooksTotal());
+    }
+}
@@ -0,0 +1,46 @@
+package bookstore.stepdefs;
+
+import bookstore.config.APIConfig;
+import bookstore.config.BookstoreApi;
+import bookstore.transport.ApiResponse;
+import bookstore.transport.Transport;
+import io.cucumber.java.After;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class TransportSteps {
+
+    private List<CompletableFuture<ApiResponse>> inFlight;
+
+    @Given("requests go through the {string} transport")
+    public void requests_go_through_the_transport(String name) {
+        ScenarioApi.use(new BookstoreApi(Transport.create(name)));
+        System.out.println("[TRANSPORT] Using " + name);
+    }
+
+    @When("I send {int} async GET requests to Health Endpoint")
+    public void i_send_async_get_requests_to_health_endpoint(int requests) {
+        Transport transport = ScenarioApi.get().getTransport();
+        inFlight = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            inFlight.add(transport.sendAsync("GET", APIConfig.HEALTH_ENDPOINT, null, null));
+        }
+    }
+
+    @Then("all {int} async responses should have status {int}")
+    public void all_async_responses_should_have_status(int requests, int status) {
+        Assert.assertEquals(requests, inFlight.size());
+        for (CompletableFuture<ApiResponse> response : inFlight) {
+            Assert.assertEquals(status, response.join().getStatusCode());
+        }
+    }
+
+    @After
+    public void restoreTransport() {
+        ScenarioApi.reset();
+    }
+}
@@ -0,0 +1,108 @@
+package bookstore.stepdefs;
+
+import bookstore.config.ApiClient;
+import bookstore.config.BookstoreApi;
+import bookstore.load.VirtualUserExecutor;
+import bookstore.load.VirtualUserResult;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class VirtualUserSteps {
+
+    // bookstore.feature scenarios replayed step by step against a virtual user's own BookstoreApiSteps
+    private static final Map<String, Consumer<BookstoreApiSteps>> SCENARIOS = new LinkedHashMap<>();
+
+    static {
+        SCENARIOS.put("API Health Check Verification", steps -> {
+            steps.iSendAGETRequestToHealthEndpoint();
+            steps.the_response_code_should_be(200);
+            steps.the_response_should_contain_with_value("status", "up");
+        });
+        SCENARIOS.put("Successful User Login with Generated Credentials", steps -> {
+            steps.i_sign_up_with_random_email_and_password("testpass123");
+            steps.the_response_code_should_be(200);
+            steps.i_login_with_email_and_password("RANDOM_EMAIL", "testpass123");
+            steps.the_response_code_should_be(200);
+            steps.the_response_should_contain("access_token");
+        });
+        SCENARIOS.put("Complete Book Lifecycle Management", steps -> {
+            steps.i_am_logged_in_with_random_credentials();
+            steps.i_create_a_book_with_random_title_and_author();
+            steps.the_response_code_should_be(200);
+            steps.i_get_the_created_book_by_id();
+            steps.the_response_code_should_be(200);
+            steps.i_update_the_book_with_random_title();
+            steps.the_response_code_should_be(200);
+            steps.i_delete_the_book();
+            steps.the_response_code_should_be(200);
+            steps.i_get_the_deleted_book_by_id();
+            steps.the_response_code_should_be(404);
+        });
+        SCENARIOS.put("Basic Load Testing Simulation", steps -> {
+            steps.i_am_logged_in_with_random_credentials();
+            steps.i_create_a_book_with_random_title_and_author();
+            steps.i_get_the_created_book_by_id();
+            steps.i_update_the_book_with_random_title();
+            steps.i_get_the_created_book_by_id();
+            steps.i_delete_the_book();
+        });
+    }
+
+    private VirtualUserResult virtualUserResult;
+
+    @When("{int} virtual users each run the {string} scenario {int} times")
+    public void virtual_users_each_run_the_scenario_times(int users, String scenario, int iterations) {
+        virtual_users_each_run_the_scenario_times_over_a_second_ramp_up(users, scenario, iterations, 0);
+    }
+
+    @When("{int} virtual users each run the {string} scenario {int} times over a {int} second ramp-up")
+    public void virtual_users_each_run_the_scenario_times_over_a_second_ramp_up(int users, String scenario, int iterations, int rampUpSeconds) {
+        Consumer<BookstoreApiSteps> script = SCENARIOS.get(scenario);
+        Assert.assertNotNull("No virtual-user script for scenario '" + scenario + "'. Known: " + SCENARIOS.keySet(), script);
+
+        System.out.println("[STEP] Running '" + scenario + "' as " + users + " virtual users");
+        // Virtual user threads start without a scenario API of their own, so their steps use the shared one
+        VirtualUserExecutor executor = new VirtualUserExecutor(users, iterations, Duration.ofSeconds(rampUpSeconds),
+                BookstoreApi.shared().getTransport());
+        virtualUserResult = executor.run(BookstoreApiSteps::new, steps -> {
+            try {
+                script.accept(steps);
+            } finally {
+                // Only iterations that failed before their delete leave a book behind
+                steps.reapCreatedBooks();
+            }
+        });
+        virtualUserResult.printSummary();
+        ApiClient.printPoolStats();
+    }
+
+    @Then("every virtual user iteration should pass")
+    public void every_virtual_user_iteration_should_pass() {
+        Assert.assertEquals("Virtual user iterations failed: " + virtualUserResult.getFailureSamples(),
+                0, virtualUserResult.getFailedIterations());
+        Assert.assertEquals("Virtual user iterations went missing",
+                (long) virtualUserResult.getUsers() * virtualUserResult.getIterationsPerUser(),
+                virtualUserResult.getCompletedIterations() + virtualUserResult.getFailedIterations());
+    }
+
+    @Then("at least {int} virtual users should have been running at once")
+    public void at_least_virtual_users_should_have_been_running_at_once(int expected) {
+        System.out.println("[STEP] Peak running virtual users: " + virtualUserResult.getPeakRunningUsers());
+        Assert.assertTrue("Peak running virtual users was only " + virtualUserResult.getPeakRunningUsers(),
+                virtualUserResult.getPeakRunningUsers() >= expected);
+    }
+
+    @Then("at least {int} of their requests should have been in flight at once")
+    public void at_least_of_their_requests_should_have_been_in_flight_at_once(int expected) {
+        int peak = virtualUserResult.getPeakInFlightRequests();
+        System.out.println("[STEP] Peak requests in flight: " + peak + " (limit " + virtualUserResult.getMaxInFlightRequests() + ")");
+        Assert.assertTrue("Peak requests in flight was only " + peak, peak >= expected);
+        Assert.assertTrue("Requests in flight exceeded the transport limit: " + peak,
+                peak <= virtualUserResult.getMaxInFlightRequests());
+    }
+}
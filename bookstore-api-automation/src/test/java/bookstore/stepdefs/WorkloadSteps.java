@@ -0,0 +1,48 @@
+package bookstore.stepdefs;
+
+import bookstore.auth.TokenPool;
+import bookstore.load.WorkloadEngine;
+import bookstore.load.WorkloadMix;
+import bookstore.load.WorkloadOperation;
+import bookstore.load.WorkloadResult;
+import io.cucumber.datatable.DataTable;
+import io.cucumber.java.en.*;
+import org.junit.Assert;
+
+import java.time.Duration;
+
+public class WorkloadSteps {
+
+    private WorkloadMix workloadMix;
+    private WorkloadResult workloadResult;
+
+    @Given("the workload mix:")
+    public void the_workload_mix(DataTable table) {
+        workloadMix = WorkloadMix.fromTable(table.asLists());
+    }
+
+    @When("{int} virtual users run the workload mix for {int} seconds")
+    public void virtual_users_run_the_workload_mix_for_seconds(int users, int seconds) {
+        workloadResult = new WorkloadEngine(workloadMix, users, Duration.ofSeconds(seconds), Duration.ofSeconds(1))
+                .run(TokenPool.shared());
+        workloadResult.printSummary();
+    }
+
+    @Then("every workload operation should have succeeded")
+    public void every_workload_operation_should_have_succeeded() {
+        Assert.assertTrue("No workload operations ran", workloadResult.getTotalCount() > 0);
+        for (WorkloadOperation operation : WorkloadOperation.values()) {
+            Assert.assertEquals("Failed " + operation.getLabel() + " calls", 0, workloadResult.getFailures(operation));
+        }
+    }
+
+    @Then("the share of {string} calls should be within {int} percentage points of the mix")
+    public void the_share_of_calls_should_be_within_percentage_points_of_the_mix(String name, int points) {
+        WorkloadOperation operation = WorkloadOperation.fromName(name);
+        double expected = workloadMix.stationaryShares()[operation.ordinal()] * 100;
+        double actual = workloadResult.getShare(operation) * 100;
+        System.out.printf("[PERFORMANCE] %s share: %.1f%% (mix %.1f%%), %.1f rps%n", operation.getLabel(), actual, expected,
+                workloadResult.getThroughput(operation));
+        Assert.assertEquals(operation.getLabel() + " share of all calls, in percent", expected, actual, points);
+    }
+}
@@ -0,0 +1,28 @@
+@api @books @list
+Feature: Streaming Book List
+  As a Performance Engineer
+  I want GET /books/ read and validated as a stream
+  So that listing a large catalogue costs the same memory as listing a small one
+
+  @regression @positive
+  Scenario: A newly created book appears in the streamed list
+    Given I have created a book to look for in the list
+    When I stream the list of all books
+    Then the book list response code should be 200
+    And every listed book should be valid
+    And the list should contain the created book
+
+  @security @negative
+  Scenario: Listing books requires authentication
+    When I stream the list of all books without authentication
+    Then the book list response code should be 403
+
+  @load-engine
+  Scenario: A large catalogue is streamed without buffering the body
+    Given the catalogue holds at least 5000 books
+    When I stream the list of all books 3 times
+    Then the book list response code should be 200
+    And every listed book should be valid
+    And the list should contain at least 5000 books
+    And streaming the list should have allocated less than 200 bytes per book
+    And the p99 latency of "GET /books/ first book" should be below 1000 ms
@@ -131,6 +131,19 @@ Feature: Enhanced Bookstore API Testing with Faker Data
     And I delete the book
     Then all operations should complete within acceptable time limits
 
+  @performance @latency
+  Scenario: Per-Endpoint Latency Objectives
+    Given I am logged in with random credentials
+    When I create a book with random title and author
+    And I get the created book by id
+    And I update the book with random title
+    And I get the created book by id
+    And I delete the book
+    Then the p99 latency of "POST /books/" should be below 1000 ms
+    And the p99 latency of "GET /books/{id}" with status 200 should be below 1000 ms
+    And the p99 latency of "PUT /books/{id}" should be below 1000 ms
+    And the p99 latency of "DELETE /books/{id}" should be below 1000 ms
+
   @edge-cases @boundary
   Scenario: Empty and Null Value Handling
     Given I am logged in with random credentials
@@ -0,0 +1,17 @@
+@api @capacity
+Feature: Capacity Search
+  As a Performance Engineer
+  I want each build to search for the highest rate every key endpoint sustains within its objective
+  So that we track a capacity number and a throughput-vs-latency curve instead of a single pass/fail
+
+  Scenario Outline: Maximum sustainable throughput of <operation>
+    Given a capacity session with 50 seeded books
+    When I search for the capacity of "<operation>" with a p99 objective of 500 ms and at most 1% errors
+    Then the maximum sustainable rate should be at least <minimum> requests per second
+    And every capacity level within the objective should have met it
+
+    Examples:
+      | operation       | minimum |
+      | POST /login     | 5       |
+      | POST /books/    | 10      |
+      | GET /books/{id} | 10      |
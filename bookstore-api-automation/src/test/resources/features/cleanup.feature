@@ -0,0 +1,20 @@
+@api @cleanup
+Feature: Resource Cleanup
+  As a Test Engineer
+  I want every book a run creates to be deleted again once it is no longer needed
+  So that repeated runs do not leave the catalogue growing
+
+  @regression
+  Scenario: Registered books are deleted in concurrent batches
+    Given 25 books registered for cleanup
+    When the reaper deletes them with 4 in flight in batches of 10
+    Then 25 books should have been deleted and 0 already gone
+    And none of the registered books should exist any more
+
+  @regression
+  Scenario: Books deleted meanwhile count as already gone
+    Given 6 books registered for cleanup
+    And 2 of the registered books have already been deleted
+    When the reaper deletes them with 8 in flight in batches of 100
+    Then 4 books should have been deleted and 2 already gone
+    And none of the registered books should exist any more
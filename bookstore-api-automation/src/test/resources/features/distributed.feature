@@ -0,0 +1,13 @@
+@api @load-engine @distributed
+Feature: Distributed Load Generation
+  As a Performance Engineer
+  I want to spread one load run across several worker processes
+  So that the load generator is not limited by a single JVM's CPU and ports
+
+  @open-loop @books
+  Scenario: Book reads from three worker JVMs merged into one report
+    Given a load coordinator with 3 local workers and 10 seeded books each
+    When the workers offer "GET /books/{id}" at 30 requests per second for 10 seconds after a 10 second warm-up
+    Then every worker should have reported back
+    And the merged load run should have no failed requests
+    And the merged load run p99 response time should be below 2000 ms
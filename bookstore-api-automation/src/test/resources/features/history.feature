@@ -0,0 +1,27 @@
+@api @history
+Feature: Run History
+  As a Performance Engineer
+  I want every run's latency histograms and throughput kept in one history file
+  So that a slower run is caught statistically against its recent baseline instead of by a fixed threshold
+
+  @regression
+  Scenario: A slower run is flagged against its baseline window
+    Given a run history of 12 runs where "GET /books/{id}" takes about 10 ms
+    When a run where "GET /books/{id}" takes about 12 ms is appended
+    Then "GET /books/{id}" should be flagged as a regression against the last 10 runs
+
+  @regression
+  Scenario: A run within the baseline's noise is not flagged
+    Given a run history of 12 runs where "GET /books/{id}" takes about 10 ms
+    When a run where "GET /books/{id}" takes about 10 ms is appended
+    Then "GET /books/{id}" should not be flagged against the last 10 runs
+
+  @regression
+  Scenario: Trend queries over hundreds of runs take milliseconds
+    Given a run history of 500 runs where "GET /books/{id}" takes about 10 ms
+    Then indexing the history and reading the p99 trend of "GET /books/{id}" should take less than 100 ms
+
+  @regression
+  Scenario: Calls made against the API are kept with their latency and throughput
+    When I call the health endpoint 50 times and append the calls to the history as a run
+    Then the latest run in the history should hold 50 "GET /health" calls
@@ -0,0 +1,12 @@
+@api @launcher
+Feature: Fast-Start Launcher
+  As a Performance Engineer
+  I want smoke and load runs started without the test framework
+  So that a cold JVM reaches its first request in well under a second
+
+  @regression
+  Scenario: The launcher's smoke pass succeeds and times each phase
+    Given requests go through the "http2" transport
+    When the launcher sends its first request and runs its smoke pass
+    Then the launcher should have reported no failures
+    And the launcher should have timed the "first request" and "smoke" phases
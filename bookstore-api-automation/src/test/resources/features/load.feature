@@ -0,0 +1,28 @@
+@api @load-engine
+Feature: Open-Loop Load Generation
+  As a Performance Engineer
+  I want to offer Bookstore API operations at a constant arrival rate
+  So that latency is measured from each request's intended start and server stalls show up as queueing
+
+  @open-loop @books
+  Scenario: Book reads at a constant arrival rate
+    Given a load session with 20 seeded books
+    When I offer "GET /books/{id}" at 50 requests per second for 10 seconds
+    Then the load run should have no failed requests
+    And the load run p99 response time should be below 1000 ms
+
+  @open-loop @books @lifecycle
+  Scenario: Book lifecycle chains at a constant arrival rate
+    Given a load session with 0 seeded books
+    When I offer "book lifecycle" at 10 requests per second for 10 seconds
+    Then the load run should have no failed requests
+    And the load run p99 response time should be below 2000 ms
+
+  @open-loop @list
+  Scenario: Full catalogue listings at a constant arrival rate
+    Given the catalogue holds at least 5000 books
+    And a load session with 0 seeded books
+    When I offer "GET /books/" at 2 requests per second for 10 seconds
+    Then the load run should have no failed requests
+    And the load run p99 response time should be below 2000 ms
+    And the p99 latency of "GET /books/ first book" should be below 1000 ms
@@ -0,0 +1,19 @@
+@api @metrics
+Feature: Client-Side Metrics and Flight Recorder Events
+  As a Performance Engineer
+  I want every API call counted in Prometheus metrics and recorded as a JFR event
+  So that client-side numbers line up with server dashboards and load generator pauses
+
+  @regression
+  Scenario: API calls are counted in the Prometheus metrics
+    Given the Prometheus metrics endpoint is running
+    When I send a GET request to Health Endpoint
+    And I scrape the Prometheus metrics endpoint
+    Then the metrics should count at least 1 "GET /health" response with status 200
+    And the metrics should include a latency histogram for "GET /health"
+
+  @regression
+  Scenario: API calls are recorded as Flight Recorder events
+    Given a flight recording of Bookstore events is running
+    When I send a GET request to Health Endpoint
+    Then the flight recording should contain an API call event for "GET /health" with status 200
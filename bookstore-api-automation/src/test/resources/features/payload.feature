@@ -0,0 +1,22 @@
+@api @payload
+Feature: Payload Size Sweep
+  As a Performance Engineer
+  I want throughput and latency measured across request sizes from bytes to megabytes
+  So that I know how the API scales with the size of what clients send
+
+  @regression
+  Scenario: Throughput and latency are reported against request size
+    Given requests go through the "http2" transport
+    When I sweep request bodies of "100,4k,64k,1m" with 4 senders, direct buffers from "64k" and mapped files from "1m"
+    Then every payload size should have completed without errors
+    And the "4k" bodies should have been sent from a HEAP buffer
+    And the "64k" bodies should have been sent from a DIRECT buffer
+    And the "1m" bodies should have been sent from a MAPPED buffer
+    And megabytes per second should grow from the smallest to the largest size
+    And every sweep book should hold the last "1m" body sent to it
+
+  @regression
+  Scenario: Sizes below the smallest valid book are raised to it
+    When I sweep request bodies of "1,2k" with 2 senders, direct buffers from "1m" and mapped files from "2m"
+    Then every payload size should have completed without errors
+    And the sweep should have sent the smallest valid book instead of 1 byte
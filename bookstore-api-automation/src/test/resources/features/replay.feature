@@ -0,0 +1,13 @@
+@api @replay
+Feature: Capture Replay
+  As a Performance Engineer
+  I want to replay captured API traffic on its recorded schedule, optionally sped up
+  So that load tests follow the shape of real traffic instead of a synthetic mix
+
+  @regression
+  Scenario: A captured session replays at ten times speed with fresh identities
+    Given a capture of 3 book lifecycles recorded 100 ms apart
+    When I replay the capture at 10.0 times speed
+    Then every captured request should have been replayed
+    And every replayed request should have returned the recorded status
+    And the replay should have kept the recorded pacing within 1000 ms
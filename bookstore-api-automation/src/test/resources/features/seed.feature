@@ -0,0 +1,11 @@
+@api @load-engine @seed
+Feature: Bulk Data Seeding
+  As a Performance Engineer
+  I want to load large numbers of users and books quickly and resumably
+  So that reads are measured against a realistically sized catalogue
+
+  @books
+  Scenario: Seed users and books, then top up without rebuilding
+    Given the seeded dataset "seed-feature" holds 100 users and 1000 books
+    Then seeding should have had no failures
+    And a second seeding run of "seed-feature" up to 100 users and 1000 books should create nothing
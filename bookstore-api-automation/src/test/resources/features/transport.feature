@@ -0,0 +1,55 @@
+@api @transport
+Feature: Pluggable HTTP Transport
+  As a Performance Engineer
+  I want the same scenarios to run over RestAssured or the JDK HTTP client
+  So that I can tell the API's latency apart from the client library's overhead
+
+  @regression
+  Scenario Outline: Book lifecycle over the <transport> transport
+    Given requests go through the "<transport>" transport
+    And I am logged in with random credentials
+    When I create a book with random title and author
+    Then the response code should be 200
+    And the response should contain "id"
+    When I get the created book by id
+    Then the response code should be 200
+    When I update the book with random title
+    Then the response code should be 200
+    And the response should contain "name"
+    When I delete the book
+    Then the response code should be 200
+    And the response should contain "message" with value "Book deleted successfully"
+    When I get the deleted book by id
+    Then the response code should be 404
+    And the p99 latency of "POST /books/" should be below 1000 ms
+    And the p99 latency of "GET /books/{id}" with status 404 should be below 1000 ms
+
+    Examples:
+      | transport   |
+      | restassured |
+      | http2       |
+
+  @regression
+  Scenario Outline: Book list streamed over the <transport> transport
+    Given requests go through the "<transport>" transport
+    And I have created a book to look for in the list
+    When I stream the list of all books
+    Then the book list response code should be 200
+    And every listed book should be valid
+    And the list should contain the created book
+
+    Examples:
+      | transport   |
+      | restassured |
+      | http2       |
+
+  @regression
+  Scenario Outline: Concurrent async requests over the <transport> transport
+    Given requests go through the "<transport>" transport
+    When I send 50 async GET requests to Health Endpoint
+    Then all 50 async responses should have status 200
+
+    Examples:
+      | transport   |
+      | restassured |
+      | http2       |
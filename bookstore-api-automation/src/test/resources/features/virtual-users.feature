@@ -0,0 +1,17 @@
+@api @load-engine @virtual-users
+Feature: Virtual User Execution
+  As a Performance Engineer
+  I want to run bookstore scenarios as thousands of concurrent virtual users
+  So that concurrency is not capped by a handful of platform threads
+
+  @health
+  Scenario: Health checks from many concurrent virtual users
+    When 1000 virtual users each run the "API Health Check Verification" scenario 2 times
+    Then every virtual user iteration should pass
+    And at least 100 virtual users should have been running at once
+    And at least 50 of their requests should have been in flight at once
+
+  @books @crud
+  Scenario: Book lifecycle from concurrent virtual users
+    When 100 virtual users each run the "Complete Book Lifecycle Management" scenario 2 times over a 5 second ramp-up
+    Then every virtual user iteration should pass
@@ -0,0 +1,18 @@
+@api @load-engine @workload
+Feature: Weighted Workload Mix
+  As a Performance Engineer
+  I want virtual users to walk a weighted chain of book operations with think times
+  So that load follows the production mix instead of a fixed script
+
+  Scenario: Read-heavy mix across many sessions
+    Given the workload mix:
+      | from   | get | create | update | delete | think ms |
+      | start  | 0   | 1      | 0      | 0      | 0        |
+      | create | 90  | 5      | 3      | 2      | 20       |
+      | get    | 90  | 5      | 3      | 2      | 20       |
+      | update | 90  | 5      | 3      | 2      | 20       |
+      | delete | 90  | 5      | 3      | 2      | 20       |
+    When 5 virtual users run the workload mix for 10 seconds
+    Then every workload operation should have succeeded
+    And the share of "get" calls should be within 5 percentage points of the mix
+    And the share of "create" calls should be within 3 percentage points of the mix